@@ -1,3 +1,5 @@
+import org.jetbrains.intellij.platform.gradle.TestFrameworkType
+
 plugins {
     id("java")
     id("org.jetbrains.intellij.platform") version "2.4.0"
@@ -29,11 +31,19 @@ configurations.all {
 dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.1")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.1")
+    // IntelliJ 測試框架的 fixture 測試以 JUnit 4 執行
+    testImplementation("junit:junit:4.13.2")
+    testRuntimeOnly("org.junit.vintage:junit-vintage-engine:5.8.1")
+    // 效能測試以 msgid-lint 的模擬專案產生器建立 fixture
+    testImplementation(project(":msgid-lint"))
     
     // 添加 lombok 依賴
     compileOnly("org.projectlombok:lombok:1.18.36")
     annotationProcessor("org.projectlombok:lombok:1.18.36")
     
+    // 電文代號掃描等不依賴 IntelliJ Platform 的共用邏輯
+    implementation(project(":msgid-core"))
+
     // 添加 Jackson 依賴（明確指定版本）
     implementation("com.fasterxml.jackson.core:jackson-core:2.15.2")
     implementation("com.fasterxml.jackson.core:jackson-databind:2.15.2")
@@ -43,6 +53,8 @@ dependencies {
     intellijPlatform {
         local("/Applications/IntelliJ IDEA.app")
         bundledPlugin("com.intellij.java")
+        testFramework(TestFrameworkType.Platform)
+        testFramework(TestFrameworkType.Plugin.Java)
     }
 }
 
@@ -67,6 +79,10 @@ tasks {
     
     test {
         useJUnitPlatform()
+        // 10k 個類的 heavy fixture 需要較多記憶體
+        maxHeapSize = "2g"
+        // 較慢的機器可放寬效能預算：-PperfBudgetScale=2
+        systemProperty("cathaybk.perf.budgetScale", project.findProperty("perfBudgetScale") ?: "1")
     }
     
     // 解決重複文件的問題
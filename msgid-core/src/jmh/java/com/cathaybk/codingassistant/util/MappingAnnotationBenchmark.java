@@ -0,0 +1,65 @@
+package com.cathaybk.codingassistant.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 判斷方法是否為 Controller API 方法時逐一檢查註解限定名稱的成本
+ * <p>
+ * 每個方法都會呼叫，非 Controller 方法必須檢查完所有註解才能確定。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingAnnotationBenchmark {
+
+    /**
+     * 映射註解在第一個、映射註解在最後、一般方法（沒有映射註解）、沒有註解
+     */
+    @Param({ "MAPPING_FIRST", "MAPPING_LAST", "NO_MAPPING", "NONE" })
+    public String annotationShape;
+
+    private String[] qualifiedNames;
+
+    @Setup
+    public void setUp() {
+        switch (annotationShape) {
+            case "MAPPING_FIRST":
+                qualifiedNames = new String[] {
+                        "org.springframework.web.bind.annotation.PostMapping",
+                        "io.swagger.v3.oas.annotations.Operation",
+                        "org.springframework.web.bind.annotation.ResponseBody" };
+                break;
+            case "MAPPING_LAST":
+                qualifiedNames = new String[] {
+                        "io.swagger.v3.oas.annotations.Operation",
+                        "org.springframework.security.access.prepost.PreAuthorize",
+                        "org.springframework.web.bind.annotation.ResponseBody",
+                        "org.springframework.web.bind.annotation.GetMapping" };
+                break;
+            case "NO_MAPPING":
+                qualifiedNames = new String[] {
+                        "java.lang.Override",
+                        "org.springframework.transaction.annotation.Transactional",
+                        null,
+                        "lombok.SneakyThrows" };
+                break;
+            case "NONE":
+                qualifiedNames = new String[0];
+                break;
+            default:
+                throw new IllegalArgumentException(annotationShape);
+        }
+    }
+
+    @Benchmark
+    public boolean scanAnnotations() {
+        for (String qualifiedName : qualifiedNames) {
+            if (MappingAnnotations.isMapping(qualifiedName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
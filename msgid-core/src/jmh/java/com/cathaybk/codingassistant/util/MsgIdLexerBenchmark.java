@@ -0,0 +1,98 @@
+package com.cathaybk.codingassistant.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 比較原本的 {@code Matcher.find()} 與 {@link MsgIdLexer} 的電文代號提取成本
+ * <p>
+ * 涵蓋原本正則表達式的三種用法：只判斷有無電文代號（ServiceLinkInspection）、
+ * 取出包含說明的整行（ApiMsgIdInspection、SyncApiIdAction），以及只取位移不建立字串。
+ * <p>
+ * 執行：{@code ./gradlew :msgid-core:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MsgIdLexerBenchmark {
+
+    // 原本三個元件各自持有的正則表達式
+    private static final Pattern API_ID_PATTERN = Pattern.compile("([A-Za-z0-9]+-[A-Za-z0-9]+-[A-Za-z0-9]+.*)");
+
+    /**
+     * 常見的 Javadoc 大小：只有電文代號、帶參數說明、長篇說明且電文代號在最後、沒有電文代號
+     */
+    @Param({ "SHORT", "WITH_TAGS", "LONG_TAIL", "MISSING" })
+    public String docShape;
+
+    private String docText;
+    private final MsgIdMatch match = new MsgIdMatch();
+
+    @Setup
+    public void setUp() {
+        docText = createDoc(docShape);
+    }
+
+    @Benchmark
+    public boolean regexHasMsgId() {
+        return API_ID_PATTERN.matcher(docText).find();
+    }
+
+    @Benchmark
+    public boolean lexerHasMsgId() {
+        return MsgIdLexer.find(docText, match);
+    }
+
+    @Benchmark
+    public void regexFind(Blackhole blackhole) {
+        Matcher matcher = API_ID_PATTERN.matcher(docText);
+        blackhole.consume(matcher.find() ? matcher.group(1) : null);
+    }
+
+    @Benchmark
+    public void lexerFind(Blackhole blackhole) {
+        blackhole.consume(MsgIdLexer.find(docText, match));
+        blackhole.consume(match.getIdEnd());
+    }
+
+    @Benchmark
+    public String lexerFullText() {
+        return MsgIdLexer.find(docText, match) ? match.fullText() : null;
+    }
+
+    static String createDoc(String shape) {
+        StringBuilder doc = new StringBuilder("/**\n");
+        switch (shape) {
+            case "SHORT":
+                doc.append(" * RET-B-TAKINGFILE 取件檔案查詢\n");
+                break;
+            case "WITH_TAGS":
+                doc.append(" * RET-B-TAKINGFILE 取件檔案查詢\n");
+                doc.append(" *\n");
+                doc.append(" * @param request 查詢條件，包含客戶編號與查詢區間\n");
+                doc.append(" * @param header 電文表頭\n");
+                doc.append(" * @return 取件檔案清單\n");
+                doc.append(" * @throws IllegalArgumentException 查詢區間超過三個月時\n");
+                break;
+            case "LONG_TAIL":
+                for (int i = 0; i < 40; i++) {
+                    doc.append(" * 這是一段很長的說明文字，描述此 API 的業務規則與注意事項 ").append(i).append("\n");
+                }
+                doc.append(" * RET-B-TAKINGFILE 取件檔案查詢\n");
+                break;
+            case "MISSING":
+                for (int i = 0; i < 10; i++) {
+                    doc.append(" * 查詢取件檔案 - 依客戶編號 - 第 ").append(i).append(" 段說明\n");
+                }
+                doc.append(" * @param request 查詢條件\n");
+                break;
+            default:
+                throw new IllegalArgumentException(shape);
+        }
+        return doc.append(" */").toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.cathaybk.codingassistant.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同步時比較電文代號主要部分的成本，每個目標方法比對兩次
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MsgIdMainPartBenchmark {
+
+    @Param({ "RET-B-TAKINGFILE", "CUSTOMERPROFILE-QUERY-DETAIL-V2", "NOHYPHEN" })
+    public String msgId;
+
+    @Benchmark
+    public String mainPart() {
+        return MsgIdLexer.mainPart(msgId);
+    }
+
+    @Benchmark
+    public boolean sameMainPart() {
+        return MsgIdLexer.mainPart(msgId).equals(MsgIdLexer.mainPart("RET-A-OTHERFILE"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.cathaybk.codingassistant.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生成 Service 介面與實現類原始碼的字串組合成本
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServiceSourceTemplateBenchmark {
+
+    /**
+     * API 方法的參數個數
+     */
+    @Param({ "0", "2", "8" })
+    public int parameterCount;
+
+    private ServiceSourceTemplate template;
+
+    @Setup
+    public void setUp() {
+        String[] types = new String[parameterCount];
+        String[] names = new String[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            types[i] = i == 0 ? "TakingFileRequest" : "String";
+            names[i] = "param" + i;
+        }
+        template = new ServiceSourceTemplate("queryTakingFile", "TakingFileResponse", types, names);
+    }
+
+    @Benchmark
+    public String serviceInterface() {
+        return template.serviceInterface("com.cathaybk.ret.service", "TakingFileService", "RET-B-TAKINGFILE");
+    }
+
+    @Benchmark
+    public String serviceImpl() {
+        return template.serviceImpl("com.cathaybk.ret.service.impl", "com.cathaybk.ret.service",
+                "TakingFileService", "TakingFileServiceImpl", "RET-B-TAKINGFILE");
+    }
+}
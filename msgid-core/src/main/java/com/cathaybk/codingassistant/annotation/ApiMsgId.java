@@ -7,6 +7,9 @@ import java.lang.annotation.Target;
 
 /**
  * 用於標記API的消息ID
+ * <p>
+ * 搭配 msgid-processor 時於編譯期產生電文代號表，執行期不需反射即可查詢；
+ * 保留 RUNTIME 以相容仍以反射讀取的程式。
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.METHOD, ElementType.TYPE })
@@ -0,0 +1,66 @@
+package com.cathaybk.codingassistant.registry;
+
+import java.util.Arrays;
+
+/**
+ * 一個 {@code @ApiMsgId} 宣告：電文代號、宣告的類與方法、說明
+ * <p>
+ * 類與參數型別都是 binary name（巢狀類以 {@code $} 分隔，陣列為 {@link Class#getName()} 的格式），
+ * 可直接交給 {@link Class#forName(String)}；基本型別為 {@code int}、{@code long} 等關鍵字。
+ */
+public final class ApiMsgIdEntry {
+
+    private static final String[] NO_PARAMETERS = new String[0];
+
+    private final String msgId;
+    private final String className;
+    private final String methodName;
+    private final String[] parameterTypes;
+    private final String description;
+
+    /**
+     * @param methodName     標註在類上時為 null
+     * @param parameterTypes 方法的參數型別，標註在類上時為 null
+     */
+    public ApiMsgIdEntry(String msgId, String className, String methodName, String[] parameterTypes,
+            String description) {
+        this.msgId = msgId;
+        this.className = className;
+        this.methodName = methodName;
+        this.parameterTypes = parameterTypes != null ? parameterTypes : NO_PARAMETERS;
+        this.description = description;
+    }
+
+    public String getMsgId() {
+        return msgId;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * 標註的方法名稱，標註在類上時為 null
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public boolean isMethod() {
+        return methodName != null;
+    }
+
+    public String[] getParameterTypes() {
+        return parameterTypes.clone();
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return msgId + " -> " + className + (methodName != null
+                ? "#" + methodName + "(" + String.join(",", Arrays.asList(parameterTypes)) + ")" : "");
+    }
+}
@@ -0,0 +1,58 @@
+package com.cathaybk.codingassistant.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 以 {@link MsgIdPerfectHash} 查詢的唯讀電文代號表
+ * <p>
+ * 由註解處理器產生的 {@code ApiMsgIdRegistry} 在類初始化時以編譯期算好的種子與槽位建立，
+ * 執行期不需掃描 classpath 或反射；建立後不再修改，可由多個線程同時查詢。
+ */
+public final class ApiMsgIdTable {
+
+    private final int[] seeds;
+    private final ApiMsgIdEntry[] slots;
+    private final List<ApiMsgIdEntry> entries;
+
+    /**
+     * @param seeds 每個桶的種子（{@link MsgIdPerfectHash#getSeeds()}）
+     * @param slots 依槽位排列的宣告，沒有鍵的槽位為 null
+     */
+    public ApiMsgIdTable(int[] seeds, ApiMsgIdEntry[] slots) {
+        this.seeds = seeds;
+        this.slots = slots;
+        List<ApiMsgIdEntry> list = new ArrayList<>(slots.length);
+        for (ApiMsgIdEntry entry : slots) {
+            if (entry != null) {
+                list.add(entry);
+            }
+        }
+        this.entries = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 依電文代號查詢宣告
+     *
+     * @return 沒有該電文代號時返回 null
+     */
+    public ApiMsgIdEntry find(String msgId) {
+        if (msgId == null || slots.length == 0) {
+            return null;
+        }
+        ApiMsgIdEntry entry = slots[MsgIdPerfectHash.slot(seeds, slots.length, msgId)];
+        return entry != null && entry.getMsgId().equals(msgId) ? entry : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 所有宣告（依槽位順序）
+     */
+    public List<ApiMsgIdEntry> getEntries() {
+        return entries;
+    }
+}
@@ -0,0 +1,136 @@
+package com.cathaybk.codingassistant.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 產生的電文代號表在類檔中的編碼
+ * <p>
+ * 上萬個項目若各自寫成字串常數會超過類檔常數池 65535 個的上限，因此種子與項目都編碼成少數幾個長字串：
+ * 種子以逗號分隔；每個項目為「槽位、電文代號、類、方法、參數型別、說明」，欄位以 U+001F、項目以 U+001E 分隔。
+ * 類初始化時解碼一次，不需反射或讀取資源檔。
+ * <p>
+ * 產生的表記錄編碼時的 {@link #VERSION}：槽位由 {@link MsgIdPerfectHash} 的雜湊決定，
+ * 以不同版本的處理器產生的表在執行期會查到錯誤的槽位，解碼時即拒絕，而不是查詢時靜默找不到。
+ */
+public final class ApiMsgIdTableFormat {
+
+    /**
+     * 編碼與雜湊的版本：1 為以 FNV-1a 分桶與分槽，2 改以 {@link String#hashCode()} 分桶與分槽
+     */
+    public static final int VERSION = 2;
+
+    public static final char SEED_SEPARATOR = ',';
+    public static final char FIELD_SEPARATOR = '\u001F';
+    public static final char RECORD_SEPARATOR = '\u001E';
+
+    private ApiMsgIdTableFormat() {
+    }
+
+    /**
+     * 文字中是否含有分隔字元（含有時無法編碼）
+     */
+    public static boolean containsSeparator(String text) {
+        return text.indexOf(FIELD_SEPARATOR) >= 0 || text.indexOf(RECORD_SEPARATOR) >= 0;
+    }
+
+    public static String encodeSeeds(int[] seeds) {
+        StringBuilder text = new StringBuilder(seeds.length * 4);
+        for (int i = 0; i < seeds.length; i++) {
+            if (i > 0) {
+                text.append(SEED_SEPARATOR);
+            }
+            text.append(seeds[i]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * 依槽位順序編碼項目，沒有項目的槽位略過
+     */
+    public static String encodeEntries(ApiMsgIdEntry[] slots) {
+        StringBuilder text = new StringBuilder(slots.length * 96);
+        for (int slot = 0; slot < slots.length; slot++) {
+            ApiMsgIdEntry entry = slots[slot];
+            if (entry == null) {
+                continue;
+            }
+            text.append(slot).append(FIELD_SEPARATOR)
+                    .append(entry.getMsgId()).append(FIELD_SEPARATOR)
+                    .append(entry.getClassName()).append(FIELD_SEPARATOR)
+                    .append(entry.isMethod() ? entry.getMethodName() : "").append(FIELD_SEPARATOR)
+                    .append(String.join(",", entry.getParameterTypes())).append(FIELD_SEPARATOR)
+                    .append(entry.getDescription()).append(RECORD_SEPARATOR);
+        }
+        return text.toString();
+    }
+
+    /**
+     * 舊版（{@code 1}）處理器產生的表沒有記錄版本，呼叫此方法；其雜湊與目前不同，一律拒絕
+     *
+     * @throws IllegalStateException 一律拋出，需以目前版本的 msgid-processor 重新編譯
+     */
+    @Deprecated
+    public static ApiMsgIdTable decode(int tableSize, String[] seedChunks, String[] entryChunks) {
+        return decode(1, tableSize, seedChunks, entryChunks);
+    }
+
+    /**
+     * 解碼產生的電文代號表；長字串可分段傳入，段落只在分隔字元後切開
+     *
+     * @param version 產生表時的 {@link #VERSION}
+     * @throws IllegalStateException 版本與執行期的 msgid-core 不同時
+     */
+    public static ApiMsgIdTable decode(int version, int tableSize, String[] seedChunks, String[] entryChunks) {
+        if (version != VERSION) {
+            throw new IllegalStateException("電文代號表格式版本 " + version + " 與執行期的版本 " + VERSION
+                    + " 不同，請以相同版本的 msgid-processor 重新編譯");
+        }
+        String seedText = String.join("", seedChunks);
+        int[] seeds = new int[seedText.isEmpty() ? 0 : count(seedText, SEED_SEPARATOR) + 1];
+        int start = 0;
+        for (int i = 0; i < seeds.length; i++) {
+            int end = seedText.indexOf(SEED_SEPARATOR, start);
+            if (end < 0) {
+                end = seedText.length();
+            }
+            seeds[i] = Integer.parseInt(seedText, start, end, 10);
+            start = end + 1;
+        }
+
+        ApiMsgIdEntry[] slots = new ApiMsgIdEntry[tableSize];
+        String entryText = String.join("", entryChunks);
+        List<String> fields = new ArrayList<>(6);
+        start = 0;
+        while (start < entryText.length()) {
+            int end = entryText.indexOf(RECORD_SEPARATOR, start);
+            fields.clear();
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                char c = entryText.charAt(i);
+                if (c == FIELD_SEPARATOR || c == RECORD_SEPARATOR) {
+                    fields.add(entryText.substring(fieldStart, i));
+                    fieldStart = i + 1;
+                }
+            }
+            String methodName = fields.get(3);
+            String parameterTypes = fields.get(4);
+            slots[Integer.parseInt(fields.get(0))] = new ApiMsgIdEntry(fields.get(1), fields.get(2),
+                    methodName.isEmpty() ? null : methodName,
+                    methodName.isEmpty() ? null : parameterTypes.isEmpty() ? new String[0] : parameterTypes.split(","),
+                    fields.get(5));
+            start = end + 1;
+        }
+        return new ApiMsgIdTable(seeds, slots);
+    }
+
+    private static int count(String text, char c) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,233 @@
+package com.cathaybk.codingassistant.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 電文代號的最小完美雜湊（hash and displace）
+ * <p>
+ * 以 {@link String#hashCode()}（字串已快取，不需走訪字元）把鍵分到約 {@code n / 4} 個桶，
+ * 由大到小替每個桶找一個種子，讓桶內的鍵以該種子重新打散 {@code hashCode} 後落在互不衝突的空槽；
+ * 只有一個鍵的桶直接記錄槽位（存為負數）。桶內有 {@code hashCode} 相同的不同鍵時，
+ * 該桶改以種子混合的 FNV-1a 走訪字元（種子帶 {@link #CHAR_HASH} 旗標）。
+ * 查詢只需一次整數混合與一次字串比較，沒有鏈結或探測。
+ * <p>
+ * 建表在編譯期由註解處理器執行，查詢在執行期由 {@link ApiMsgIdTable} 執行，兩者必須使用同一個雜湊函數；
+ * 修改雜湊或分桶方式時需同時提高 {@link ApiMsgIdTableFormat#VERSION}，讓舊版處理器產生的表在載入時就失敗。
+ */
+public final class MsgIdPerfectHash {
+
+    // 每個桶找種子的嘗試上限，超過時擴大表格重來
+    private static final int MAX_SEED = 1 << 20;
+    // 種子旗標：此桶以走訪字元的雜湊分槽
+    private static final int CHAR_HASH = 1 << 30;
+
+    private final int[] seeds;
+    private final int[] slots;
+    private final int tableSize;
+
+    private MsgIdPerfectHash(int[] seeds, int[] slots, int tableSize) {
+        this.seeds = seeds;
+        this.slots = slots;
+        this.tableSize = tableSize;
+    }
+
+    /**
+     * 為不重複的鍵建立雜湊表
+     *
+     * @throws IllegalArgumentException 鍵重複時
+     */
+    public static MsgIdPerfectHash build(String[] keys) {
+        int bucketCount = Math.max(1, (keys.length + 3) / 4);
+        for (int tableSize = Math.max(1, keys.length); ; tableSize += Math.max(1, keys.length / 16)) {
+            MsgIdPerfectHash hash = tryBuild(keys, bucketCount, tableSize);
+            if (hash != null) {
+                return hash;
+            }
+        }
+    }
+
+    private static MsgIdPerfectHash tryBuild(String[] keys, int bucketCount, int tableSize) {
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int k = 0; k < keys.length; k++) {
+            buckets.get(bucket(keys[k], bucketCount)).add(k);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (left, right) -> buckets.get(right).size() - buckets.get(left).size());
+
+        int[] seeds = new int[bucketCount];
+        int[] slots = new int[keys.length];
+        boolean[] used = new boolean[tableSize];
+        int[] candidate = new int[0];
+        int nextFree = 0;
+
+        for (int b : order) {
+            List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            if (bucket.size() == 1) {
+                while (used[nextFree]) {
+                    nextFree++;
+                }
+                used[nextFree] = true;
+                slots[bucket.get(0)] = nextFree;
+                seeds[b] = -nextFree - 1;
+                continue;
+            }
+
+            if (candidate.length < bucket.size()) {
+                candidate = new int[bucket.size()];
+            }
+            int seed = findSeed(keys, bucket, used, candidate, tableSize);
+            if (seed == 0) {
+                return null;
+            }
+            for (int i = 0; i < bucket.size(); i++) {
+                used[candidate[i]] = true;
+                slots[bucket.get(i)] = candidate[i];
+            }
+            seeds[b] = seed;
+        }
+        return new MsgIdPerfectHash(seeds, slots, tableSize);
+    }
+
+    /**
+     * @return 讓桶內的鍵都落在不同空槽的種子，找不到時返回 0
+     */
+    private static int findSeed(String[] keys, List<Integer> bucket, boolean[] used, int[] candidate, int tableSize) {
+        int flag = hasEqualHashCodes(keys, bucket) ? CHAR_HASH : 0;
+        for (int seed = flag | 1; seed < (flag | MAX_SEED); seed++) {
+            boolean fits = true;
+            for (int i = 0; i < bucket.size() && fits; i++) {
+                String key = keys[bucket.get(i)];
+                int slot = index(hash(seed, key), tableSize);
+                if (used[slot]) {
+                    fits = false;
+                }
+                for (int j = 0; j < i && fits; j++) {
+                    if (candidate[j] == slot) {
+                        if (keys[bucket.get(j)].equals(key)) {
+                            throw new IllegalArgumentException("電文代號重複: " + key);
+                        }
+                        fits = false;
+                    }
+                }
+                candidate[i] = slot;
+            }
+            if (fits) {
+                return seed;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasEqualHashCodes(String[] keys, List<Integer> bucket) {
+        for (int i = 1; i < bucket.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                if (keys[bucket.get(i)].hashCode() == keys[bucket.get(j)].hashCode()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查詢鍵所在的槽位；鍵不在表中時返回任意槽位，呼叫端需比較鍵
+     */
+    public static int slot(int[] seeds, int tableSize, String key) {
+        return slot(seeds, tableSize, key.hashCode(), key);
+    }
+
+    /**
+     * 查詢鍵所在的槽位，可直接以電文緩衝區等非 {@link String} 的字元序列查詢而不需先建立字串；
+     * 以 {@link String#hashCode()} 相同的公式走訪字元，結果與內容相同的字串一致
+     */
+    public static int slot(int[] seeds, int tableSize, CharSequence key) {
+        if (key instanceof String) {
+            return slot(seeds, tableSize, (String) key);
+        }
+        int hashCode = 0;
+        for (int i = 0, length = key.length(); i < length; i++) {
+            hashCode = 31 * hashCode + key.charAt(i);
+        }
+        return slot(seeds, tableSize, hashCode, key);
+    }
+
+    private static int slot(int[] seeds, int tableSize, int hashCode, CharSequence key) {
+        int seed = seeds[bucket(hashCode, seeds.length)];
+        return seed < 0 ? -seed - 1 : index(hash(seed, hashCode, key), tableSize);
+    }
+
+    private static int bucket(String key, int bucketCount) {
+        return bucket(key.hashCode(), bucketCount);
+    }
+
+    private static int bucket(int hashCode, int bucketCount) {
+        int h = hashCode * 0x9E3779B9;
+        return index(h ^ (h >>> 16), bucketCount);
+    }
+
+    private static int hash(int seed, String key) {
+        return hash(seed, key.hashCode(), key);
+    }
+
+    private static int hash(int seed, int hashCode, CharSequence key) {
+        if ((seed & CHAR_HASH) != 0) {
+            return charHash(seed & ~CHAR_HASH, key);
+        }
+        // murmur3 的 fmix32
+        int h = hashCode ^ (seed * 0x9E3779B9);
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * 以種子混合的 FNV-1a，最後再打散高低位
+     */
+    private static int charHash(int seed, CharSequence key) {
+        int h = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+        for (int i = 0, length = key.length(); i < length; i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private static int index(int hash, int size) {
+        return (hash & 0x7FFFFFFF) % size;
+    }
+
+    /**
+     * 每個桶的種子；負數表示只有一個鍵，值為 {@code -槽位 - 1}
+     */
+    public int[] getSeeds() {
+        return seeds.clone();
+    }
+
+    /**
+     * 第 i 個鍵的槽位
+     */
+    public int getSlot(int keyIndex) {
+        return slots[keyIndex];
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cathaybk.codingassistant.util;
+
+/**
+ * 判斷註解是否為 Spring 請求映射註解（{@code @RequestMapping}、{@code @PostMapping} 等）
+ * <p>
+ * 只比對限定名稱字串，檢查器、同步與生成動作共用同一規則。
+ */
+public final class MappingAnnotations {
+
+    private MappingAnnotations() {
+    }
+
+    /**
+     * @param qualifiedName 註解的限定名稱，可能為 null（無法解析的註解）
+     */
+    public static boolean isMapping(String qualifiedName) {
+        return qualifiedName != null && (qualifiedName.endsWith("Mapping")
+                || qualifiedName.contains("RequestMapping")
+                || qualifiedName.contains("PostMapping")
+                || qualifiedName.contains("GetMapping"));
+    }
+}
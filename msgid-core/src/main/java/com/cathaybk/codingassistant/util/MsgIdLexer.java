@@ -0,0 +1,153 @@
+package com.cathaybk.codingassistant.util;
+
+/**
+ * 電文代號掃描器，取代 {@code ([A-Za-z0-9]+-[A-Za-z0-9]+-[A-Za-z0-9]+.*)} 正則表達式
+ * <p>
+ * 直接掃描 {@link CharSequence}，單次線性走訪、不回溯、不建立字串或 Matcher。
+ * 匹配規則與原正則表達式相同：找到最左邊的「英數-英數-英數」開頭，
+ * 電文代號延伸到第一個空白，同一行其餘內容為說明文字。
+ */
+public final class MsgIdLexer {
+
+    // 狀態：尚未開始、第一段、第一個連字符、第二段、第二個連字符
+    private static final int NONE = 0;
+    private static final int FIRST = 1;
+    private static final int FIRST_DASH = 2;
+    private static final int SECOND = 3;
+    private static final int SECOND_DASH = 4;
+
+    private MsgIdLexer() {
+    }
+
+    /**
+     * 在整段文字中尋找第一個電文代號
+     */
+    public static boolean find(CharSequence text, MsgIdMatch match) {
+        return find(text, 0, text.length(), match);
+    }
+
+    /**
+     * 在 {@code [start, end)} 範圍內尋找第一個電文代號
+     *
+     * @param match 找到時填入位移，找不到時不修改
+     * @return 是否找到
+     */
+    public static boolean find(CharSequence text, int start, int end, MsgIdMatch match) {
+        int state = NONE;
+        int runStart = -1;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            boolean alnum = isAsciiAlphanumeric(c);
+
+            switch (state) {
+                case NONE:
+                    if (alnum) {
+                        state = FIRST;
+                        runStart = i;
+                    }
+                    break;
+                case FIRST:
+                    if (c == '-') {
+                        state = FIRST_DASH;
+                    } else if (!alnum) {
+                        state = NONE;
+                    }
+                    break;
+                case FIRST_DASH:
+                    // 連字符後必須是英數；失敗時任何較晚的起點也會在同一字元失敗，不需回溯
+                    state = alnum ? SECOND : NONE;
+                    break;
+                case SECOND:
+                    if (c == '-') {
+                        state = SECOND_DASH;
+                    } else if (!alnum) {
+                        state = NONE;
+                    }
+                    break;
+                case SECOND_DASH:
+                    if (alnum) {
+                        fill(text, runStart, i, end, match);
+                        return true;
+                    }
+                    state = NONE;
+                    break;
+                default:
+                    throw new IllegalStateException("未知狀態: " + state);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判斷整段文字是否為單一電文代號（不含空白與說明）
+     */
+    public static boolean isMsgId(CharSequence text) {
+        int length = text.length();
+        if (length == 0 || !isAsciiAlphanumeric(text.charAt(0))) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        MsgIdMatch match = new MsgIdMatch();
+        return find(text, 0, length, match) && match.getIdStart() == 0 && match.getIdEnd() == length;
+    }
+
+    /**
+     * 電文代號的主要部分（第一個連字符前），例如 "RET-B-TAKINGFILE" 返回 "RET"
+     *
+     * @return 沒有連字符時返回原字串，null 時返回空字串
+     */
+    public static String mainPart(String msgId) {
+        if (msgId == null) {
+            return "";
+        }
+        int firstHyphen = msgId.indexOf('-');
+        return firstHyphen > 0 ? msgId.substring(0, firstHyphen) : msgId;
+    }
+
+    private static void fill(CharSequence text, int idStart, int thirdStart, int end, MsgIdMatch match) {
+        // 電文代號延伸到第一個空白或行尾
+        int idEnd = thirdStart;
+        while (idEnd < end && !Character.isWhitespace(text.charAt(idEnd))) {
+            idEnd++;
+        }
+        if (idEnd - thirdStart >= 3 && text.charAt(idEnd - 1) == '/' && text.charAt(idEnd - 2) == '*') {
+            idEnd -= 2;
+        }
+
+        // 說明文字：同一行中跳過前導空白，去掉結尾空白與註解結束符號
+        int descriptionStart = idEnd;
+        while (descriptionStart < end && isInlineWhitespace(text.charAt(descriptionStart))) {
+            descriptionStart++;
+        }
+        int descriptionEnd = descriptionStart;
+        while (descriptionEnd < end && !isLineEnd(text.charAt(descriptionEnd))) {
+            descriptionEnd++;
+        }
+        if (descriptionEnd - descriptionStart >= 2 && text.charAt(descriptionEnd - 1) == '/'
+                && text.charAt(descriptionEnd - 2) == '*') {
+            descriptionEnd -= 2;
+        }
+        while (descriptionEnd > descriptionStart && isInlineWhitespace(text.charAt(descriptionEnd - 1))) {
+            descriptionEnd--;
+        }
+
+        match.set(text, idStart, idEnd, descriptionStart, descriptionEnd);
+    }
+
+    private static boolean isAsciiAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isLineEnd(char c) {
+        return c == '\n' || c == '\r';
+    }
+
+    private static boolean isInlineWhitespace(char c) {
+        return !isLineEnd(c) && Character.isWhitespace(c);
+    }
+}
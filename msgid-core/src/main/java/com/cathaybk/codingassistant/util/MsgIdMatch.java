@@ -0,0 +1,78 @@
+package com.cathaybk.codingassistant.util;
+
+/**
+ * {@link MsgIdLexer} 的掃描結果，只記錄來源文字與位移，不複製字串
+ * <p>
+ * 同一個實例可以重複使用；需要字串時才呼叫 {@link #msgId()} 等方法建立。
+ */
+public final class MsgIdMatch {
+    private CharSequence source;
+    private int idStart;
+    private int idEnd;
+    private int descriptionStart;
+    private int descriptionEnd;
+
+    void set(CharSequence source, int idStart, int idEnd, int descriptionStart, int descriptionEnd) {
+        this.source = source;
+        this.idStart = idStart;
+        this.idEnd = idEnd;
+        this.descriptionStart = descriptionStart;
+        this.descriptionEnd = descriptionEnd;
+    }
+
+    /**
+     * 找到電文代號的來源文字
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public int getIdStart() {
+        return idStart;
+    }
+
+    public int getIdEnd() {
+        return idEnd;
+    }
+
+    /**
+     * 說明文字起點；沒有說明時與 {@link #getDescriptionEnd()} 相同
+     */
+    public int getDescriptionStart() {
+        return descriptionStart;
+    }
+
+    public int getDescriptionEnd() {
+        return descriptionEnd;
+    }
+
+    public boolean hasDescription() {
+        return descriptionEnd > descriptionStart;
+    }
+
+    /**
+     * 電文代號本身，例如 "RET-B-TAKINGFILE"
+     */
+    public String msgId() {
+        return source.subSequence(idStart, idEnd).toString();
+    }
+
+    /**
+     * 電文代號後面的說明文字，可能為空字串
+     */
+    public String description() {
+        return source.subSequence(descriptionStart, descriptionEnd).toString();
+    }
+
+    /**
+     * 包含說明的完整電文代號行
+     */
+    public String fullText() {
+        return source.subSequence(idStart, hasDescription() ? descriptionEnd : idEnd).toString();
+    }
+
+    @Override
+    public String toString() {
+        return source == null ? "MsgIdMatch[]" : "MsgIdMatch[" + fullText() + "]";
+    }
+}
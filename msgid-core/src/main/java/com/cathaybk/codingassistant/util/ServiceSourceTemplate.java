@@ -0,0 +1,119 @@
+package com.cathaybk.codingassistant.util;
+
+/**
+ * 由 Controller API 方法生成 Service 介面與實現類的原始碼
+ * <p>
+ * 只處理字串，型別與參數名稱由呼叫端從 PSI 取出後傳入。
+ */
+public final class ServiceSourceTemplate {
+
+    private static final String API_MSG_ID_IMPORT = "import com.cathaybk.codingassistant.annotation.ApiMsgId;\n";
+
+    private final String methodName;
+    private final String returnType;
+    private final String[] parameterTypes;
+    private final String[] parameterNames;
+
+    /**
+     * @param returnType     方法返回型別的顯示文字，沒有返回型別時傳 "void"
+     * @param parameterTypes 參數型別的顯示文字，與 {@code parameterNames} 一一對應
+     */
+    public ServiceSourceTemplate(String methodName, String returnType, String[] parameterTypes,
+            String[] parameterNames) {
+        if (parameterTypes.length != parameterNames.length) {
+            throw new IllegalArgumentException("參數型別與名稱數量不一致");
+        }
+        this.methodName = methodName;
+        this.returnType = returnType;
+        this.parameterTypes = parameterTypes;
+        this.parameterNames = parameterNames;
+    }
+
+    /**
+     * Service 介面原始碼
+     */
+    public String serviceInterface(String packageName, String serviceName, String msgId) {
+        StringBuilder text = new StringBuilder(256);
+        text.append("package ").append(packageName).append(";\n\n");
+        text.append(API_MSG_ID_IMPORT).append('\n');
+        text.append("/**\n * ").append(serviceName).append("\n */\n");
+        text.append("@ApiMsgId(\"").append(msgId).append("\")\n");
+        text.append("public interface ").append(serviceName).append(" {\n\n");
+        text.append("    /**\n     * ").append(methodName).append("\n     */\n");
+        text.append("    ").append(returnType).append(' ').append(methodName).append('(');
+        appendParameters(text);
+        text.append(");\n}\n");
+        return text.toString();
+    }
+
+    /**
+     * ServiceImpl 實現類原始碼，方法主體為 TODO 與返回型別的預設值
+     */
+    public String serviceImpl(String implPackage, String servicePackage, String serviceName,
+            String serviceImplName, String msgId) {
+        StringBuilder text = new StringBuilder(512);
+        text.append("package ").append(implPackage).append(";\n\n");
+        text.append("import ").append(servicePackage).append('.').append(serviceName).append(";\n");
+        text.append("import org.springframework.stereotype.Service;\n");
+        text.append(API_MSG_ID_IMPORT).append('\n');
+
+        text.append("/**\n * ").append(serviceImplName).append("\n */\n");
+        text.append("@Service\n");
+        text.append("@ApiMsgId(\"").append(msgId).append("\")\n");
+        text.append("public class ").append(serviceImplName).append(" implements ").append(serviceName)
+                .append(" {\n\n");
+
+        text.append("    @Override\n");
+        text.append("    public ").append(returnType).append(' ').append(methodName).append('(');
+        appendParameters(text);
+        text.append(") {\n");
+
+        text.append("        // TODO: 實現").append(methodName).append("方法\n");
+        String defaultValue = defaultReturnValue(returnType);
+        if (defaultValue != null) {
+            text.append("        return ").append(defaultValue).append(";\n");
+        }
+
+        text.append("    }\n");
+        text.append("}\n");
+        return text.toString();
+    }
+
+    private void appendParameters(StringBuilder text) {
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(parameterTypes[i]).append(' ').append(parameterNames[i]);
+        }
+    }
+
+    /**
+     * 返回型別的預設值；void 返回 null
+     */
+    static String defaultReturnValue(String returnType) {
+        switch (returnType) {
+            case "void":
+                return null;
+            case "String":
+                return "\"\"";
+            case "int":
+            case "Integer":
+                return "0";
+            case "long":
+            case "Long":
+                return "0L";
+            case "boolean":
+            case "Boolean":
+                return "false";
+            case "double":
+            case "Double":
+                return "0.0";
+            case "float":
+            case "Float":
+                return "0.0f";
+            default:
+                return "null";
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cathaybk.codingassistant.registry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiMsgIdTableTest {
+
+    @Test
+    void findsEntriesAfterEncodeAndDecode() {
+        String[] keys = { "RET-B-TAKINGFILE", "AaAa-B-C", "BBBB-B-C", "RET-B-QUERY" };
+        ApiMsgIdEntry[] entries = {
+                new ApiMsgIdEntry(keys[0], "com.example.TakingFileService", "query",
+                        new String[] { "com.example.Request", "int[]" }, "取件檔案查詢"),
+                new ApiMsgIdEntry(keys[1], "com.example.Outer$Inner", null, null, ""),
+                new ApiMsgIdEntry(keys[2], "com.example.Other", "handle", new String[0], "說明, 含逗號"),
+                new ApiMsgIdEntry(keys[3], "com.example.QueryService", "query",
+                        new String[] { "java.lang.String" }, "查詢"),
+        };
+        ApiMsgIdTable table = decode(keys, entries, ApiMsgIdTableFormat.VERSION);
+
+        assertEquals(keys.length, table.size());
+        for (ApiMsgIdEntry expected : entries) {
+            ApiMsgIdEntry actual = table.find(expected.getMsgId());
+            assertNotNull(actual, expected.getMsgId());
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.isMethod(), actual.isMethod());
+        }
+        assertNull(table.find("RET-B-MISSING"));
+        assertNull(table.find("AaBB-B-C"));
+        assertNull(table.find(null));
+    }
+
+    @Test
+    void rejectsTableOfOtherVersion() {
+        String[] keys = { "RET-B-TAKINGFILE" };
+        ApiMsgIdEntry[] entries = { new ApiMsgIdEntry(keys[0], "com.example.TakingFileService", null, null, "") };
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> decode(keys, entries, ApiMsgIdTableFormat.VERSION + 1));
+        assertTrue(e.getMessage().contains("msgid-processor"), e.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void rejectsTableWithoutVersion() {
+        assertThrows(IllegalStateException.class,
+                () -> ApiMsgIdTableFormat.decode(1, new String[] { "-1" }, new String[0]));
+    }
+
+    private static ApiMsgIdTable decode(String[] keys, ApiMsgIdEntry[] entries, int version) {
+        MsgIdPerfectHash hash = MsgIdPerfectHash.build(keys);
+        ApiMsgIdEntry[] slots = new ApiMsgIdEntry[hash.getTableSize()];
+        for (int i = 0; i < keys.length; i++) {
+            slots[hash.getSlot(i)] = entries[i];
+        }
+        // 與產生的類相同，長字串可分段傳入
+        String encodedEntries = ApiMsgIdTableFormat.encodeEntries(slots);
+        int middle = encodedEntries.indexOf(ApiMsgIdTableFormat.RECORD_SEPARATOR) + 1;
+        return ApiMsgIdTableFormat.decode(version, slots.length,
+                new String[] { ApiMsgIdTableFormat.encodeSeeds(hash.getSeeds()) },
+                new String[] { encodedEntries.substring(0, middle), encodedEntries.substring(middle) });
+    }
+}
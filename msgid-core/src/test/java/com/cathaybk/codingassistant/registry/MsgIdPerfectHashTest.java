@@ -0,0 +1,94 @@
+package com.cathaybk.codingassistant.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MsgIdPerfectHashTest {
+
+    @Test
+    void placesEveryKeyInDistinctSlot() {
+        for (int size : new int[] { 1, 2, 5, 100, 10_000 }) {
+            String[] keys = msgIds(size);
+            MsgIdPerfectHash hash = MsgIdPerfectHash.build(keys);
+            int[] seeds = hash.getSeeds();
+            Set<Integer> slots = new HashSet<>();
+            for (int i = 0; i < keys.length; i++) {
+                int slot = MsgIdPerfectHash.slot(seeds, hash.getTableSize(), keys[i]);
+                assertEquals(hash.getSlot(i), slot, keys[i]);
+                assertTrue(slot >= 0 && slot < hash.getTableSize(), keys[i]);
+                assertTrue(slots.add(slot), () -> "槽位重複: " + slot);
+            }
+        }
+    }
+
+    @Test
+    void separatesKeysWithEqualHashCode() {
+        // "Aa" 與 "BB" 的 hashCode 相同，任意組合的前綴也相同
+        List<String> keys = new ArrayList<>();
+        for (String first : new String[] { "Aa", "BB" }) {
+            for (String second : new String[] { "Aa", "BB" }) {
+                for (String third : new String[] { "Aa", "BB" }) {
+                    keys.add(first + second + third + "-B-C");
+                }
+            }
+        }
+        for (String key : keys) {
+            assertEquals(keys.get(0).hashCode(), key.hashCode());
+        }
+        keys.addAll(List.of(msgIds(20)));
+
+        String[] array = keys.toArray(new String[0]);
+        MsgIdPerfectHash hash = MsgIdPerfectHash.build(array);
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < array.length; i++) {
+            int slot = MsgIdPerfectHash.slot(hash.getSeeds(), hash.getTableSize(), array[i]);
+            assertEquals(hash.getSlot(i), slot, array[i]);
+            assertTrue(slots.add(slot), () -> "槽位重複: " + slot);
+        }
+    }
+
+    @Test
+    void charSequenceLookupMatchesString() {
+        String[] keys = msgIds(1_000);
+        MsgIdPerfectHash hash = MsgIdPerfectHash.build(keys);
+        int[] seeds = hash.getSeeds();
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(hash.getSlot(i), MsgIdPerfectHash.slot(seeds, hash.getTableSize(),
+                    (CharSequence) new StringBuilder(keys[i])), keys[i]);
+        }
+
+        String[] collidingKeys = { "AaAa-B-C", "BBBB-B-C", "AaBB-B-C" };
+        MsgIdPerfectHash colliding = MsgIdPerfectHash.build(collidingKeys);
+        for (int i = 0; i < collidingKeys.length; i++) {
+            assertEquals(colliding.getSlot(i), MsgIdPerfectHash.slot(colliding.getSeeds(), colliding.getTableSize(),
+                    (CharSequence) new StringBuilder(collidingKeys[i])), collidingKeys[i]);
+        }
+    }
+
+    @Test
+    void rejectsDuplicateKeys() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> MsgIdPerfectHash.build(new String[] { "RET-B-1", "RET-B-2", "RET-B-1" }));
+        assertTrue(e.getMessage().contains("RET-B-1"), e.getMessage());
+    }
+
+    @Test
+    void buildsEmptyTable() {
+        MsgIdPerfectHash hash = MsgIdPerfectHash.build(new String[0]);
+        assertEquals(1, hash.getTableSize());
+    }
+
+    static String[] msgIds(int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "RET-B" + (i % 37) + "-F" + i;
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,130 @@
+package com.cathaybk.codingassistant.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MsgIdLexerTest {
+
+    // 取代前 ApiMsgIdIndex、ApiMsgIdInspection 與 SyncApiIdAction 使用的正則表達式
+    private static final Pattern API_ID_PATTERN = Pattern.compile("([A-Za-z0-9]+-[A-Za-z0-9]+-[A-Za-z0-9]+.*)");
+
+    @Test
+    void findsMsgIdAndDescriptionInJavadoc() {
+        MsgIdMatch match = new MsgIdMatch();
+        assertTrue(MsgIdLexer.find("/**\n * RET-B-TAKINGFILE 取件檔案查詢\n *\n * @param request 查詢條件\n */", match));
+        assertEquals("RET-B-TAKINGFILE", match.msgId());
+        assertEquals("取件檔案查詢", match.description());
+        assertEquals("RET-B-TAKINGFILE 取件檔案查詢", match.fullText());
+    }
+
+    @Test
+    void stripsCommentEndOnSingleLineJavadoc() {
+        MsgIdMatch match = new MsgIdMatch();
+        assertTrue(MsgIdLexer.find("/** RET-B-TAKINGFILE*/", match));
+        assertEquals("RET-B-TAKINGFILE", match.msgId());
+        assertFalse(match.hasDescription());
+
+        assertTrue(MsgIdLexer.find("/** RET-B-TAKINGFILE 取件檔案查詢 */", match));
+        assertEquals("RET-B-TAKINGFILE", match.msgId());
+        assertEquals("取件檔案查詢", match.description());
+    }
+
+    @Test
+    void doesNotModifyMatchWhenNotFound() {
+        MsgIdMatch match = new MsgIdMatch();
+        assertTrue(MsgIdLexer.find("RET-B-TAKINGFILE", match));
+        assertFalse(MsgIdLexer.find("/**\n * 查詢取件檔案 RET-B\n */", match));
+        assertEquals("RET-B-TAKINGFILE", match.msgId());
+    }
+
+    @Test
+    void searchesOnlyWithinRange() {
+        MsgIdMatch match = new MsgIdMatch();
+        String text = "AAA-BBB-CCC DDD-EEE-FFF";
+        assertTrue(MsgIdLexer.find(text, 1, text.length(), match));
+        assertEquals("AA-BBB-CCC", match.msgId());
+        assertFalse(MsgIdLexer.find(text, 0, 8, match));
+    }
+
+    @Test
+    void matchesRegexOnJavadocSamples() {
+        String[] samples = {
+                "/**\n * RET-B-TAKINGFILE 取件檔案查詢\n */",
+                "/**\n * 查詢取件檔案\n *\n * RET-B-TAKINGFILE\n */",
+                "/**\n * @param a-b-c 參數\n */",
+                "/**\n * A--B-C-D 說明\n */",
+                "/**\n * A-B--C-D-E\n */",
+                "/**\n * x.A-B-C\tTab 分隔\t\n */",
+                "/**\n * 電文 RET-B-1 與 RET-B-2\n */",
+                "/**\n * 沒有電文代號\n */",
+                "",
+        };
+        for (String sample : samples) {
+            assertSameAsRegex(sample);
+        }
+    }
+
+    @Test
+    void matchesRegexOnRandomText() {
+        // 不含 '/'：單行 Javadoc 結尾的 "*/" 是刻意與正則表達式不同的處理
+        char[] alphabet = { 'a', 'Z', '7', '-', '-', ' ', '\t', '\n', '\r', '.', '*', '_', '電' };
+        Random random = new Random(20240401);
+        StringBuilder text = new StringBuilder();
+        for (int round = 0; round < 20_000; round++) {
+            text.setLength(0);
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertSameAsRegex(text.toString());
+        }
+    }
+
+    @Test
+    void isMsgIdAcceptsOnlyWholeMsgId() {
+        assertTrue(MsgIdLexer.isMsgId("RET-B-TAKINGFILE"));
+        assertTrue(MsgIdLexer.isMsgId("A1-B2-C3-D4"));
+        assertFalse(MsgIdLexer.isMsgId(""));
+        assertFalse(MsgIdLexer.isMsgId("RET-B"));
+        assertFalse(MsgIdLexer.isMsgId("-RET-B-C"));
+        assertFalse(MsgIdLexer.isMsgId("RET-B-C 說明"));
+        assertFalse(MsgIdLexer.isMsgId(" RET-B-C"));
+    }
+
+    @Test
+    void mainPartIsTextBeforeFirstHyphen() {
+        assertEquals("RET", MsgIdLexer.mainPart("RET-B-TAKINGFILE"));
+        assertEquals("RET", MsgIdLexer.mainPart("RET"));
+        assertEquals("", MsgIdLexer.mainPart(null));
+    }
+
+    /**
+     * 與原本的用法比較：電文代號為整行匹配在第一個空白前的部分，其餘去頭尾空白為說明
+     */
+    private static void assertSameAsRegex(String text) {
+        Matcher matcher = API_ID_PATTERN.matcher(text);
+        MsgIdMatch match = new MsgIdMatch();
+        boolean found = MsgIdLexer.find(text, match);
+        assertEquals(matcher.find(), found, () -> "是否找到電文代號: " + escape(text));
+        if (!found) {
+            return;
+        }
+        String line = matcher.group(1).trim();
+        int space = 0;
+        while (space < line.length() && !Character.isWhitespace(line.charAt(space))) {
+            space++;
+        }
+        assertEquals(matcher.start(1), match.getIdStart(), () -> "起點: " + escape(text));
+        assertEquals(line.substring(0, space), match.msgId(), () -> "電文代號: " + escape(text));
+        assertEquals(line.substring(space).trim(), match.description(), () -> "說明: " + escape(text));
+    }
+
+    private static String escape(String text) {
+        return text.replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+}
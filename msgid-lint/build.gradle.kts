@@ -0,0 +1,52 @@
+plugins {
+    id("application")
+}
+
+group = "com.cathaybk"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // 與外掛共用的電文代號掃描器
+    implementation(project(":msgid-core"))
+
+    // 結果快取的序列化（與外掛使用相同版本）
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.15.2")
+}
+
+application {
+    mainClass.set("com.cathaybk.codingassistant.lint.MsgIdLintMain")
+    applicationDefaultJvmArgs = listOf("-XX:+UseParallelGC")
+}
+
+tasks {
+    // 配置 Java 版本
+    withType<JavaCompile> {
+        sourceCompatibility = "17"
+        targetCompatibility = "17"
+        options.encoding = "UTF-8"
+    }
+
+    // 以模擬專案量測 msgid-lint 在 100、1k、10k 個類的檢查耗時（外掛檢查器的預算由根專案的 fixture 測試確認）
+    register<JavaExec>("lintBudget") {
+        group = "verification"
+        description = "Checks msgid-lint latency on synthetic projects against time budgets"
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass.set("com.cathaybk.codingassistant.lint.LintBudgetMain")
+        jvmArgs("-XX:+UseParallelGC")
+        (project.findProperty("lintBudget") as String?)?.let { args("--budget=$it") }
+    }
+
+    // 產生模擬專案供 IDE 或 msgid-scan 量測外掛檢查器：-PsyntheticClasses=10000
+    register<JavaExec>("generateSyntheticProject") {
+        group = "build"
+        description = "Generates a synthetic Controller/Service project under build/synthetic"
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass.set("com.cathaybk.codingassistant.lint.LintBudgetMain")
+        val classes = project.findProperty("syntheticClasses") ?: "1000"
+        args("--output=${layout.buildDirectory.dir("synthetic/$classes").get().asFile}", "--classes=$classes")
+    }
+}
@@ -0,0 +1,71 @@
+package com.cathaybk.codingassistant.lint;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 從原始碼提取的類資訊（內部類各自一筆）
+ */
+public final class ClassFacts {
+    private final String qualifiedName;
+    private final String simpleName;
+    private final ClassKind kind;
+    private final String msgId;
+    private final int line;
+    private final int column;
+    private final List<String> interfaces;
+    private final List<MethodFacts> methods;
+
+    /**
+     * @param msgId      Javadoc 中包含說明的完整電文代號行，沒有時為 null
+     * @param interfaces implements（介面則為 extends）列出的型別簡單名稱
+     */
+    @JsonCreator
+    public ClassFacts(@JsonProperty("qualifiedName") String qualifiedName,
+            @JsonProperty("simpleName") String simpleName, @JsonProperty("kind") ClassKind kind,
+            @JsonProperty("msgId") String msgId, @JsonProperty("line") int line, @JsonProperty("column") int column,
+            @JsonProperty("interfaces") List<String> interfaces, @JsonProperty("methods") List<MethodFacts> methods) {
+        this.qualifiedName = qualifiedName;
+        this.simpleName = simpleName;
+        this.kind = kind;
+        this.msgId = msgId;
+        this.line = line;
+        this.column = column;
+        this.interfaces = interfaces;
+        this.methods = methods;
+    }
+
+    public String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    public String getSimpleName() {
+        return simpleName;
+    }
+
+    public ClassKind getKind() {
+        return kind;
+    }
+
+    public String getMsgId() {
+        return msgId;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    public List<MethodFacts> getMethods() {
+        return methods;
+    }
+}
@@ -0,0 +1,35 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.util.Collection;
+
+/**
+ * 類的種類，判斷規則與外掛的 {@code ApiMsgIdIndex.getKind} 相同（只比對名稱與註解簡單名稱）
+ */
+public enum ClassKind {
+    CONTROLLER,
+    SERVICE,
+    IMPL,
+    OTHER;
+
+    /**
+     * @param annotations 類上註解的簡單名稱
+     */
+    public static ClassKind of(String name, Collection<String> annotations, boolean isInterface) {
+        if (annotations.contains("Controller") || annotations.contains("RestController")) {
+            return CONTROLLER;
+        }
+        if (name.contains("Controller")) {
+            return CONTROLLER;
+        }
+        if (name.contains("Service") && name.contains("Impl")) {
+            return IMPL;
+        }
+        if (annotations.contains("Service")) {
+            return isInterface ? SERVICE : IMPL;
+        }
+        if (name.contains("Service")) {
+            return SERVICE;
+        }
+        return OTHER;
+    }
+}
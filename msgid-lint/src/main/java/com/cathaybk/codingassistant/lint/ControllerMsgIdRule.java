@@ -0,0 +1,26 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.util.List;
+
+/**
+ * 對應外掛的 {@code ApiMsgIdInspection}：@XxxMapping 方法的 Javadoc 必須包含電文代號
+ */
+public class ControllerMsgIdRule implements LintRule {
+
+    @Override
+    public String getId() {
+        return "ApiMsgIdInspection";
+    }
+
+    @Override
+    public void check(FileFacts file, LinkIndex links, List<LintFinding> findings) {
+        for (ClassFacts classFacts : file.getClasses()) {
+            for (MethodFacts method : classFacts.getMethods()) {
+                if (method.isMapping() && method.getMsgId() == null) {
+                    findings.add(new LintFinding(getId(), file.getPath(), method.getLine(), method.getColumn(),
+                            "API方法缺少正確的電文代號註解，格式應為: XXX-X-XXXX 說明文字"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cathaybk.codingassistant.lint;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 一個原始碼檔案的提取結果，規則與跨檔連結只使用這些資訊，不保留語法樹
+ */
+public final class FileFacts {
+    private final String path;
+    private final String packageName;
+    private final List<String> imports;
+    private final List<ClassFacts> classes;
+
+    /**
+     * @param path    相對於掃描根目錄的路徑（以 / 分隔）
+     * @param imports import 宣告的完整文字，例如 {@code com.example.FooService} 或 {@code com.example.*}
+     */
+    @JsonCreator
+    public FileFacts(@JsonProperty("path") String path, @JsonProperty("packageName") String packageName,
+            @JsonProperty("imports") List<String> imports, @JsonProperty("classes") List<ClassFacts> classes) {
+        this.path = path;
+        this.packageName = packageName;
+        this.imports = imports;
+        this.classes = classes;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public List<String> getImports() {
+        return imports;
+    }
+
+    public List<ClassFacts> getClasses() {
+        return classes;
+    }
+
+    /**
+     * 判斷此檔案中的簡單名稱是否可能指向指定的完整類名（同套件、單一匯入或萬用匯入）
+     */
+    public boolean canSee(String qualifiedName) {
+        int dot = qualifiedName.lastIndexOf('.');
+        String targetPackage = dot < 0 ? "" : qualifiedName.substring(0, dot);
+        if (targetPackage.equals(packageName)) {
+            return true;
+        }
+        for (String imported : imports) {
+            if (imported.equals(qualifiedName) || imported.equals(targetPackage + ".*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
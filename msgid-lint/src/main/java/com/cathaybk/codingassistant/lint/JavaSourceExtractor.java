@@ -0,0 +1,388 @@
+package com.cathaybk.codingassistant.lint;
+
+import com.cathaybk.codingassistant.util.MsgIdLexer;
+import com.cathaybk.codingassistant.util.MsgIdMatch;
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ArrayTypeTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.LineMap;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.source.util.Trees;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 以 JDK 的 Compiler Tree API 解析原始碼並提取規則需要的資訊
+ * <p>
+ * 只做語法解析（{@link JavacTask#parse()}），不解析符號也不需要 classpath，
+ * 因此與外掛的索引一樣以型別的簡單名稱判斷依賴。一批檔案共用一個 JavacTask；
+ * JavacTask 不是線程安全的，同一個實例不可跨線程使用。
+ */
+public class JavaSourceExtractor {
+
+    /**
+     * 提取邏輯的版本；修改提取結果的內容或格式時必須遞增，使舊的結果快取失效
+     */
+    public static final int VERSION = 1;
+
+    private static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
+    private static final List<String> OPTIONS = List.of("-proc:none");
+
+    private final Path root;
+
+    /**
+     * @param root 掃描根目錄，用來計算輸出的相對路徑
+     */
+    public JavaSourceExtractor(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * 讀取並解析一批檔案
+     */
+    public List<FileFacts> extract(List<Path> files) {
+        Map<Path, String> texts = new LinkedHashMap<>();
+        for (Path file : files) {
+            texts.put(file, decode(readBytes(file)));
+        }
+        return extractSources(texts);
+    }
+
+    /**
+     * 解析一批已讀入的原始碼
+     *
+     * @param texts 檔案路徑 -> 原始碼文字
+     */
+    public List<FileFacts> extractSources(Map<Path, String> texts) {
+        // javac 會包裝傳入的檔案物件，解析結果以 URI 對回原始檔案
+        Map<URI, SourceFile> sources = new LinkedHashMap<>();
+        for (Map.Entry<Path, String> entry : texts.entrySet()) {
+            SourceFile source = new SourceFile(entry.getKey(), entry.getValue());
+            sources.put(source.toUri(), source);
+        }
+
+        // 語法錯誤只影響該檔案的樹，不中斷整批解析
+        JavacTask task = (JavacTask) COMPILER.getTask(null, null, diagnostic -> {
+        }, OPTIONS, null, sources.values());
+        Trees trees = Trees.instance(task);
+
+        List<FileFacts> result = new ArrayList<>(texts.size());
+        try {
+            for (CompilationUnitTree unit : task.parse()) {
+                SourceFile source = sources.get(unit.getSourceFile().toUri());
+                result.add(extract(unit, source, trees));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    private FileFacts extract(CompilationUnitTree unit, SourceFile source, Trees trees) {
+        String packageName = unit.getPackageName() != null ? unit.getPackageName().toString() : "";
+        List<String> imports = new ArrayList<>();
+        for (ImportTree importTree : unit.getImports()) {
+            if (!importTree.isStatic()) {
+                imports.add(importTree.getQualifiedIdentifier().toString());
+            }
+        }
+
+        List<ClassFacts> classes = new ArrayList<>();
+        Context context = new Context(unit, source.text, trees);
+        for (Tree type : unit.getTypeDecls()) {
+            if (type instanceof ClassTree) {
+                extractClass(context, new TreePath(new TreePath(unit), type), packageName, classes);
+            }
+        }
+        return new FileFacts(relativePath(source.path), packageName, imports, classes);
+    }
+
+    private void extractClass(Context context, TreePath path, String outerName, List<ClassFacts> result) {
+        ClassTree classTree = (ClassTree) path.getLeaf();
+        String simpleName = classTree.getSimpleName().toString();
+        String qualifiedName = outerName.isEmpty() ? simpleName : outerName + "." + simpleName;
+        boolean isInterface = classTree.getKind() == Tree.Kind.INTERFACE;
+
+        ClassKind kind = ClassKind.of(simpleName, annotationNames(classTree.getModifiers().getAnnotations()),
+                isInterface);
+
+        List<String> interfaces = new ArrayList<>();
+        for (Tree implemented : classTree.getImplementsClause()) {
+            String name = typeName(implemented);
+            if (name != null) {
+                interfaces.add(name);
+            }
+        }
+
+        // 字段名稱 -> 型別簡單名稱，用來判斷方法體中對字段的引用
+        Map<String, String> fieldTypes = new HashMap<>();
+        for (Tree member : classTree.getMembers()) {
+            if (member instanceof VariableTree) {
+                VariableTree field = (VariableTree) member;
+                String typeName = typeName(field.getType());
+                if (typeName != null) {
+                    fieldTypes.put(field.getName().toString(), typeName);
+                }
+            }
+        }
+
+        List<MethodFacts> methods = new ArrayList<>();
+        List<TreePath> innerClasses = new ArrayList<>();
+        for (Tree member : classTree.getMembers()) {
+            if (member instanceof MethodTree) {
+                methods.add(extractMethod(context, new TreePath(path, member), kind, fieldTypes));
+            } else if (member instanceof ClassTree) {
+                innerClasses.add(new TreePath(path, member));
+            }
+        }
+
+        long namePosition = context.namePosition(classTree.getModifiers(), classTree, simpleName);
+        result.add(new ClassFacts(qualifiedName, simpleName, kind, context.msgId(path),
+                context.line(namePosition), context.column(namePosition), interfaces, methods));
+
+        for (TreePath inner : innerClasses) {
+            extractClass(context, inner, qualifiedName, result);
+        }
+    }
+
+    private MethodFacts extractMethod(Context context, TreePath path, ClassKind ownerKind,
+            Map<String, String> fieldTypes) {
+        MethodTree method = (MethodTree) path.getLeaf();
+        String name = method.getName().toString();
+
+        StringBuilder signature = new StringBuilder(name).append('(');
+        List<? extends VariableTree> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0)
+                signature.append(',');
+            signature.append(parameters.get(i).getType());
+        }
+        signature.append(')');
+
+        boolean mapping = false;
+        for (String annotation : annotationNames(method.getModifiers().getAnnotations())) {
+            if (annotation.endsWith("Mapping")) {
+                mapping = true;
+                break;
+            }
+        }
+
+        // 與外掛的依賴索引相同：只記錄 Controller API 方法依賴的 Service
+        Set<String> serviceTypes = mapping && ownerKind == ClassKind.CONTROLLER
+                ? collectServiceTypes(method, fieldTypes)
+                : Collections.emptySet();
+
+        Tree anchor = method.getReturnType() != null ? method.getReturnType() : method.getModifiers();
+        long namePosition = context.namePosition(anchor, method, name);
+        return new MethodFacts(name, signature.toString(), mapping, context.msgId(path),
+                context.line(namePosition), context.column(namePosition), serviceTypes);
+    }
+
+    /**
+     * 收集 API 方法依賴的 Service 型別簡單名稱：參數、局部變量、new 表達式與對字段的引用
+     */
+    private static Set<String> collectServiceTypes(MethodTree method, Map<String, String> fieldTypes) {
+        Set<String> typeNames = new LinkedHashSet<>();
+        for (VariableTree parameter : method.getParameters()) {
+            addIfService(typeNames, typeName(parameter.getType()));
+        }
+
+        if (method.getBody() != null) {
+            method.getBody().accept(new TreeScanner<Void, Void>() {
+                @Override
+                public Void visitVariable(VariableTree node, Void unused) {
+                    addIfService(typeNames, typeName(node.getType()));
+                    return super.visitVariable(node, unused);
+                }
+
+                @Override
+                public Void visitNewClass(NewClassTree node, Void unused) {
+                    addIfService(typeNames, typeName(node.getIdentifier()));
+                    return super.visitNewClass(node, unused);
+                }
+
+                // 無限定的字段引用
+                @Override
+                public Void visitIdentifier(IdentifierTree node, Void unused) {
+                    addIfService(typeNames, fieldTypes.get(node.getName().toString()));
+                    return null;
+                }
+
+                // this.xxx
+                @Override
+                public Void visitMemberSelect(MemberSelectTree node, Void unused) {
+                    Tree qualifier = node.getExpression();
+                    if (qualifier instanceof IdentifierTree
+                            && ((IdentifierTree) qualifier).getName().contentEquals("this")) {
+                        addIfService(typeNames, fieldTypes.get(node.getIdentifier().toString()));
+                        return null;
+                    }
+                    return super.visitMemberSelect(node, unused);
+                }
+            }, null);
+        }
+        return typeNames;
+    }
+
+    private static void addIfService(Set<String> typeNames, String typeName) {
+        if (typeName != null && typeName.contains("Service")) {
+            typeNames.add(typeName);
+        }
+    }
+
+    private static List<String> annotationNames(List<? extends AnnotationTree> annotations) {
+        List<String> names = new ArrayList<>(annotations.size());
+        for (AnnotationTree annotation : annotations) {
+            String name = typeName(annotation.getAnnotationType());
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 型別的簡單名稱（去除套件、泛型參數與陣列），無法判斷時返回 null
+     */
+    private static String typeName(Tree type) {
+        while (true) {
+            if (type instanceof IdentifierTree) {
+                return ((IdentifierTree) type).getName().toString();
+            }
+            if (type instanceof MemberSelectTree) {
+                return ((MemberSelectTree) type).getIdentifier().toString();
+            }
+            if (type instanceof ParameterizedTypeTree) {
+                type = ((ParameterizedTypeTree) type).getType();
+            } else if (type instanceof ArrayTypeTree) {
+                type = ((ArrayTypeTree) type).getType();
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 相對於掃描根目錄的路徑（以 / 分隔），也是結果快取的鍵
+     */
+    public String relativePath(Path file) {
+        Path relative = file.startsWith(root) ? root.relativize(file) : file;
+        return relative.toString().replace('\\', '/');
+    }
+
+    /**
+     * 以 NIO 讀取整個檔案
+     */
+    static byte[] readBytes(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 非 UTF-8 的位元組以替代字元處理，不中斷掃描
+     */
+    static String decode(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 已讀入記憶體的原始碼，避免 javac 再透過檔案管理器讀取一次
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final Path path;
+        private final String text;
+
+        SourceFile(Path path, String text) {
+            super(URI.create("string:///" + path.toString().replace('\\', '/').replace(' ', '_')),
+                    JavaFileObject.Kind.SOURCE);
+            this.path = path;
+            this.text = text;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return text;
+        }
+    }
+
+    /**
+     * 單一檔案的解析上下文：位置換算與 Javadoc 讀取
+     */
+    private static final class Context {
+        private final CompilationUnitTree unit;
+        private final String text;
+        private final Trees trees;
+        private final SourcePositions positions;
+        private final LineMap lineMap;
+        private final MsgIdMatch match = new MsgIdMatch();
+
+        Context(CompilationUnitTree unit, String text, Trees trees) {
+            this.unit = unit;
+            this.text = text;
+            this.trees = trees;
+            this.positions = trees.getSourcePositions();
+            this.lineMap = unit.getLineMap();
+        }
+
+        /**
+         * Javadoc 中包含說明的完整電文代號行
+         */
+        String msgId(TreePath path) {
+            String docComment = trees.getDocComment(path);
+            return docComment != null && MsgIdLexer.find(docComment, match) ? match.fullText() : null;
+        }
+
+        /**
+         * 名稱識別字的位置（問題標記在名稱上，與外掛一致），找不到時使用宣告起點
+         */
+        long namePosition(Tree anchor, Tree declaration, String name) {
+            long start = positions.getStartPosition(unit, declaration);
+            long from = positions.getEndPosition(unit, anchor);
+            if (from < 0 || from < start) {
+                from = start;
+            }
+            int index = from < 0 ? -1 : text.indexOf(name, (int) from);
+            return index >= 0 ? index : Math.max(start, 0);
+        }
+
+        int line(long position) {
+            return (int) lineMap.getLineNumber(position);
+        }
+
+        int column(long position) {
+            return (int) lineMap.getColumnNumber(position);
+        }
+    }
+}
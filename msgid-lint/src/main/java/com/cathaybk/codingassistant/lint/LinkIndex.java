@@ -0,0 +1,106 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 跨檔連結步驟：由所有檔案的提取結果建立 Service 名稱 -> 電文代號的查詢表
+ * <p>
+ * 查詢規則與外掛的 {@code ServiceLinkInspection} 相同：先看實現的介面本身，
+ * 再看依賴此 Service 的 Controller API 方法，實現類找不到時改查其介面。
+ * 建立後唯讀，可由多個線程同時查詢。
+ */
+public class LinkIndex {
+
+    // 類簡單名稱 -> 宣告此名稱的類（名稱重複時需要以 import 確認）
+    private final Map<String, List<ClassFacts>> classesByName = new HashMap<>();
+    // Service 型別簡單名稱 -> 依賴它且有電文代號的 Controller API 方法
+    private final Map<String, List<Dependent>> dependents = new HashMap<>();
+
+    public LinkIndex(List<FileFacts> files) {
+        for (FileFacts file : files) {
+            for (ClassFacts classFacts : file.getClasses()) {
+                classesByName.computeIfAbsent(classFacts.getSimpleName(), k -> new ArrayList<>()).add(classFacts);
+
+                if (classFacts.getKind() != ClassKind.CONTROLLER) {
+                    continue;
+                }
+                for (MethodFacts method : classFacts.getMethods()) {
+                    if (method.getMsgId() == null) {
+                        continue;
+                    }
+                    for (String serviceType : method.getServiceTypes()) {
+                        dependents.computeIfAbsent(serviceType, k -> new ArrayList<>())
+                                .add(new Dependent(file, method.getMsgId()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找 Service 類可以使用的電文代號（已去除重複）
+     */
+    public List<String> findLinkedMsgIds(ClassFacts serviceClass) {
+        Set<String> result = new LinkedHashSet<>();
+        boolean isImpl = serviceClass.getSimpleName().contains("Impl");
+
+        // 實現類先看實現的介面本身是否已有電文代號
+        if (isImpl) {
+            for (String interfaceName : serviceClass.getInterfaces()) {
+                for (ClassFacts interfaceClass : classesByName.getOrDefault(interfaceName, Collections.emptyList())) {
+                    if (interfaceClass.getMsgId() != null) {
+                        result.add(interfaceClass.getMsgId());
+                        return new ArrayList<>(result);
+                    }
+                }
+            }
+        }
+
+        collectDependents(serviceClass, result);
+
+        // 實現類找不到時改查其介面的使用者
+        if (result.isEmpty() && isImpl) {
+            for (String interfaceName : serviceClass.getInterfaces()) {
+                for (ClassFacts interfaceClass : classesByName.getOrDefault(interfaceName, Collections.emptyList())) {
+                    collectDependents(interfaceClass, result);
+                }
+                if (!result.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private void collectDependents(ClassFacts serviceClass, Set<String> result) {
+        List<Dependent> candidates = dependents.get(serviceClass.getSimpleName());
+        if (candidates == null) {
+            return;
+        }
+
+        // 以簡單名稱為鍵，專案中有同名類時用 Controller 檔案的 package 與 import 確認
+        boolean ambiguousName = classesByName.getOrDefault(serviceClass.getSimpleName(),
+                Collections.emptyList()).size() > 1;
+        for (Dependent dependent : candidates) {
+            if (!ambiguousName || dependent.file.canSee(serviceClass.getQualifiedName())) {
+                result.add(dependent.msgId);
+            }
+        }
+    }
+
+    private static final class Dependent {
+        private final FileFacts file;
+        private final String msgId;
+
+        Dependent(FileFacts file, String msgId) {
+            this.file = file;
+            this.msgId = msgId;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 以 {@link SyntheticProjectGenerator} 產生不同規模的專案，量測檢查耗時並與預算比較
+ * <p>
+ * {@code lint-budget [--budget=100:2000,1000:5000,10000:30000] [--threads=N] [--coverage=0.8]
+ * [--service-coverage=0.5] [--fan-out=3] [--orphans=0.1] [--seed=42]}
+ * <p>
+ * 每種規模先執行一次暖機再量測，同時確認兩條規則找到的問題數與產生器預期相同。
+ * 加上 {@code --output=目錄 --classes=N} 時只產生專案，供在 IDE 或 {@code msgid-scan} 中量測外掛的檢查器。
+ * 結束代碼：0 表示全部在預算內，1 表示超出預算或結果不符，2 表示執行失敗。
+ */
+public final class LintBudgetMain {
+
+    private static final String DEFAULT_BUDGET = "100:2000,1000:5000,10000:30000";
+
+    private LintBudgetMain() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                System.err.println("無法識別的參數: " + arg);
+                return 2;
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        double coverage = Double.parseDouble(options.getOrDefault("coverage", "0.8"));
+        double serviceCoverage = Double.parseDouble(options.getOrDefault("service-coverage", "0.5"));
+        int fanOut = Integer.parseInt(options.getOrDefault("fan-out", "3"));
+        double orphans = Double.parseDouble(options.getOrDefault("orphans", "0.1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        try {
+            String output = options.get("output");
+            if (output != null) {
+                int classes = Integer.parseInt(options.getOrDefault("classes", "1000"));
+                SyntheticProjectGenerator.Summary summary = new SyntheticProjectGenerator(classes, coverage,
+                        serviceCoverage, fanOut, orphans, seed).generate(Paths.get(output));
+                System.err.println("已產生 " + summary.getClassCount() + " 個類到 " + output + "（預期 "
+                        + summary.getExpectedMissingMsgIds() + " 個 API 方法缺少電文代號、"
+                        + summary.getExpectedServiceLinks() + " 個 Service 需要關聯電文代號）");
+                return 0;
+            }
+
+            boolean passed = true;
+            for (Map.Entry<Integer, Long> budget : parseBudget(options.getOrDefault("budget", DEFAULT_BUDGET))
+                    .entrySet()) {
+                SyntheticProjectGenerator generator = new SyntheticProjectGenerator(budget.getKey(), coverage,
+                        serviceCoverage, fanOut, orphans, seed);
+                passed &= measure(generator, budget.getValue(), threads);
+            }
+            return passed ? 0 : 1;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("量測失敗: " + e);
+            e.printStackTrace(System.err);
+            return 2;
+        }
+    }
+
+    private static boolean measure(SyntheticProjectGenerator generator, long budgetMillis, int threads)
+            throws IOException {
+        Path root = Files.createTempDirectory("msgid-lint-budget");
+        MsgIdLinter linter = new MsgIdLinter(MsgIdLinter.defaultRules(), threads);
+        try {
+            SyntheticProjectGenerator.Summary summary = generator.generate(root);
+
+            // 暖機：讓 JIT 編譯解析與規則的熱點路徑
+            linter.lint(root);
+
+            long start = System.nanoTime();
+            LintResult result = linter.lint(root);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            long missingMsgIds = count(result, "ApiMsgIdInspection");
+            long serviceLinks = count(result, "ServiceLinkInspection");
+            boolean withinBudget = elapsedMillis <= budgetMillis;
+            boolean correct = missingMsgIds == summary.getExpectedMissingMsgIds()
+                    && serviceLinks == summary.getExpectedServiceLinks();
+
+            System.err.println(String.format("%6d 個類: %6d ms（預算 %d ms）%s%s", summary.getClassCount(),
+                    elapsedMillis, budgetMillis, withinBudget ? "" : " 超出預算",
+                    correct ? "" : " 結果不符：API 方法 " + missingMsgIds + "/" + summary.getExpectedMissingMsgIds()
+                            + "，Service " + serviceLinks + "/" + summary.getExpectedServiceLinks()));
+            for (Map.Entry<String, Long> phase : result.getPhaseMillis().entrySet()) {
+                System.err.println("         階段 " + phase.getKey() + ": " + phase.getValue() + " ms");
+            }
+            return withinBudget && correct;
+        } finally {
+            linter.shutdown();
+            deleteRecursively(root);
+        }
+    }
+
+    private static long count(LintResult result, String ruleId) {
+        return result.getFindings().stream().filter(finding -> finding.getRuleId().equals(ruleId)).count();
+    }
+
+    /**
+     * 解析 {@code 類數:毫秒,類數:毫秒}
+     */
+    private static Map<Integer, Long> parseBudget(String text) {
+        Map<Integer, Long> budget = new LinkedHashMap<>();
+        for (String entry : text.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("預算格式應為 類數:毫秒，實際為: " + entry);
+            }
+            budget.put(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+        }
+        return budget;
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
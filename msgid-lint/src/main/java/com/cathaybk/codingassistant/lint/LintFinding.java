@@ -0,0 +1,48 @@
+package com.cathaybk.codingassistant.lint;
+
+/**
+ * 一個檢查結果
+ */
+public final class LintFinding {
+    private final String ruleId;
+    private final String path;
+    private final int line;
+    private final int column;
+    private final String message;
+
+    public LintFinding(String ruleId, String path, int line, int column, String message) {
+        this.ruleId = ruleId;
+        this.path = path;
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 與 javac 相同的 {@code 路徑:行:欄: 訊息} 格式，方便 CI 與編輯器解析
+     */
+    @Override
+    public String toString() {
+        return path + ":" + line + ":" + column + ": [" + ruleId + "] " + message;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次檢查的結果與各階段耗時
+ */
+public final class LintResult {
+    private final List<LintFinding> findings;
+    private final int fileCount;
+    private final int cachedFileCount;
+    private final Map<String, Long> phaseMillis;
+    private final Map<String, Long> ruleMillis;
+
+    /**
+     * @param cachedFileCount 取用快取、未重新解析的檔案數
+     * @param phaseMillis     各階段（列出檔案、解析、連結、檢查）的實際經過時間
+     * @param ruleMillis      各規則在所有線程的累計時間
+     */
+    public LintResult(List<LintFinding> findings, int fileCount, int cachedFileCount, Map<String, Long> phaseMillis,
+            Map<String, Long> ruleMillis) {
+        this.findings = findings;
+        this.fileCount = fileCount;
+        this.cachedFileCount = cachedFileCount;
+        this.phaseMillis = phaseMillis;
+        this.ruleMillis = ruleMillis;
+    }
+
+    /**
+     * 依路徑與行號排序的檢查結果
+     */
+    public List<LintFinding> getFindings() {
+        return findings;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public int getCachedFileCount() {
+        return cachedFileCount;
+    }
+
+    public Map<String, Long> getPhaseMillis() {
+        return phaseMillis;
+    }
+
+    public Map<String, Long> getRuleMillis() {
+        return ruleMillis;
+    }
+}
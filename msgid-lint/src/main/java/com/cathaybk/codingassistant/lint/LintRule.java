@@ -0,0 +1,18 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.util.List;
+
+/**
+ * 檢查規則，對單一檔案的提取結果執行；需要跨檔資訊時由 {@link LinkIndex} 提供
+ * <p>
+ * 實作必須是無狀態的，同一個實例會被多個線程同時呼叫。
+ */
+public interface LintRule {
+
+    /**
+     * 規則代號，與外掛中對應檢查器的 short name 相同
+     */
+    String getId();
+
+    void check(FileFacts file, LinkIndex links, List<LintFinding> findings);
+}
@@ -0,0 +1,71 @@
+package com.cathaybk.codingassistant.lint;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Set;
+
+/**
+ * 從原始碼提取的方法資訊
+ */
+public final class MethodFacts {
+    private final String name;
+    private final String signature;
+    private final boolean mapping;
+    private final String msgId;
+    private final int line;
+    private final int column;
+    private final Set<String> serviceTypes;
+
+    /**
+     * @param msgId        Javadoc 中包含說明的完整電文代號行，沒有時為 null
+     * @param serviceTypes API 方法依賴的 Service 型別簡單名稱
+     */
+    @JsonCreator
+    public MethodFacts(@JsonProperty("name") String name, @JsonProperty("signature") String signature,
+            @JsonProperty("mapping") boolean mapping, @JsonProperty("msgId") String msgId,
+            @JsonProperty("line") int line, @JsonProperty("column") int column,
+            @JsonProperty("serviceTypes") Set<String> serviceTypes) {
+        this.name = name;
+        this.signature = signature;
+        this.mapping = mapping;
+        this.msgId = msgId;
+        this.line = line;
+        this.column = column;
+        this.serviceTypes = serviceTypes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 方法簽名，格式與外掛的 {@code ApiMsgIdIndex.getMemberSignature} 相近（參數型別取原始碼文字）
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * 是否有 @XxxMapping 註解
+     */
+    public boolean isMapping() {
+        return mapping;
+    }
+
+    public String getMsgId() {
+        return msgId;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public Set<String> getServiceTypes() {
+        return serviceTypes;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * 命令列入口：{@code msgid-lint <原始碼根目錄> [--threads=N] [--cache=快取檔]}
+ * <p>
+ * 檢查結果以 {@code 路徑:行:欄: [規則] 訊息} 格式寫到標準輸出，耗時統計寫到標準錯誤輸出。
+ * 結束代碼：0 表示沒有問題，1 表示找到問題，2 表示執行失敗。
+ */
+public final class MsgIdLintMain {
+
+    private MsgIdLintMain() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        String rootPath = null;
+        String cachePath = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--cache=")) {
+                cachePath = arg.substring("--cache=".length());
+            } else if (rootPath == null) {
+                rootPath = arg;
+            }
+        }
+        if (rootPath == null) {
+            System.err.println("用法: msgid-lint <原始碼根目錄> [--threads=N] [--cache=快取檔]");
+            return 2;
+        }
+
+        Path root = Paths.get(rootPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            System.err.println("找不到目錄: " + root);
+            return 2;
+        }
+
+        long start = System.nanoTime();
+        ResultCache cache = cachePath != null ? ResultCache.load(Paths.get(cachePath)) : null;
+        MsgIdLinter linter = new MsgIdLinter(MsgIdLinter.defaultRules(), threads);
+        LintResult result;
+        try {
+            result = linter.lint(root, cache);
+            if (cache != null) {
+                cache.save();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("檢查失敗: " + e);
+            e.printStackTrace(System.err);
+            return 2;
+        } finally {
+            linter.shutdown();
+        }
+
+        for (LintFinding finding : result.getFindings()) {
+            System.out.println(finding);
+        }
+
+        System.err.println("檢查 " + result.getFileCount() + " 個檔案，" + result.getFindings().size()
+                + " 個問題，耗時 " + (System.nanoTime() - start) / 1_000_000 + " ms（" + threads + " 個線程）");
+        if (cache != null) {
+            System.err.println("  快取命中 " + result.getCachedFileCount() + " 個檔案，重新解析 "
+                    + (result.getFileCount() - result.getCachedFileCount()) + " 個");
+        }
+        for (Map.Entry<String, Long> phase : result.getPhaseMillis().entrySet()) {
+            System.err.println("  階段 " + phase.getKey() + ": " + phase.getValue() + " ms");
+        }
+        for (Map.Entry<String, Long> rule : result.getRuleMillis().entrySet()) {
+            System.err.println("  規則 " + rule.getKey() + ": 累計 " + rule.getValue() + " ms");
+        }
+        return result.getFindings().isEmpty() ? 0 : 1;
+    }
+}
@@ -0,0 +1,215 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * 不依賴 IDE 的電文代號檢查
+ * <p>
+ * 分三個階段：以 NIO 列出並讀取檔案、在 ForkJoin 線程池中分批解析與提取、
+ * 建立跨檔連結後再平行執行各規則。語法樹在提取後即丟棄，記憶體只保留提取結果；
+ * 提供 {@link ResultCache} 時只解析內容有變更的檔案。
+ */
+public class MsgIdLinter {
+
+    // 每個 JavacTask 解析的檔案數：太小則建立 JavacTask 的成本偏高，太大則工作分配不均
+    private static final int PARSE_BATCH_SIZE = 64;
+    private static final int CHECK_BATCH_SIZE = 256;
+
+    // 建置輸出與版本控制目錄不掃描
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of(".git", ".gradle", ".idea", "build", "out",
+            "target", "node_modules");
+
+    private final List<LintRule> rules;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param parallelism 解析與檢查使用的線程數
+     */
+    public MsgIdLinter(List<LintRule> rules, int parallelism) {
+        this.rules = rules;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * 預設規則：Controller 方法電文代號與 Service 關聯電文代號
+     */
+    public static List<LintRule> defaultRules() {
+        return List.of(new ControllerMsgIdRule(), new ServiceLinkRule());
+    }
+
+    public LintResult lint(Path root) {
+        return lint(root, null);
+    }
+
+    /**
+     * @param cache 提取結果快取，為 null 時解析所有檔案
+     */
+    public LintResult lint(Path root, ResultCache cache) {
+        Map<String, Long> phaseMillis = new LinkedHashMap<>();
+
+        long start = System.nanoTime();
+        List<Path> files = listJavaFiles(root);
+        phaseMillis.put("list", elapsedMillis(start));
+
+        start = System.nanoTime();
+        JavaSourceExtractor extractor = new JavaSourceExtractor(root);
+        List<FileFacts> facts = forkJoin(files, PARSE_BATCH_SIZE,
+                cache == null ? extractor::extract : batch -> extract(extractor, batch, cache));
+        phaseMillis.put("parse", elapsedMillis(start));
+
+        start = System.nanoTime();
+        LinkIndex links = new LinkIndex(facts);
+        phaseMillis.put("link", elapsedMillis(start));
+
+        start = System.nanoTime();
+        AtomicLongArray ruleNanos = new AtomicLongArray(rules.size());
+        List<LintFinding> findings = forkJoin(facts, CHECK_BATCH_SIZE, batch -> check(batch, links, ruleNanos));
+        findings.sort(Comparator.comparing(LintFinding::getPath)
+                .thenComparingInt(LintFinding::getLine)
+                .thenComparingInt(LintFinding::getColumn));
+        phaseMillis.put("check", elapsedMillis(start));
+
+        Map<String, Long> ruleMillis = new LinkedHashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            ruleMillis.put(rules.get(i).getId(), TimeUnit.NANOSECONDS.toMillis(ruleNanos.get(i)));
+        }
+        return new LintResult(findings, files.size(), cache != null ? cache.getHitCount() : 0, phaseMillis,
+                ruleMillis);
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * 內容未變的檔案直接取用快取，其餘檔案合併成一個 JavacTask 解析；結果維持原本的檔案順序
+     */
+    private static List<FileFacts> extract(JavaSourceExtractor extractor, List<Path> batch, ResultCache cache) {
+        FileFacts[] result = new FileFacts[batch.size()];
+        Map<Path, String> changed = new LinkedHashMap<>();
+        Map<String, String> hashes = new HashMap<>();
+        Map<String, Integer> slots = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Path file = batch.get(i);
+            byte[] content = JavaSourceExtractor.readBytes(file);
+            String path = extractor.relativePath(file);
+            String hash = ResultCache.hash(content);
+            result[i] = cache.get(path, hash);
+            if (result[i] == null) {
+                changed.put(file, JavaSourceExtractor.decode(content));
+                hashes.put(path, hash);
+                slots.put(path, i);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            for (FileFacts facts : extractor.extractSources(changed)) {
+                cache.put(hashes.get(facts.getPath()), facts);
+                result[slots.get(facts.getPath())] = facts;
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    private List<LintFinding> check(List<FileFacts> batch, LinkIndex links, AtomicLongArray ruleNanos) {
+        List<LintFinding> findings = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            LintRule rule = rules.get(i);
+            long start = System.nanoTime();
+            for (FileFacts file : batch) {
+                rule.check(file, links, findings);
+            }
+            ruleNanos.addAndGet(i, System.nanoTime() - start);
+        }
+        return findings;
+    }
+
+    /**
+     * 以 NIO 走訪目錄樹，列出所有 .java 檔案
+     */
+    static List<Path> listJavaFiles(Path root) {
+        List<Path> files = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path name = dir.getFileName();
+                    if (!dir.equals(root) && name != null && SKIPPED_DIRECTORIES.contains(name.toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".java")) {
+                        files.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    /**
+     * 將清單對半切分直到不超過批次大小，各批在線程池中平行處理後依原順序合併
+     */
+    private <T, R> List<R> forkJoin(List<T> items, int batchSize, Function<List<T>, List<R>> batch) {
+        return pool.invoke(new BatchTask<>(items, batchSize, batch));
+    }
+
+    private static final class BatchTask<T, R> extends RecursiveTask<List<R>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> items;
+        private final int batchSize;
+        private final Function<List<T>, List<R>> batch;
+
+        BatchTask(List<T> items, int batchSize, Function<List<T>, List<R>> batch) {
+            this.items = items;
+            this.batchSize = batchSize;
+            this.batch = batch;
+        }
+
+        @Override
+        protected List<R> compute() {
+            if (items.size() <= batchSize) {
+                return batch.apply(items);
+            }
+            int middle = items.size() / 2;
+            BatchTask<T, R> left = new BatchTask<>(items.subList(0, middle), batchSize, batch);
+            BatchTask<T, R> right = new BatchTask<>(items.subList(middle, items.size()), batchSize, batch);
+            left.fork();
+            List<R> rightResult = right.compute();
+            List<R> result = new ArrayList<>(left.join());
+            result.addAll(rightResult);
+            return result;
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,167 @@
+package com.cathaybk.codingassistant.lint;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 以檔案內容雜湊為鍵的提取結果快取，存放在磁碟上供下次掃描使用
+ * <p>
+ * 每個檔案記錄內容的 SHA-256 與提取結果；內容未變的檔案不需再解析，只重新執行跨檔連結與規則。
+ * 快取檔記錄 {@link JavaSourceExtractor#VERSION}，版本不同或檔案損毀時整個捨棄。
+ * 規則每次都在提取結果上重新執行，因此規則本身的修改不影響快取。
+ */
+public class ResultCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private ResultCache(Path file, Map<String, Entry> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * 讀取快取檔；檔案不存在、版本不同或格式錯誤時返回空快取
+     */
+    public static ResultCache load(Path file) {
+        Map<String, Entry> entries = Collections.emptyMap();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                CacheFile cacheFile = MAPPER.readValue(in, CacheFile.class);
+                if (cacheFile.formatVersion == FORMAT_VERSION
+                        && cacheFile.extractorVersion == JavaSourceExtractor.VERSION
+                        && cacheFile.entries != null) {
+                    entries = cacheFile.entries;
+                }
+            } catch (IOException e) {
+                System.err.println("略過無法讀取的快取檔 " + file + ": " + e.getMessage());
+            }
+        }
+        return new ResultCache(file, entries);
+    }
+
+    /**
+     * 取得內容未變的檔案的提取結果，並保留到本次快取
+     *
+     * @param path 相對路徑
+     * @param hash {@link #hash(byte[])} 的結果
+     * @return 沒有快取或內容已變更時返回 null
+     */
+    public FileFacts get(String path, String hash) {
+        Entry entry = previous.get(path);
+        if (entry == null || !entry.hash.equals(hash)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        current.put(path, entry);
+        return entry.facts;
+    }
+
+    public void put(String hash, FileFacts facts) {
+        current.put(facts.getPath(), new Entry(hash, facts));
+    }
+
+    /**
+     * 寫回磁碟；只保留本次掃描到的檔案，已刪除的檔案自然被移除
+     * <p>
+     * 先寫入暫存檔再以原子方式取代，中途失敗不會留下損毀的快取。
+     */
+    public void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                MAPPER.writeValue(out, new CacheFile(FORMAT_VERSION, JavaSourceExtractor.VERSION,
+                        new TreeMap<>(current)));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int getHitCount() {
+        return hits.get();
+    }
+
+    public int getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 檔案內容的 SHA-256（十六進位字串）
+     */
+    public static String hash(byte[] content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] bytes = digest.digest(content);
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 快取檔的頂層結構
+     */
+    private static final class CacheFile {
+        @JsonProperty
+        private final int formatVersion;
+        @JsonProperty
+        private final int extractorVersion;
+        @JsonProperty
+        private final Map<String, Entry> entries;
+
+        @JsonCreator
+        CacheFile(@JsonProperty("formatVersion") int formatVersion,
+                @JsonProperty("extractorVersion") int extractorVersion,
+                @JsonProperty("entries") Map<String, Entry> entries) {
+            this.formatVersion = formatVersion;
+            this.extractorVersion = extractorVersion;
+            this.entries = entries;
+        }
+    }
+
+    private static final class Entry {
+        @JsonProperty
+        private final String hash;
+        @JsonProperty
+        private final FileFacts facts;
+
+        @JsonCreator
+        Entry(@JsonProperty("hash") String hash, @JsonProperty("facts") FileFacts facts) {
+            this.hash = hash;
+            this.facts = facts;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.util.List;
+
+/**
+ * 對應外掛的 {@code ServiceLinkInspection}：名稱含 Service 的類沒有電文代號，
+ * 但可以從介面或使用它的 Controller API 方法取得時提示
+ */
+public class ServiceLinkRule implements LintRule {
+
+    @Override
+    public String getId() {
+        return "ServiceLinkInspection";
+    }
+
+    @Override
+    public void check(FileFacts file, LinkIndex links, List<LintFinding> findings) {
+        for (ClassFacts classFacts : file.getClasses()) {
+            if (!classFacts.getSimpleName().contains("Service") || classFacts.getMsgId() != null) {
+                continue;
+            }
+
+            List<String> linkedMsgIds = links.findLinkedMsgIds(classFacts);
+            if (!linkedMsgIds.isEmpty()) {
+                findings.add(new LintFinding(getId(), file.getPath(), classFacts.getLine(), classFacts.getColumn(),
+                        "Service類可能需要添加來自Controller的電文代號註解: " + String.join(", ", linkedMsgIds)));
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.cathaybk.codingassistant.lint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 產生模擬大型專案的 Controller、Service 介面與 ServiceImpl 原始碼，供效能量測使用
+ * <p>
+ * 類總數平均分給三種類；每個 Controller 依 {@code fanOut} 注入多個 Service，API 方法輪流呼叫。
+ * 以固定種子決定哪些 API 方法與 Service 已有電文代號，同樣的參數永遠產生同樣的專案，
+ * 並同時算出兩條規則應找到的問題數，量測時可一併確認結果正確。
+ * 部分 Service 不被任何 Controller 使用，也沒有同名的 Controller，外掛檢查這些類時會退回掃描所有 Controller。
+ */
+public class SyntheticProjectGenerator {
+
+    private static final String BASE_PACKAGE = "com.cathaybk.synthetic";
+    private static final int METHODS_PER_CONTROLLER = 4;
+
+    private final int classCount;
+    private final double msgIdCoverage;
+    private final double serviceCoverage;
+    private final int fanOut;
+    private final double orphanRatio;
+    private final long seed;
+
+    /**
+     * @param classCount      類總數（Controller、Service、ServiceImpl 各三分之一）
+     * @param msgIdCoverage   Controller API 方法已有電文代號的比例
+     * @param serviceCoverage Service 介面與實現類已有電文代號的比例
+     * @param fanOut          每個 Controller 注入的 Service 數
+     * @param orphanRatio     沒有 Controller 使用的 Service 比例
+     */
+    public SyntheticProjectGenerator(int classCount, double msgIdCoverage, double serviceCoverage, int fanOut,
+            double orphanRatio, long seed) {
+        if (classCount < 3 || fanOut < 1) {
+            throw new IllegalArgumentException("類總數至少為 3，fanOut 至少為 1");
+        }
+        this.classCount = classCount;
+        this.msgIdCoverage = msgIdCoverage;
+        this.serviceCoverage = serviceCoverage;
+        this.fanOut = fanOut;
+        this.orphanRatio = orphanRatio;
+        this.seed = seed;
+    }
+
+    /**
+     * 在 {@code root} 下產生原始碼（目錄需為空或不存在）
+     */
+    public Summary generate(Path root) throws IOException {
+        Random random = new Random(seed);
+        int groupCount = classCount / 3;
+        int linkedServiceCount = Math.max(1, groupCount - (int) (groupCount * orphanRatio));
+
+        boolean[] serviceHasMsgId = new boolean[groupCount];
+        for (int i = 0; i < groupCount; i++) {
+            serviceHasMsgId[i] = random.nextDouble() < serviceCoverage;
+        }
+
+        Path packageRoot = root.resolve(BASE_PACKAGE.replace('.', '/'));
+        Path controllerDir = Files.createDirectories(packageRoot.resolve("controller"));
+        Path serviceDir = Files.createDirectories(packageRoot.resolve("service"));
+        Path implDir = Files.createDirectories(serviceDir.resolve("impl"));
+
+        // Service 是否被有電文代號的 API 方法使用
+        boolean[] serviceLinked = new boolean[groupCount];
+        int missingMsgIds = 0;
+        for (int i = 0; i < groupCount; i++) {
+            int[] services = new int[Math.min(fanOut, linkedServiceCount)];
+            for (int f = 0; f < services.length; f++) {
+                services[f] = (i * fanOut + f) % linkedServiceCount;
+            }
+            boolean[] methodHasMsgId = new boolean[METHODS_PER_CONTROLLER];
+            for (int m = 0; m < METHODS_PER_CONTROLLER; m++) {
+                methodHasMsgId[m] = random.nextDouble() < msgIdCoverage;
+                if (methodHasMsgId[m]) {
+                    serviceLinked[services[m % services.length]] = true;
+                } else {
+                    missingMsgIds++;
+                }
+            }
+            write(controllerDir.resolve(controllerName(i) + ".java"), controllerSource(i, services, methodHasMsgId));
+        }
+
+        Set<String> serviceLinkClasses = new LinkedHashSet<>();
+        for (int i = 0; i < groupCount; i++) {
+            String name = serviceName(i, i >= linkedServiceCount);
+            write(serviceDir.resolve(name + ".java"), serviceSource(name, i, serviceHasMsgId[i]));
+            write(implDir.resolve(name + "Impl.java"), serviceImplSource(name, i, serviceHasMsgId[i]));
+            // 沒有電文代號的介面與實現類都會從 Controller 取得電文代號
+            if (!serviceHasMsgId[i] && serviceLinked[i]) {
+                serviceLinkClasses.add(name);
+                serviceLinkClasses.add(name + "Impl");
+            }
+        }
+        return new Summary(groupCount * 3, linkedServiceCount, missingMsgIds, serviceLinkClasses);
+    }
+
+    private static String controllerSource(int index, int[] services, boolean[] methodHasMsgId) {
+        StringBuilder text = new StringBuilder(2048);
+        text.append("package ").append(BASE_PACKAGE).append(".controller;\n\n");
+        for (int service : services) {
+            text.append("import ").append(BASE_PACKAGE).append(".service.").append(serviceName(service, false)).append(";\n");
+        }
+        text.append("import org.springframework.web.bind.annotation.PostMapping;\n");
+        text.append("import org.springframework.web.bind.annotation.RestController;\n\n");
+        text.append("@RestController\n");
+        text.append("public class ").append(controllerName(index)).append(" {\n\n");
+        for (int f = 0; f < services.length; f++) {
+            text.append("    private final ").append(serviceName(services[f], false)).append(' ').append(fieldName(f))
+                    .append(";\n");
+        }
+        text.append("\n    public ").append(controllerName(index)).append('(');
+        for (int f = 0; f < services.length; f++) {
+            text.append(f > 0 ? ", " : "").append(serviceName(services[f], false)).append(' ').append(fieldName(f));
+        }
+        text.append(") {\n");
+        for (int f = 0; f < services.length; f++) {
+            text.append("        this.").append(fieldName(f)).append(" = ").append(fieldName(f)).append(";\n");
+        }
+        text.append("    }\n");
+
+        for (int m = 0; m < methodHasMsgId.length; m++) {
+            text.append("\n    /**\n");
+            if (methodHasMsgId[m]) {
+                text.append("     * SYN-C").append(index).append("-M").append(m).append(" 模擬交易 ").append(m).append('\n');
+            } else {
+                text.append("     * 模擬交易 ").append(m).append("，尚未申請電文代號\n");
+            }
+            text.append("     *\n     * @param request 請求內容\n     * @return 處理結果\n     */\n");
+            text.append("    @PostMapping(\"/c").append(index).append("/m").append(m).append("\")\n");
+            text.append("    public String handle").append(m).append("(String request) {\n");
+            text.append("        return ").append(fieldName(m % services.length)).append(".handle(request);\n");
+            text.append("    }\n");
+        }
+        return text.append("}\n").toString();
+    }
+
+    private static String serviceSource(String name, int index, boolean hasMsgId) {
+        StringBuilder text = new StringBuilder(256);
+        text.append("package ").append(BASE_PACKAGE).append(".service;\n\n");
+        appendClassDoc(text, index, hasMsgId);
+        text.append("public interface ").append(name).append(" {\n\n");
+        text.append("    String handle(String request);\n");
+        return text.append("}\n").toString();
+    }
+
+    private static String serviceImplSource(String name, int index, boolean hasMsgId) {
+        StringBuilder text = new StringBuilder(512);
+        text.append("package ").append(BASE_PACKAGE).append(".service.impl;\n\n");
+        text.append("import ").append(BASE_PACKAGE).append(".service.").append(name).append(";\n");
+        text.append("import org.springframework.stereotype.Service;\n\n");
+        appendClassDoc(text, index, hasMsgId);
+        text.append("@Service\n");
+        text.append("public class ").append(name).append("Impl implements ").append(name).append(" {\n\n");
+        text.append("    @Override\n");
+        text.append("    public String handle(String request) {\n");
+        text.append("        return request;\n");
+        text.append("    }\n");
+        return text.append("}\n").toString();
+    }
+
+    private static void appendClassDoc(StringBuilder text, int index, boolean hasMsgId) {
+        text.append("/**\n");
+        if (hasMsgId) {
+            text.append(" * SYN-S").append(index).append("-SERVICE 模擬服務 ").append(index).append('\n');
+        } else {
+            text.append(" * 模擬服務 ").append(index).append('\n');
+        }
+        text.append(" */\n");
+    }
+
+    private static String controllerName(int index) {
+        return "Synthetic" + index + "Controller";
+    }
+
+    /**
+     * 未被使用的 Service 另外命名，避免外掛以類名推導出同名的 Controller
+     */
+    private static String serviceName(int index, boolean orphan) {
+        return (orphan ? "SyntheticOrphan" : "Synthetic") + index + "Service";
+    }
+
+    private static String fieldName(int slot) {
+        return "service" + slot;
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 產生的類數與規則應找到的問題數
+     */
+    public static final class Summary {
+        private final int classCount;
+        private final int linkedServiceCount;
+        private final int expectedMissingMsgIds;
+        private final Set<String> serviceLinkClasses;
+
+        Summary(int classCount, int linkedServiceCount, int expectedMissingMsgIds, Set<String> serviceLinkClasses) {
+            this.classCount = classCount;
+            this.linkedServiceCount = linkedServiceCount;
+            this.expectedMissingMsgIds = expectedMissingMsgIds;
+            this.serviceLinkClasses = Collections.unmodifiableSet(serviceLinkClasses);
+        }
+
+        public int getClassCount() {
+            return classCount;
+        }
+
+        /**
+         * Controller、Service 與 ServiceImpl 各自的數量
+         */
+        public int getGroupCount() {
+            return classCount / 3;
+        }
+
+        /**
+         * 第 i 個 Service 是否沒有任何 Controller 使用
+         */
+        public boolean isOrphanService(int index) {
+            return index >= linkedServiceCount;
+        }
+
+        /**
+         * 第 i 個 Controller 相對於原始碼根目錄的路徑
+         */
+        public String getControllerPath(int index) {
+            return BASE_PACKAGE.replace('.', '/') + "/controller/" + controllerName(index) + ".java";
+        }
+
+        /**
+         * 第 i 個 Service 介面相對於原始碼根目錄的路徑
+         */
+        public String getServicePath(int index) {
+            return BASE_PACKAGE.replace('.', '/') + "/service/" + serviceName(index, isOrphanService(index)) + ".java";
+        }
+
+        /**
+         * 第 i 個 ServiceImpl 相對於原始碼根目錄的路徑
+         */
+        public String getServiceImplPath(int index) {
+            return BASE_PACKAGE.replace('.', '/') + "/service/impl/" + serviceName(index, isOrphanService(index))
+                    + "Impl.java";
+        }
+
+        /**
+         * 沒有電文代號的 API 方法數（ApiMsgIdInspection 應找到的問題數）
+         */
+        public int getExpectedMissingMsgIds() {
+            return expectedMissingMsgIds;
+        }
+
+        /**
+         * 可從 Controller 取得電文代號的 Service 與實現類數（ServiceLinkInspection 應找到的問題數）
+         */
+        public int getExpectedServiceLinks() {
+            return serviceLinkClasses.size();
+        }
+
+        /**
+         * ServiceLinkInspection 應回報的類簡單名稱
+         */
+        public Set<String> getServiceLinkClasses() {
+            return serviceLinkClasses;
+        }
+    }
+}
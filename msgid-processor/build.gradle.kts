@@ -0,0 +1,35 @@
+plugins {
+    id("java-library")
+}
+
+group = "com.cathaybk"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // @ApiMsgId、電文代號格式檢查與完美雜湊建表
+    implementation(project(":msgid-core"))
+
+    testImplementation("com.google.testing.compile:compile-testing:0.21.0")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.1")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher:1.8.1")
+}
+
+tasks {
+    // 配置 Java 版本
+    withType<JavaCompile> {
+        sourceCompatibility = "17"
+        targetCompatibility = "17"
+        options.encoding = "UTF-8"
+    }
+
+    test {
+        useJUnitPlatform()
+        // compile-testing 以預設編碼寫入與讀回產生的原始碼，中文說明需要 UTF-8
+        defaultCharacterEncoding = "UTF-8"
+    }
+}
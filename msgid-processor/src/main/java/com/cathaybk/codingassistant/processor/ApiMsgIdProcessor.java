@@ -0,0 +1,215 @@
+package com.cathaybk.codingassistant.processor;
+
+import com.cathaybk.codingassistant.annotation.ApiMsgId;
+import com.cathaybk.codingassistant.registry.ApiMsgIdEntry;
+import com.cathaybk.codingassistant.registry.ApiMsgIdTableFormat;
+import com.cathaybk.codingassistant.registry.MsgIdPerfectHash;
+import com.cathaybk.codingassistant.util.MsgIdLexer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 編譯期收集 {@link ApiMsgId}，產生以完美雜湊查詢的電文代號表
+ * <p>
+ * 產生的 {@code ApiMsgIdRegistry} 以 {@link com.cathaybk.codingassistant.registry.ApiMsgIdTable} 保存
+ * 電文代號到宣告類、方法與說明的對應，執行期查詢不需掃描 classpath 或反射。
+ * 電文代號格式錯誤（不是「英數-英數-英數」或含空白）或重複時編譯失敗。
+ * <p>
+ * 選項：{@code -Amsgid.registryPackage=套件}（預設 {@value #DEFAULT_PACKAGE}）、
+ * {@code -Amsgid.registryClass=類名}（預設 {@value #DEFAULT_CLASS}），同一個應用程式的多個模組需各自指定。
+ */
+@SupportedAnnotationTypes(ApiMsgIdProcessor.ANNOTATION)
+@SupportedOptions({ ApiMsgIdProcessor.PACKAGE_OPTION, ApiMsgIdProcessor.CLASS_OPTION })
+public class ApiMsgIdProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.cathaybk.codingassistant.annotation.ApiMsgId";
+    static final String PACKAGE_OPTION = "msgid.registryPackage";
+    static final String CLASS_OPTION = "msgid.registryClass";
+    static final String DEFAULT_PACKAGE = "com.cathaybk.codingassistant.registry.generated";
+    static final String DEFAULT_CLASS = "ApiMsgIdRegistry";
+
+    private final List<Declaration> declarations = new ArrayList<>();
+    private final Map<String, Declaration> byMsgId = new HashMap<>();
+    private boolean generated;
+    private boolean failed;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<? extends Element> annotated = roundEnv.getElementsAnnotatedWith(ApiMsgId.class);
+        if (annotated.isEmpty()) {
+            return false;
+        }
+        if (generated) {
+            // 電文代號表已在前一輪產生，之後其他處理器產生的類不會被收錄
+            for (Element element : annotated) {
+                error(element, "@ApiMsgId 不可標註在其他註解處理器產生的類上，電文代號表已產生");
+            }
+            return true;
+        }
+
+        for (Element element : annotated) {
+            collect(element);
+        }
+        if (!failed) {
+            generate();
+        }
+        generated = true;
+        return true;
+    }
+
+    private void collect(Element element) {
+        ApiMsgId annotation = element.getAnnotation(ApiMsgId.class);
+        String msgId = annotation.value();
+        if (!MsgIdLexer.isMsgId(msgId)) {
+            error(element, "電文代號格式錯誤: \"" + msgId + "\"，應為「英數-英數-英數」且不含空白，說明請寫在 description");
+            return;
+        }
+        if (ApiMsgIdTableFormat.containsSeparator(annotation.description())) {
+            error(element, "電文代號說明不可包含控制字元 U+001E、U+001F");
+            return;
+        }
+
+        Declaration declaration = createDeclaration(element, msgId, annotation.description());
+        Declaration existing = byMsgId.putIfAbsent(msgId, declaration);
+        if (existing != null) {
+            error(element, "電文代號重複: " + msgId + "，已宣告於 " + existing.entry);
+            error(existing.element, "電文代號重複: " + msgId + "，另宣告於 " + declaration.entry);
+            return;
+        }
+        declarations.add(declaration);
+    }
+
+    private Declaration createDeclaration(Element element, String msgId, String description) {
+        Elements elements = processingEnv.getElementUtils();
+        if (element instanceof ExecutableElement) {
+            ExecutableElement method = (ExecutableElement) element;
+            TypeElement owner = (TypeElement) method.getEnclosingElement();
+            List<? extends VariableElement> parameters = method.getParameters();
+            String[] parameterTypes = new String[parameters.size()];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = binaryName(parameters.get(i).asType());
+            }
+            return new Declaration(element, new ApiMsgIdEntry(msgId, elements.getBinaryName(owner).toString(),
+                    method.getSimpleName().toString(), parameterTypes, description));
+        }
+        return new Declaration(element, new ApiMsgIdEntry(msgId,
+                elements.getBinaryName((TypeElement) element).toString(), null, null, description));
+    }
+
+    /**
+     * 參數型別的 erasure 轉為 {@link Class#forName(String)} 可用的名稱
+     */
+    private String binaryName(TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erased = types.erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) erased).getComponentType());
+            case DECLARED:
+                return processingEnv.getElementUtils().getBinaryName((TypeElement) types.asElement(erased)).toString();
+            default:
+                // 基本型別
+                return erased.toString();
+        }
+    }
+
+    private String descriptor(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) type).getComponentType());
+            default:
+                return "L" + binaryName(type) + ";";
+        }
+    }
+
+    private void generate() {
+        if (declarations.isEmpty()) {
+            return;
+        }
+        String packageName = processingEnv.getOptions().getOrDefault(PACKAGE_OPTION, DEFAULT_PACKAGE);
+        String className = processingEnv.getOptions().getOrDefault(CLASS_OPTION, DEFAULT_CLASS);
+
+        String[] keys = new String[declarations.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = declarations.get(i).entry.getMsgId();
+        }
+        MsgIdPerfectHash hash = MsgIdPerfectHash.build(keys);
+        ApiMsgIdEntry[] slots = new ApiMsgIdEntry[hash.getTableSize()];
+        for (int i = 0; i < keys.length; i++) {
+            slots[hash.getSlot(i)] = declarations.get(i).entry;
+        }
+
+        Element[] originating = new Element[declarations.size()];
+        for (int i = 0; i < originating.length; i++) {
+            originating[i] = declarations.get(i).element;
+        }
+        Filer filer = processingEnv.getFiler();
+        try (Writer writer = filer.createSourceFile(packageName + "." + className, originating).openWriter()) {
+            writer.write(RegistrySource.render(packageName, className, hash.getSeeds(), slots));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "無法產生電文代號表 " + className + ": " + e);
+        }
+    }
+
+    private void error(Element element, String message) {
+        failed = true;
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * 收集到的一個 {@code @ApiMsgId} 宣告與其來源元素（用於錯誤位置）
+     */
+    private static final class Declaration {
+        final Element element;
+        final ApiMsgIdEntry entry;
+
+        Declaration(Element element, ApiMsgIdEntry entry) {
+            this.element = element;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.cathaybk.codingassistant.processor;
+
+import com.cathaybk.codingassistant.registry.ApiMsgIdEntry;
+import com.cathaybk.codingassistant.registry.ApiMsgIdTableFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 產生電文代號表的原始碼
+ * <p>
+ * 資料以 {@link ApiMsgIdTableFormat} 編碼成字串常數，每段不超過類檔單一字串常數 65535 位元組的上限，
+ * 上萬個電文代號也只佔用少數常數。
+ */
+final class RegistrySource {
+
+    // 單一字串常數的 modified UTF-8 位元組上限（保留餘裕）
+    private static final int MAX_LITERAL_BYTES = 60_000;
+
+    private RegistrySource() {
+    }
+
+    static String render(String packageName, String className, int[] seeds, ApiMsgIdEntry[] slots) {
+        String entries = ApiMsgIdTableFormat.encodeEntries(slots);
+        StringBuilder text = new StringBuilder(512 + entries.length() * 2);
+        if (!packageName.isEmpty()) {
+            text.append("package ").append(packageName).append(";\n\n");
+        }
+        text.append("import com.cathaybk.codingassistant.registry.ApiMsgIdEntry;\n");
+        text.append("import com.cathaybk.codingassistant.registry.ApiMsgIdTable;\n");
+        text.append("import com.cathaybk.codingassistant.registry.ApiMsgIdTableFormat;\n\n");
+        text.append("/**\n * 電文代號表，由 ApiMsgIdProcessor 於編譯期產生，請勿修改\n */\n");
+        text.append("@javax.annotation.processing.Generated(\"")
+                .append(ApiMsgIdProcessor.class.getName()).append("\")\n");
+        text.append("public final class ").append(className).append(" {\n\n");
+
+        text.append("    private static final String[] SEEDS = {\n");
+        appendChunks(text, ApiMsgIdTableFormat.encodeSeeds(seeds), ApiMsgIdTableFormat.SEED_SEPARATOR);
+        text.append("    };\n\n");
+        text.append("    private static final String[] ENTRIES = {\n");
+        appendChunks(text, entries, ApiMsgIdTableFormat.RECORD_SEPARATOR);
+        text.append("    };\n\n");
+
+        // 寫入建表時的格式版本，執行期的 msgid-core 版本不同時在類初始化就失敗
+        text.append("    public static final ApiMsgIdTable TABLE = ApiMsgIdTableFormat.decode(")
+                .append(ApiMsgIdTableFormat.VERSION).append(", ")
+                .append(slots.length).append(", SEEDS, ENTRIES);\n\n");
+        text.append("    private ").append(className).append("() {\n    }\n\n");
+        text.append("    /**\n     * 依電文代號查詢宣告，沒有時返回 null\n     */\n");
+        text.append("    public static ApiMsgIdEntry find(String msgId) {\n");
+        text.append("        return TABLE.find(msgId);\n    }\n");
+        return text.append("}\n").toString();
+    }
+
+    /**
+     * 在分隔字元後切段，寫成多個字串常數
+     */
+    private static void appendChunks(StringBuilder text, String encoded, char separator) {
+        for (String chunk : split(encoded, separator)) {
+            text.append("            ");
+            appendLiteral(text, chunk);
+            text.append(",\n");
+        }
+    }
+
+    private static List<String> split(String encoded, char separator) {
+        List<String> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        int lastBoundary = 0;
+        int bytes = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            bytes += c >= 0x01 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+            if (bytes > MAX_LITERAL_BYTES && lastBoundary > chunkStart) {
+                chunks.add(encoded.substring(chunkStart, lastBoundary));
+                chunkStart = lastBoundary;
+                i = lastBoundary - 1;
+                bytes = 0;
+                continue;
+            }
+            if (c == separator) {
+                lastBoundary = i + 1;
+            }
+        }
+        if (chunkStart < encoded.length()) {
+            chunks.add(encoded.substring(chunkStart));
+        }
+        return chunks;
+    }
+
+    private static void appendLiteral(StringBuilder text, String value) {
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    text.append("\\\"");
+                    break;
+                case '\\':
+                    text.append("\\\\");
+                    break;
+                case '\n':
+                    text.append("\\n");
+                    break;
+                case '\r':
+                    text.append("\\r");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        // 以八進位跳脫，Unicode 跳脫會在詞法分析前就被還原
+                        text.append(String.format("\\%03o", (int) c));
+                    } else {
+                        text.append(c);
+                    }
+            }
+        }
+        text.append('"');
+    }
+}
@@ -0,0 +1,141 @@
+package com.cathaybk.codingassistant.processor;
+
+import com.cathaybk.codingassistant.registry.ApiMsgIdEntry;
+import com.cathaybk.codingassistant.registry.ApiMsgIdTable;
+import com.cathaybk.codingassistant.registry.ApiMsgIdTableFormat;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiMsgIdProcessorTest {
+
+    private static final String REGISTRY = ApiMsgIdProcessor.DEFAULT_PACKAGE + "." + ApiMsgIdProcessor.DEFAULT_CLASS;
+
+    @Test
+    void generatesRegistryForAnnotatedTypesAndMethods() throws Exception {
+        JavaFileObject service = JavaFileObjects.forSourceLines("demo.TakingFileService",
+                "package demo;",
+                "import com.cathaybk.codingassistant.annotation.ApiMsgId;",
+                "import java.util.List;",
+                "@ApiMsgId(\"RET-B-SERVICE\")",
+                "public class TakingFileService {",
+                "    @ApiMsgId(value = \"RET-B-TAKINGFILE\", description = \"取件檔案查詢\")",
+                "    public String query(List<String> ids, int[] days) { return null; }",
+                "    public static class Inner {",
+                "        @ApiMsgId(\"AaAa-B-C\") public void first(String request) {}",
+                "        @ApiMsgId(\"BBBB-B-C\") public void second(String request) {}",
+                "    }",
+                "}");
+
+        Compilation compilation = javac().withProcessors(new ApiMsgIdProcessor()).compile(service);
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation).generatedSourceFile(REGISTRY)
+                .contentsAsUtf8String().contains("ApiMsgIdTableFormat.decode(" + ApiMsgIdTableFormat.VERSION + ", ");
+
+        ApiMsgIdTable table = loadTable(compilation, REGISTRY);
+        assertEquals(4, table.size());
+        assertEquals("demo.TakingFileService", table.find("RET-B-SERVICE").getClassName());
+        assertFalse(table.find("RET-B-SERVICE").isMethod());
+
+        ApiMsgIdEntry query = table.find("RET-B-TAKINGFILE");
+        assertEquals("query", query.getMethodName());
+        assertArrayEquals(new String[] { "java.util.List", "[I" }, query.getParameterTypes());
+        assertEquals("取件檔案查詢", query.getDescription());
+
+        assertEquals("demo.TakingFileService$Inner", table.find("AaAa-B-C").getClassName());
+        assertEquals("second", table.find("BBBB-B-C").getMethodName());
+        assertNull(table.find("AaBB-B-C"));
+    }
+
+    @Test
+    void usesConfiguredPackageAndClass() {
+        Compilation compilation = javac().withProcessors(new ApiMsgIdProcessor())
+                .withOptions("-A" + ApiMsgIdProcessor.PACKAGE_OPTION + "=demo.registry",
+                        "-A" + ApiMsgIdProcessor.CLASS_OPTION + "=DemoMsgIds")
+                .compile(JavaFileObjects.forSourceLines("demo.Service",
+                        "package demo;",
+                        "@com.cathaybk.codingassistant.annotation.ApiMsgId(\"RET-B-ONE\")",
+                        "public class Service {}"));
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("demo.registry.DemoMsgIds");
+    }
+
+    @Test
+    void reportsDuplicateMsgIdOnBothDeclarations() {
+        JavaFileObject first = JavaFileObjects.forSourceLines("demo.First",
+                "package demo;",
+                "import com.cathaybk.codingassistant.annotation.ApiMsgId;",
+                "public class First {",
+                "    @ApiMsgId(\"RET-B-DUP\") public void handle(String request) {}",
+                "}");
+        JavaFileObject second = JavaFileObjects.forSourceLines("demo.Second",
+                "package demo;",
+                "import com.cathaybk.codingassistant.annotation.ApiMsgId;",
+                "@ApiMsgId(\"RET-B-DUP\")",
+                "public class Second {}");
+
+        Compilation compilation = javac().withProcessors(new ApiMsgIdProcessor()).compile(first, second);
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(2);
+        assertThat(compilation).hadErrorContaining("電文代號重複: RET-B-DUP").inFile(first).onLine(4);
+        assertThat(compilation).hadErrorContaining("電文代號重複: RET-B-DUP").inFile(second).onLine(4);
+    }
+
+    @Test
+    void reportsMalformedMsgIds() {
+        JavaFileObject service = JavaFileObjects.forSourceLines("demo.Malformed",
+                "package demo;",
+                "import com.cathaybk.codingassistant.annotation.ApiMsgId;",
+                "public class Malformed {",
+                "    @ApiMsgId(\"RET-B\") public void tooShort(String request) {}",
+                "    @ApiMsgId(\"RET-B-C 說明\") public void withDescription(String request) {}",
+                "    @ApiMsgId(\"-RET-B-C\") public void leadingHyphen(String request) {}",
+                "    @ApiMsgId(value = \"RET-B-OK\", description = \"a\\u001Eb\") public void separator(String r) {}",
+                "}");
+
+        Compilation compilation = javac().withProcessors(new ApiMsgIdProcessor()).compile(service);
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorCount(4);
+        assertThat(compilation).hadErrorContaining("電文代號格式錯誤: \"RET-B\"").inFile(service).onLine(4);
+        assertThat(compilation).hadErrorContaining("電文代號格式錯誤: \"RET-B-C 說明\"").inFile(service).onLine(5);
+        assertThat(compilation).hadErrorContaining("電文代號格式錯誤: \"-RET-B-C\"").inFile(service).onLine(6);
+        assertThat(compilation).hadErrorContaining("U+001E").inFile(service).onLine(7);
+    }
+
+    /**
+     * 以編譯結果的類檔載入產生的表，確認查詢結果
+     */
+    private static ApiMsgIdTable loadTable(Compilation compilation, String className) throws Exception {
+        Map<String, byte[]> classes = new HashMap<>();
+        for (JavaFileObject file : compilation.generatedFiles()) {
+            if (file.getKind() == JavaFileObject.Kind.CLASS) {
+                String name = file.toUri().getPath().replaceFirst("^/CLASS_OUTPUT/", "").replaceFirst("\\.class$", "")
+                        .replace('/', '.');
+                try (InputStream input = file.openInputStream()) {
+                    classes.put(name, input.readAllBytes());
+                }
+            }
+        }
+        ClassLoader loader = new ClassLoader(ApiMsgIdProcessorTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        return (ApiMsgIdTable) loader.loadClass(className).getField("TABLE").get(null);
+    }
+}
@@ -0,0 +1,42 @@
+plugins {
+    id("java-library")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "com.cathaybk"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // @ApiMsgId、編譯期電文代號表與完美雜湊
+    api(project(":msgid-core"))
+
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.1")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher:1.8.1")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
+tasks {
+    // 配置 Java 版本
+    withType<JavaCompile> {
+        sourceCompatibility = "17"
+        targetCompatibility = "17"
+        options.encoding = "UTF-8"
+    }
+
+    test {
+        useJUnitPlatform()
+    }
+}
@@ -0,0 +1,112 @@
+package com.cathaybk.codingassistant.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 電文閘道依電文代號分派的吞吐量
+ * <p>
+ * 比較以完美雜湊與 {@link java.lang.invoke.LambdaMetafactory} 建立的 {@link MsgIdDispatcher}，
+ * 以及原本以 synchronized {@link HashMap} 查詢 {@link Method} 再反射呼叫的做法。
+ * 電文代號依亂數順序輪流分派，避免只命中快取中的少數項目；以多個線程執行時可看出鎖競爭。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class MsgIdDispatcherBenchmark {
+
+    @Param({ "10000", "50000" })
+    public int msgIdCount;
+
+    private String[] msgIds;
+    private MsgIdDispatcher dispatcher;
+    private Map<String, Method> reflectiveMethods;
+    private Object reflectiveTarget;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        msgIds = new String[msgIdCount];
+        for (int i = 0; i < msgIdCount; i++) {
+            msgIds[i] = "SVC" + random.nextInt(1000) + "-B" + i + "-OP" + random.nextInt(100);
+        }
+
+        // 上萬個電文代號輪流對應到幾個處理方法，分派表的大小與正式環境相同
+        GatewayHandlers handlers = new GatewayHandlers();
+        Method[] methods = {
+                GatewayHandlers.class.getMethod("inquiry", String.class),
+                GatewayHandlers.class.getMethod("transfer", String.class),
+                GatewayHandlers.class.getMethod("length", String.class) };
+        MsgIdDispatcher.Builder builder = MsgIdDispatcher.builder();
+        reflectiveMethods = new HashMap<>();
+        for (int i = 0; i < msgIdCount; i++) {
+            Method method = methods[i % methods.length];
+            builder.register(msgIds[i], handlers, method, MethodHandles.lookup());
+            reflectiveMethods.put(msgIds[i], method);
+        }
+        dispatcher = builder.build();
+        reflectiveTarget = handlers;
+
+        // 打亂分派順序
+        for (int i = msgIds.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = msgIds[i];
+            msgIds[i] = msgIds[j];
+            msgIds[j] = swap;
+        }
+    }
+
+    /**
+     * 每個線程各自的分派位置
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance(int length) {
+            int index = next;
+            next = index + 1 == length ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Benchmark
+    public Object dispatcher(Cursor cursor) throws Exception {
+        return dispatcher.dispatch(msgIds[cursor.advance(msgIds.length)], "payload");
+    }
+
+    @Benchmark
+    public Object synchronizedMapReflection(Cursor cursor) throws Exception {
+        String msgId = msgIds[cursor.advance(msgIds.length)];
+        Method method;
+        synchronized (reflectiveMethods) {
+            method = reflectiveMethods.get(msgId);
+        }
+        return method.invoke(reflectiveTarget, "payload");
+    }
+
+    /**
+     * 模擬的電文處理類
+     */
+    public static class GatewayHandlers {
+
+        public String inquiry(String request) {
+            return request;
+        }
+
+        public Object transfer(String request) {
+            return request.isEmpty() ? null : Boolean.TRUE;
+        }
+
+        public int length(String request) {
+            return request.length();
+        }
+    }
+}
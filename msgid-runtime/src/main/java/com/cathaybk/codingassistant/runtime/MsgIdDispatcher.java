@@ -0,0 +1,344 @@
+package com.cathaybk.codingassistant.runtime;
+
+import com.cathaybk.codingassistant.annotation.ApiMsgId;
+import com.cathaybk.codingassistant.registry.ApiMsgIdEntry;
+import com.cathaybk.codingassistant.registry.ApiMsgIdTable;
+import com.cathaybk.codingassistant.registry.MsgIdPerfectHash;
+import com.cathaybk.codingassistant.util.MsgIdLexer;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 依電文代號把電文分派到 {@link ApiMsgId} 標註的處理方法
+ * <p>
+ * 建立時一次解析所有處理方法並以 {@link MsgIdPerfectHash} 建立唯讀分派表，建立後不再修改：
+ * 查詢只讀取 final 陣列，不需加鎖，可由任意多個線程同時分派。
+ * 處理方法以 {@link LambdaMetafactory} 轉為 {@link MsgIdHandler}，呼叫不經過反射；
+ * {@code void} 方法或無法產生 lambda 的方法（例如非公開且未提供該類的 {@link MethodHandles.Lookup}）
+ * 改以綁定的 {@link MethodHandle} 呼叫。
+ * <p>
+ * 處理方法必須只有一個參考型別的參數（電文內容）。
+ */
+public final class MsgIdDispatcher {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType HANDLE_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final int[] seeds;
+    private final String[] msgIds;
+    private final MsgIdHandler[] handlers;
+    private final int size;
+
+    private MsgIdDispatcher(int[] seeds, String[] msgIds, MsgIdHandler[] handlers, int size) {
+        this.seeds = seeds;
+        this.msgIds = msgIds;
+        this.handlers = handlers;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 查詢電文代號的處理方法
+     *
+     * @return 未註冊時返回 null
+     */
+    public MsgIdHandler find(String msgId) {
+        if (msgId == null || size == 0) {
+            return null;
+        }
+        int slot = MsgIdPerfectHash.slot(seeds, msgIds.length, msgId);
+        return msgId.equals(msgIds[slot]) ? handlers[slot] : null;
+    }
+
+    /**
+     * 把電文分派到電文代號的處理方法
+     *
+     * @return 處理方法的返回值
+     * @throws IllegalArgumentException 電文代號未註冊時
+     */
+    public Object dispatch(String msgId, Object request) throws Exception {
+        MsgIdHandler handler = find(msgId);
+        if (handler == null) {
+            throw new IllegalArgumentException("未註冊的電文代號: " + msgId);
+        }
+        return handler.handle(request);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 所有已註冊的電文代號（依分派表順序）
+     */
+    public List<String> getMsgIds() {
+        List<String> result = new ArrayList<>(size);
+        for (String msgId : msgIds) {
+            if (msgId != null) {
+                result.add(msgId);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 收集處理方法；非線程安全，{@link #build()} 後即可丟棄
+     */
+    public static final class Builder {
+
+        private final Map<String, MsgIdHandler> handlers = new LinkedHashMap<>();
+        // 同一物件的同一方法對應多個電文代號時共用處理器，不重複產生 lambda 類
+        private final Map<HandlerKey, MsgIdHandler> created = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 註冊物件上所有以 {@link ApiMsgId} 標註的方法（包含父類宣告的方法），只能呼叫公開方法
+         * <p>
+         * 子類以標註覆寫的父類方法只註冊子類的方法；覆寫沒有標註時沿用父類的標註，呼叫時同樣執行子類的方法。
+         */
+        public Builder register(Object target) {
+            return register(target, LOOKUP);
+        }
+
+        /**
+         * 同 {@link #register(Object)}，以處理類自己的 {@code MethodHandles.lookup()} 註冊時也可呼叫非公開方法
+         */
+        public Builder register(Object target, MethodHandles.Lookup lookup) {
+            // 已走訪的子類中以標註覆寫的方法簽名
+            Set<String> annotated = new HashSet<>();
+            for (Class<?> type = target.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Method method : type.getDeclaredMethods()) {
+                    ApiMsgId annotation = method.getAnnotation(ApiMsgId.class);
+                    if (annotation == null || method.isBridge() || method.isSynthetic()) {
+                        continue;
+                    }
+                    int modifiers = method.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers)
+                            && !annotated.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                        continue;
+                    }
+                    register(annotation.value(), Modifier.isStatic(modifiers) ? null : target, method, lookup);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 從 msgid-processor 產生的電文代號表註冊，不需掃描類與註解
+         *
+         * @param instances 取得處理類的實例（例如從 Spring 容器取得），靜態方法不會呼叫
+         * @param lookup    解析類名使用的 Lookup，其類載入器需能載入處理類
+         */
+        public Builder register(ApiMsgIdTable table, Function<Class<?>, ?> instances, MethodHandles.Lookup lookup) {
+            for (ApiMsgIdEntry entry : table.getEntries()) {
+                if (!entry.isMethod()) {
+                    continue;
+                }
+                Method method = resolveMethod(entry, lookup);
+                Object target = null;
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    target = instances.apply(method.getDeclaringClass());
+                    if (target == null) {
+                        throw new IllegalArgumentException("找不到處理類的實例: " + entry);
+                    }
+                }
+                register(entry.getMsgId(), target, method, lookup);
+            }
+            return this;
+        }
+
+        /**
+         * 把電文代號註冊到指定物件的方法
+         *
+         * @param target 靜態方法時為 null
+         * @throws IllegalArgumentException 電文代號格式錯誤、重複，或方法不是單一參考型別參數時
+         */
+        public Builder register(String msgId, Object target, Method method, MethodHandles.Lookup lookup) {
+            if (!MsgIdLexer.isMsgId(msgId)) {
+                throw new IllegalArgumentException("電文代號格式錯誤: \"" + msgId + "\"（" + method + "）");
+            }
+            if (method.getParameterCount() != 1 || method.getParameterTypes()[0].isPrimitive()) {
+                throw new IllegalArgumentException("處理方法必須只有一個參考型別的參數: " + method);
+            }
+            MsgIdHandler handler = created.computeIfAbsent(new HandlerKey(target, method),
+                    key -> createHandler(target, method, lookup));
+            if (handlers.putIfAbsent(msgId, handler) != null) {
+                throw new IllegalArgumentException("電文代號重複: " + msgId + "（" + method + "）");
+            }
+            return this;
+        }
+
+        public MsgIdDispatcher build() {
+            String[] keys = handlers.keySet().toArray(new String[0]);
+            if (keys.length == 0) {
+                return new MsgIdDispatcher(new int[0], new String[0], new MsgIdHandler[0], 0);
+            }
+            MsgIdPerfectHash hash = MsgIdPerfectHash.build(keys);
+            String[] msgIds = new String[hash.getTableSize()];
+            MsgIdHandler[] slots = new MsgIdHandler[hash.getTableSize()];
+            for (int i = 0; i < keys.length; i++) {
+                msgIds[hash.getSlot(i)] = keys[i];
+                slots[hash.getSlot(i)] = handlers.get(keys[i]);
+            }
+            return new MsgIdDispatcher(hash.getSeeds(), msgIds, slots, keys.length);
+        }
+
+        private static Method resolveMethod(ApiMsgIdEntry entry, MethodHandles.Lookup lookup) {
+            try {
+                Class<?> type = resolveType(entry.getClassName(), lookup);
+                String[] parameterNames = entry.getParameterTypes();
+                Class<?>[] parameterTypes = new Class<?>[parameterNames.length];
+                for (int i = 0; i < parameterNames.length; i++) {
+                    parameterTypes[i] = resolveType(parameterNames[i], lookup);
+                }
+                return type.getDeclaredMethod(entry.getMethodName(), parameterTypes);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("無法解析電文代號表中的處理方法: " + entry, e);
+            }
+        }
+
+        private static Class<?> resolveType(String name, MethodHandles.Lookup lookup)
+                throws ReflectiveOperationException {
+            switch (name) {
+                case "boolean":
+                    return boolean.class;
+                case "byte":
+                    return byte.class;
+                case "char":
+                    return char.class;
+                case "short":
+                    return short.class;
+                case "int":
+                    return int.class;
+                case "long":
+                    return long.class;
+                case "float":
+                    return float.class;
+                case "double":
+                    return double.class;
+                default:
+                    return Class.forName(name, false, lookup.lookupClass().getClassLoader());
+            }
+        }
+
+        private static MsgIdHandler createHandler(Object target, Method method, MethodHandles.Lookup lookup) {
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            if (!isStatic && !method.getDeclaringClass().isInstance(target)) {
+                throw new IllegalArgumentException("處理方法不屬於指定的物件: " + method);
+            }
+            try {
+                MethodHandle implementation = lookup.unreflect(method);
+                if (method.getReturnType() != void.class) {
+                    MethodHandles.Lookup caller = lambdaCaller(method, lookup);
+                    if (caller != null) {
+                        return createLambda(caller, implementation, target, method, isStatic);
+                    }
+                }
+                MethodHandle bound = isStatic ? implementation : implementation.bindTo(target);
+                return new MethodHandleHandler(bound.asType(HANDLE_TYPE));
+            } catch (Throwable e) {
+                throw new IllegalArgumentException("無法建立處理方法: " + method, e);
+            }
+        }
+
+        /**
+         * 產生 lambda 的類需能直接呼叫處理方法：公開類的公開方法使用本類的 Lookup，
+         * 否則需要處理類自己的完整權限 Lookup；都不符合時返回 null
+         */
+        private static MethodHandles.Lookup lambdaCaller(Method method, MethodHandles.Lookup lookup) {
+            Class<?> declaringClass = method.getDeclaringClass();
+            boolean accessible = Modifier.isPublic(method.getModifiers());
+            for (Class<?> type = declaringClass; type != null && accessible; type = type.getEnclosingClass()) {
+                accessible = Modifier.isPublic(type.getModifiers());
+            }
+            if (accessible) {
+                return LOOKUP;
+            }
+            if (lookup.lookupClass() == declaringClass && lookup.hasFullPrivilegeAccess()) {
+                return lookup;
+            }
+            return null;
+        }
+
+        private static MsgIdHandler createLambda(MethodHandles.Lookup caller, MethodHandle implementation,
+                Object target, Method method, boolean isStatic) throws Throwable {
+            MethodType factoryType = isStatic ? MethodType.methodType(MsgIdHandler.class)
+                    : MethodType.methodType(MsgIdHandler.class, method.getDeclaringClass());
+            MethodType dynamicType = MethodType.methodType(method.getReturnType(), method.getParameterTypes()[0]);
+            CallSite site = LambdaMetafactory.metafactory(caller, "handle", factoryType, HANDLE_TYPE,
+                    implementation, dynamicType);
+            return isStatic ? (MsgIdHandler) site.getTarget().invoke() : (MsgIdHandler) site.getTarget().invoke(target);
+        }
+    }
+
+    /**
+     * 以物件身分與方法識別處理器
+     */
+    private static final class HandlerKey {
+        private final Object target;
+        private final Method method;
+
+        HandlerKey(Object target, Method method) {
+            this.target = target;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof HandlerKey)) {
+                return false;
+            }
+            HandlerKey other = (HandlerKey) o;
+            return target == other.target && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(target) + method.hashCode();
+        }
+    }
+
+    /**
+     * 以綁定的 MethodHandle 呼叫處理方法
+     */
+    private static final class MethodHandleHandler implements MsgIdHandler {
+        private final MethodHandle target;
+
+        MethodHandleHandler(MethodHandle target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object handle(Object request) throws Exception {
+            try {
+                return target.invokeExact(request);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+    }
+}
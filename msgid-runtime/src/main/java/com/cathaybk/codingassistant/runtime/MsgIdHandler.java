@@ -0,0 +1,17 @@
+package com.cathaybk.codingassistant.runtime;
+
+/**
+ * 一個電文代號的處理方法
+ * <p>
+ * {@link MsgIdDispatcher} 以 {@link java.lang.invoke.LambdaMetafactory} 產生實作，
+ * 呼叫與直接呼叫處理方法相同，不經過反射。
+ */
+@FunctionalInterface
+public interface MsgIdHandler {
+
+    /**
+     * @param request 電文內容
+     * @return 處理方法的返回值，{@code void} 方法返回 null
+     */
+    Object handle(Object request) throws Exception;
+}
@@ -0,0 +1,300 @@
+package com.cathaybk.codingassistant.runtime;
+
+import com.cathaybk.codingassistant.annotation.ApiMsgId;
+import com.cathaybk.codingassistant.registry.ApiMsgIdEntry;
+import com.cathaybk.codingassistant.registry.ApiMsgIdTable;
+import com.cathaybk.codingassistant.registry.MsgIdPerfectHash;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 處理類需為公開類才能以分派器自己的 Lookup 產生 lambda
+public class MsgIdDispatcherTest {
+
+    public static class BaseHandler {
+        @ApiMsgId("RET-B-BASE")
+        public String base(String request) {
+            return "base:" + request;
+        }
+    }
+
+    public static class TellerHandler extends BaseHandler {
+        final List<Object> received = new ArrayList<>();
+
+        @ApiMsgId("RET-B-QUERY")
+        public String query(String request) {
+            return "query:" + request;
+        }
+
+        @ApiMsgId("RET-B-NOTIFY")
+        public void notify(Map<String, String> request) {
+            received.add(request);
+        }
+
+        @ApiMsgId("RET-B-STATIC")
+        public static Integer length(CharSequence request) {
+            return request.length();
+        }
+
+        @ApiMsgId("RET-B-FAIL")
+        public String fail(String request) throws IOException {
+            throw new IOException(request);
+        }
+
+        public String unannotated(String request) {
+            return request;
+        }
+    }
+
+    public static class OverridingHandler extends BaseHandler {
+        @ApiMsgId("RET-B-BASE")
+        @Override
+        public String base(String request) {
+            return "override:" + request;
+        }
+    }
+
+    public static class UnannotatedOverridingHandler extends BaseHandler {
+        @Override
+        public String base(String request) {
+            return "unannotated:" + request;
+        }
+    }
+
+    /**
+     * 非公開類與方法，只能以自己的 Lookup 產生 lambda
+     */
+    static class PrivateHandler {
+        static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+        @ApiMsgId("RET-B-PRIVATE")
+        private String handle(String request) {
+            return "private:" + request;
+        }
+
+        @ApiMsgId("RET-B-PRIVATEVOID")
+        private void ignore(String request) {
+        }
+    }
+
+    public static class MalformedHandler {
+        @ApiMsgId("RET-B")
+        public String handle(String request) {
+            return request;
+        }
+    }
+
+    public static class TwoParameterHandler {
+        @ApiMsgId("RET-B-TWO")
+        public String handle(String request, String extra) {
+            return request;
+        }
+    }
+
+    @Test
+    void dispatchesToAnnotatedMethods() throws Exception {
+        TellerHandler teller = new TellerHandler();
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder().register(teller).build();
+
+        assertEquals(5, dispatcher.size());
+        assertEquals("query:a", dispatcher.dispatch("RET-B-QUERY", "a"));
+        assertEquals("base:b", dispatcher.dispatch("RET-B-BASE", "b"));
+        assertEquals(3, dispatcher.dispatch("RET-B-STATIC", "abc"));
+
+        Map<String, String> request = Map.of("k", "v");
+        assertNull(dispatcher.dispatch("RET-B-NOTIFY", request));
+        assertEquals(List.of(request), teller.received);
+    }
+
+    @Test
+    void registersOverridingMethodInsteadOfSuperclassMethod() throws Exception {
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder().register(new OverridingHandler()).build();
+
+        assertEquals(1, dispatcher.size());
+        assertEquals("override:a", dispatcher.dispatch("RET-B-BASE", "a"));
+
+        MsgIdDispatcher unannotated = MsgIdDispatcher.builder().register(new UnannotatedOverridingHandler()).build();
+        assertEquals(1, unannotated.size());
+        assertEquals("unannotated:a", unannotated.dispatch("RET-B-BASE", "a"));
+    }
+
+    @Test
+    void usesLambdaForValueMethodsAndMethodHandleForVoid() {
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder().register(new TellerHandler()).build();
+
+        assertTrue(dispatcher.find("RET-B-QUERY").getClass().isHidden());
+        assertTrue(dispatcher.find("RET-B-STATIC").getClass().isHidden());
+        assertFalse(dispatcher.find("RET-B-NOTIFY").getClass().isHidden());
+    }
+
+    @Test
+    void callsNonPublicMethodsWithHandlerLookup() throws Exception {
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder()
+                .register(new PrivateHandler(), PrivateHandler.LOOKUP)
+                .build();
+
+        assertEquals("private:a", dispatcher.dispatch("RET-B-PRIVATE", "a"));
+        assertTrue(dispatcher.find("RET-B-PRIVATE").getClass().isHidden());
+        assertNull(dispatcher.dispatch("RET-B-PRIVATEVOID", "a"));
+        assertFalse(dispatcher.find("RET-B-PRIVATEVOID").getClass().isHidden());
+    }
+
+    @Test
+    void rejectsNonPublicMethodsWithoutHandlerLookup() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> MsgIdDispatcher.builder().register(new PrivateHandler()));
+        assertTrue(e.getMessage().contains("無法建立處理方法"), e.getMessage());
+    }
+
+    @Test
+    void propagatesHandlerExceptions() throws Exception {
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder().register(new TellerHandler()).build();
+        IOException e = assertThrows(IOException.class, () -> dispatcher.dispatch("RET-B-FAIL", "broken"));
+        assertEquals("broken", e.getMessage());
+        assertThrows(ClassCastException.class, () -> dispatcher.dispatch("RET-B-QUERY", 1));
+    }
+
+    @Test
+    void sharesHandlerForSameMethod() throws Exception {
+        TellerHandler teller = new TellerHandler();
+        Method query = TellerHandler.class.getMethod("unannotated", String.class);
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder()
+                .register("RET-B-FIRST", teller, query, MethodHandles.lookup())
+                .register("RET-B-SECOND", teller, query, MethodHandles.lookup())
+                .register("RET-B-OTHER", new TellerHandler(), query, MethodHandles.lookup())
+                .build();
+
+        assertSame(dispatcher.find("RET-B-FIRST"), dispatcher.find("RET-B-SECOND"));
+        assertNotSame(dispatcher.find("RET-B-FIRST"), dispatcher.find("RET-B-OTHER"));
+        assertEquals("x", dispatcher.dispatch("RET-B-SECOND", "x"));
+    }
+
+    @Test
+    void registersFromGeneratedTable() throws Exception {
+        TellerHandler teller = new TellerHandler();
+        ApiMsgIdTable table = table(
+                new ApiMsgIdEntry("RET-B-QUERY", TellerHandler.class.getName(), "query",
+                        new String[] { "java.lang.String" }, ""),
+                new ApiMsgIdEntry("RET-B-NOTIFY", TellerHandler.class.getName(), "notify",
+                        new String[] { "java.util.Map" }, ""),
+                new ApiMsgIdEntry("RET-B-STATIC", TellerHandler.class.getName(), "length",
+                        new String[] { "java.lang.CharSequence" }, ""),
+                new ApiMsgIdEntry("RET-B-BASE", BaseHandler.class.getName(), "base",
+                        new String[] { "java.lang.String" }, ""),
+                // 標註在類上的項目沒有處理方法，略過
+                new ApiMsgIdEntry("RET-B-TELLER", TellerHandler.class.getName(), null, null, ""));
+
+        List<Class<?>> requested = new ArrayList<>();
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder()
+                .register(table, type -> {
+                    requested.add(type);
+                    return teller;
+                }, MethodHandles.lookup())
+                .build();
+
+        assertEquals(4, dispatcher.size());
+        assertEquals("query:a", dispatcher.dispatch("RET-B-QUERY", "a"));
+        assertEquals("base:b", dispatcher.dispatch("RET-B-BASE", "b"));
+        assertEquals(2, dispatcher.dispatch("RET-B-STATIC", "ab"));
+        assertNull(dispatcher.dispatch("RET-B-NOTIFY", Map.of()));
+        assertNull(dispatcher.find("RET-B-TELLER"));
+        // 靜態方法不需要實例
+        assertFalse(requested.contains(null));
+        assertEquals(3, requested.size());
+    }
+
+    @Test
+    void rejectsUnresolvableTableEntries() {
+        ApiMsgIdTable missingMethod = table(new ApiMsgIdEntry("RET-B-QUERY", TellerHandler.class.getName(), "missing",
+                new String[] { "java.lang.String" }, ""));
+        assertThrows(IllegalArgumentException.class, () -> MsgIdDispatcher.builder()
+                .register(missingMethod, type -> new TellerHandler(), MethodHandles.lookup()));
+
+        ApiMsgIdTable query = table(new ApiMsgIdEntry("RET-B-QUERY", TellerHandler.class.getName(), "query",
+                new String[] { "java.lang.String" }, ""));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> MsgIdDispatcher.builder().register(query, type -> null, MethodHandles.lookup()));
+        assertTrue(e.getMessage().contains("找不到處理類的實例"), e.getMessage());
+    }
+
+    @Test
+    void rejectsDuplicateMsgId() {
+        MsgIdDispatcher.Builder builder = MsgIdDispatcher.builder().register(new TellerHandler());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> builder.register(new TellerHandler()));
+        assertTrue(e.getMessage().contains("電文代號重複"), e.getMessage());
+    }
+
+    @Test
+    void rejectsMalformedMsgIdAndHandlerSignature() throws Exception {
+        IllegalArgumentException malformed = assertThrows(IllegalArgumentException.class,
+                () -> MsgIdDispatcher.builder().register(new MalformedHandler()));
+        assertTrue(malformed.getMessage().contains("電文代號格式錯誤"), malformed.getMessage());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MsgIdDispatcher.builder().register(new TwoParameterHandler()));
+
+        Method query = TellerHandler.class.getMethod("query", String.class);
+        assertThrows(IllegalArgumentException.class, () -> MsgIdDispatcher.builder()
+                .register("RET-B-QUERY", new BaseHandler(), query, MethodHandles.lookup()));
+    }
+
+    @Test
+    void unknownMsgIdIsNotFound() {
+        MsgIdDispatcher dispatcher = MsgIdDispatcher.builder().register(new TellerHandler()).build();
+        assertNull(dispatcher.find("RET-B-MISSING"));
+        assertNull(dispatcher.find(null));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> dispatcher.dispatch("RET-B-MISSING", "a"));
+        assertTrue(e.getMessage().contains("RET-B-MISSING"), e.getMessage());
+
+        MsgIdDispatcher empty = MsgIdDispatcher.builder().build();
+        assertEquals(0, empty.size());
+        assertNull(empty.find("RET-B-QUERY"));
+        assertTrue(empty.getMsgIds().isEmpty());
+    }
+
+    @Test
+    void findsEveryMsgIdInLargeTable() throws Exception {
+        Method unannotated = TellerHandler.class.getMethod("unannotated", String.class);
+        TellerHandler teller = new TellerHandler();
+        MsgIdDispatcher.Builder builder = MsgIdDispatcher.builder();
+        List<String> msgIds = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            msgIds.add("RET-B" + (i % 37) + "-F" + i);
+        }
+        // hashCode 相同的電文代號
+        msgIds.addAll(List.of("AaAa-B-C", "BBBB-B-C", "AaBB-B-C", "BBAa-B-C"));
+        for (String msgId : msgIds) {
+            builder.register(msgId, teller, unannotated, MethodHandles.lookup());
+        }
+        MsgIdDispatcher dispatcher = builder.build();
+
+        assertEquals(msgIds.size(), dispatcher.size());
+        assertEquals(msgIds.size(), dispatcher.getMsgIds().size());
+        for (String msgId : msgIds) {
+            assertEquals(msgId, dispatcher.dispatch(msgId, msgId));
+        }
+        assertNull(dispatcher.find("BBBB-B-D"));
+    }
+
+    private static ApiMsgIdTable table(ApiMsgIdEntry... entries) {
+        String[] keys = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i].getMsgId();
+        }
+        MsgIdPerfectHash hash = MsgIdPerfectHash.build(keys);
+        ApiMsgIdEntry[] slots = new ApiMsgIdEntry[hash.getTableSize()];
+        for (int i = 0; i < entries.length; i++) {
+            slots[hash.getSlot(i)] = entries[i];
+        }
+        return new ApiMsgIdTable(hash.getSeeds(), slots);
+    }
+}
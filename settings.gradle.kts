@@ -5,4 +5,16 @@ pluginManagement {
         gradlePluginPortal()
         mavenCentral()
     }
-} 
\ No newline at end of file
+}
+
+// 不依賴 IntelliJ Platform 的共用模組
+include("msgid-core")
+
+// 不需啟動 IDE 的命令列檢查工具（javac Tree API）
+include("msgid-lint")
+
+// 編譯期產生 @ApiMsgId 電文代號表的註解處理器
+include("msgid-processor")
+
+// 依電文代號分派到處理方法的執行期模組
+include("msgid-runtime")
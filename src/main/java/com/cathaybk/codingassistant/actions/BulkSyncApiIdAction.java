@@ -0,0 +1,165 @@
+package com.cathaybk.codingassistant.actions;
+
+import com.cathaybk.codingassistant.sync.BulkApiIdSyncEngine;
+import com.cathaybk.codingassistant.sync.BulkSyncPlan;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同步專案、模組或套件內所有 Service 類的電文代號
+ */
+public class BulkSyncApiIdAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(BulkSyncApiIdAction.class);
+
+    // 結果訊息中最多列出的無法自動決定的類
+    private static final int MAX_LISTED_AMBIGUOUS = 20;
+    // 每個寫入命令最多改寫的檔案數
+    private static final int WRITE_CHUNK_FILES = 20;
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null)
+            return;
+
+        GlobalSearchScope scope = getTargetScope(e, project);
+        String scopeName = scope.getDisplayName();
+
+        new Task.Backgroundable(project, "批次同步電文代號", true) {
+            private BulkSyncPlan plan;
+            private final AtomicInteger count = new AtomicInteger();
+            // 任一批寫入失敗即停止，不再寫入其餘檔案
+            private final AtomicBoolean failed = new AtomicBoolean(false);
+            private final StringBuilder errorMsg = new StringBuilder();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                BulkApiIdSyncEngine engine = new BulkApiIdSyncEngine(project);
+                plan = ReadAction.nonBlocking(() -> engine.plan(scope, indicator))
+                        .inSmartMode(project)
+                        .wrapProgress(indicator)
+                        .executeSynchronously();
+                writeInChunks(project, engine, plan, count, failed, errorMsg, indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                if (plan == null || project.isDisposed())
+                    return;
+
+                if (failed.get()) {
+                    Messages.showErrorDialog(project, "批次同步電文代號時出錯: " + errorMsg + "\n已更新 " + count.get()
+                            + " 個類，可使用復原一次還原。", "批次同步失敗");
+                    return;
+                }
+                LOG.info("批次同步完成 (" + scopeName + ")：更新 " + count.get() + " 個類");
+                Messages.showInfoMessage(project, buildResultMessage(plan, count.get()), "批次同步電文代號");
+            }
+
+            @Override
+            public void onCancel() {
+                if (count.get() > 0 && !project.isDisposed()) {
+                    Messages.showInfoMessage(project, "已取消批次同步，已更新 " + count.get() + " 個類，可使用復原一次還原。",
+                            "批次同步電文代號");
+                }
+            }
+        }.queue();
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    /**
+     * 以檔案為單位分批寫入：每個寫入命令只改寫 {@link #WRITE_CHUNK_FILES} 個檔案，
+     * 命令之間釋放寫鎖並回報進度，整個專案的同步不會長時間凍結 UI。
+     * 所有命令使用同一個 groupId，復原時合併為一次操作；取消或失敗時已寫入的部分同樣可一次復原。
+     */
+    private static void writeInChunks(Project project, BulkApiIdSyncEngine engine, BulkSyncPlan plan,
+            AtomicInteger count, AtomicBoolean failed, StringBuilder errorMsg, ProgressIndicator indicator) {
+        String groupId = "cathaybk.bulkSyncApiId." + System.nanoTime();
+        List<List<BulkSyncPlan.Edit>> chunks = plan.getEditsInChunks(WRITE_CHUNK_FILES);
+        indicator.setIndeterminate(false);
+        indicator.setText("寫入電文代號...");
+        for (int i = 0; i < chunks.size() && !failed.get(); i++) {
+            indicator.checkCanceled();
+            indicator.setFraction((double) i / chunks.size());
+            indicator.setText2("已更新 " + count.get() + " / " + plan.getEdits().size() + " 個類");
+
+            List<BulkSyncPlan.Edit> chunk = chunks.get(i);
+            ApplicationManager.getApplication().invokeAndWait(() -> WriteCommandAction
+                    .writeCommandAction(project)
+                    .withName("批次同步電文代號")
+                    .withGroupId(groupId)
+                    .run(() -> {
+                        try {
+                            count.addAndGet(engine.apply(chunk));
+                        } catch (Exception e) {
+                            LOG.error("批次同步電文代號時出錯", e);
+                            failed.set(true);
+                            errorMsg.append(e.getMessage());
+                        }
+                    }));
+        }
+    }
+
+    /**
+     * 依觸發位置決定範圍：選取的目錄（套件）、模組，否則為整個專案
+     */
+    private GlobalSearchScope getTargetScope(AnActionEvent e, Project project) {
+        VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (file != null && file.isDirectory()) {
+            return GlobalSearchScopesCore.directoryScope(project, file, true);
+        }
+        Module module = e.getData(LangDataKeys.MODULE_CONTEXT);
+        if (module != null) {
+            return module.getModuleScope(false);
+        }
+        return GlobalSearchScope.projectScope(project);
+    }
+
+    private String buildResultMessage(BulkSyncPlan plan, int updated) {
+        StringBuilder message = new StringBuilder();
+        message.append("檢查 ").append(plan.getScannedClasses()).append(" 個 Service 類：\n");
+        message.append("- 已同步: ").append(updated).append("\n");
+        message.append("- 已是最新: ").append(plan.getUpToDateClasses()).append("\n");
+
+        List<String> ambiguous = plan.getAmbiguous();
+        if (!ambiguous.isEmpty()) {
+            message.append("- 關聯多個電文代號，需要手動處理: ").append(ambiguous.size()).append("\n");
+            for (int i = 0; i < Math.min(ambiguous.size(), MAX_LISTED_AMBIGUOUS); i++) {
+                message.append("    ").append(ambiguous.get(i)).append("\n");
+            }
+            if (ambiguous.size() > MAX_LISTED_AMBIGUOUS) {
+                message.append("    ...\n");
+            }
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.cathaybk.codingassistant.actions;
+
+import com.cathaybk.codingassistant.metrics.MsgIdMetrics;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * 顯示檢查器的效能統計，並可匯出為 CSV
+ */
+public class ExportMsgIdMetricsAction extends AnAction {
+    private static final Logger LOG = Logger.getInstance(ExportMsgIdMetricsAction.class);
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        MsgIdMetrics.Snapshot snapshot = MsgIdMetrics.snapshot();
+        String report = snapshot.toReport();
+        LOG.info("電文代號檢查效能統計:\n" + report);
+
+        String title = "電文代號檢查效能統計";
+        if (!MsgIdMetrics.isEnabled()) {
+            report = "統計目前為關閉狀態，請先從 Tools 選單開啟。\n\n" + report;
+        }
+        int choice = Messages.showDialog(project, report, title, new String[] { "匯出 CSV", "關閉" }, 1,
+                Messages.getInformationIcon());
+        if (choice != 0) {
+            return;
+        }
+
+        FileSaverDescriptor descriptor = new FileSaverDescriptor(title, "匯出效能統計", "csv");
+        VirtualFileWrapper target = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project)
+                .save("msgid-metrics.csv");
+        if (target == null) {
+            return;
+        }
+        try {
+            Files.writeString(target.getFile().toPath(), snapshot.toCsv(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            LOG.warn("匯出效能統計失敗", ex);
+            Messages.showErrorDialog(project, "匯出失敗: " + ex.getMessage(), title);
+        }
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+}
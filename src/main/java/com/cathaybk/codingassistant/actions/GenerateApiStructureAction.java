@@ -1,6 +1,8 @@
 package com.cathaybk.codingassistant.actions;
 
 import com.cathaybk.codingassistant.annotation.ApiMsgId;
+import com.cathaybk.codingassistant.metrics.GenerateFileEvent;
+import com.cathaybk.codingassistant.util.ServiceSourceTemplate;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
@@ -161,46 +163,25 @@ public class GenerateApiStructureAction extends AnAction {
         if (serviceDir == null)
             return;
 
-        PsiElementFactory factory = JavaPsiFacade.getElementFactory(project);
-
         // 構建服務接口代碼
-        StringBuilder serviceText = new StringBuilder();
-        serviceText.append("package ").append(packageName).append(";\n\n");
-        serviceText.append("import com.cathaybk.codingassistant.annotation.ApiMsgId;\n\n");
-        serviceText.append("/**\n * ").append(serviceName).append("\n */\n");
-        serviceText.append("@ApiMsgId(\"").append(msgId).append("\")\n");
-        serviceText.append("public interface ").append(serviceName).append(" {\n\n");
-
-        // 添加從API方法派生的服務方法
-        String methodName = apiMethod.getName();
-        String returnType = apiMethod.getReturnType() != null ? apiMethod.getReturnType().getPresentableText() : "void";
-
-        serviceText.append("    /**\n     * ").append(methodName).append("\n     */\n");
-        serviceText.append("    ").append(returnType).append(" ").append(methodName).append("(");
-
-        // 添加參數
-        PsiParameter[] parameters = apiMethod.getParameterList().getParameters();
-        for (int i = 0; i < parameters.length; i++) {
-            PsiParameter param = parameters[i];
-            if (i > 0)
-                serviceText.append(", ");
-            serviceText.append(param.getType().getPresentableText()).append(" ").append(param.getName());
-        }
-
-        serviceText.append(");\n}\n");
+        String serviceText = createSourceTemplate(apiMethod).serviceInterface(packageName, serviceName, msgId);
 
         // 創建服務接口文件
+        GenerateFileEvent event = GenerateFileEvent.start("Service", serviceName);
+        boolean[] created = { false };
         WriteCommandAction.runWriteCommandAction(project, () -> {
             try {
                 PsiFile serviceFile = PsiFileFactory.getInstance(project)
                         .createFileFromText(serviceName + ".java",
                                 com.intellij.openapi.fileTypes.StdFileTypes.JAVA,
-                                serviceText.toString());
+                                serviceText);
                 serviceDir.add(serviceFile);
+                created[0] = true;
             } catch (Exception ex) {
                 Messages.showErrorDialog("創建Service接口失敗: " + ex.getMessage(), "錯誤");
             }
         });
+        event.finish(controllerClass.getName(), serviceText.length(), created[0]);
     }
 
     /**
@@ -217,76 +198,41 @@ public class GenerateApiStructureAction extends AnAction {
         if (implDir == null)
             return;
 
-        PsiElementFactory factory = JavaPsiFacade.getElementFactory(project);
-
         // 構建實現類代碼
-        StringBuilder implText = new StringBuilder();
-        implText.append("package ").append(implPackage).append(";\n\n");
-        implText.append("import ").append(servicePackage).append(".").append(serviceName).append(";\n");
-        implText.append("import org.springframework.stereotype.Service;\n");
-        implText.append("import com.cathaybk.codingassistant.annotation.ApiMsgId;\n\n");
-
-        implText.append("/**\n * ").append(serviceImplName).append("\n */\n");
-        implText.append("@Service\n");
-        implText.append("@ApiMsgId(\"").append(msgId).append("\")\n");
-        implText.append("public class ").append(serviceImplName).append(" implements ").append(serviceName)
-                .append(" {\n\n");
-
-        // 添加方法實現
-        String methodName = apiMethod.getName();
-        String returnType = apiMethod.getReturnType() != null ? apiMethod.getReturnType().getPresentableText() : "void";
-
-        implText.append("    @Override\n");
-        implText.append("    public ").append(returnType).append(" ").append(methodName).append("(");
-
-        // 添加參數
-        PsiParameter[] parameters = apiMethod.getParameterList().getParameters();
-        for (int i = 0; i < parameters.length; i++) {
-            PsiParameter param = parameters[i];
-            if (i > 0)
-                implText.append(", ");
-            implText.append(param.getType().getPresentableText()).append(" ").append(param.getName());
-        }
-
-        implText.append(") {\n");
-
-        // 添加默認實現
-        if (!"void".equals(returnType)) {
-            implText.append("        // TODO: 實現").append(methodName).append("方法\n");
-            if ("String".equals(returnType)) {
-                implText.append("        return \"\";\n");
-            } else if ("int".equals(returnType) || "Integer".equals(returnType)) {
-                implText.append("        return 0;\n");
-            } else if ("long".equals(returnType) || "Long".equals(returnType)) {
-                implText.append("        return 0L;\n");
-            } else if ("boolean".equals(returnType) || "Boolean".equals(returnType)) {
-                implText.append("        return false;\n");
-            } else if ("double".equals(returnType) || "Double".equals(returnType)) {
-                implText.append("        return 0.0;\n");
-            } else if ("float".equals(returnType) || "Float".equals(returnType)) {
-                implText.append("        return 0.0f;\n");
-            } else {
-                implText.append("        return null;\n");
-            }
-        } else {
-            implText.append("        // TODO: 實現").append(methodName).append("方法\n");
-        }
-
-        implText.append("    }\n");
-        implText.append("}\n");
+        String implText = createSourceTemplate(apiMethod).serviceImpl(implPackage, servicePackage, serviceName,
+                serviceImplName, msgId);
 
         // 創建實現類文件
+        GenerateFileEvent event = GenerateFileEvent.start("ServiceImpl", serviceImplName);
+        boolean[] created = { false };
         WriteCommandAction.runWriteCommandAction(project, () -> {
             try {
                 PsiFile implFile = PsiFileFactory.getInstance(project)
                         .createFileFromText(serviceImplName + ".java",
                                 com.intellij.openapi.fileTypes.StdFileTypes.JAVA,
-                                implText.toString());
+                                implText);
                 implDir.add(implFile);
+                created[0] = true;
             } catch (Exception ex) {
                 Messages.showErrorDialog("創建ServiceImpl類失敗: " + ex.getMessage(), "錯誤");
             }
         });
+        event.finish(controllerClass.getName(), implText.length(), created[0]);
+    }
+
+    /**
+     * 取出 API 方法的簽名供生成 Service 原始碼
+     */
+    private ServiceSourceTemplate createSourceTemplate(PsiMethod apiMethod) {
+        String returnType = apiMethod.getReturnType() != null ? apiMethod.getReturnType().getPresentableText() : "void";
+        PsiParameter[] parameters = apiMethod.getParameterList().getParameters();
+        String[] parameterTypes = new String[parameters.length];
+        String[] parameterNames = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterTypes[i] = parameters[i].getType().getPresentableText();
+            parameterNames[i] = parameters[i].getName();
+        }
+        return new ServiceSourceTemplate(apiMethod.getName(), returnType, parameterTypes, parameterNames);
     }
 
     /**
@@ -1,29 +1,48 @@
 package com.cathaybk.codingassistant.actions;
 
+import com.cathaybk.codingassistant.index.ApiMsgIdIndex;
+import com.cathaybk.codingassistant.metrics.SyncPhaseEvent;
+import com.cathaybk.codingassistant.sync.ApiIdChangeSet;
+import com.cathaybk.codingassistant.sync.ServiceRelationGraph;
+import com.cathaybk.codingassistant.util.InheritorCache;
+import com.cathaybk.codingassistant.util.JavadocBatchRewriter;
+import com.cathaybk.codingassistant.util.MappingAnnotations;
+import com.cathaybk.codingassistant.util.SpringStereotypeRegistry;
 import com.intellij.codeInsight.intention.IntentionAction;
 import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
 import com.intellij.openapi.actionSystem.ActionUpdateThread;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.*;
-import com.intellij.psi.javadoc.PsiDocComment;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiSearchHelper;
+import com.intellij.psi.search.SearchRequestCollector;
+import com.intellij.psi.search.SearchSession;
 import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.psi.util.PsiUtil;
 import com.intellij.util.IncorrectOperationException;
+import com.intellij.util.Processor;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.SwingUtilities;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -31,9 +50,9 @@ import java.util.stream.Collectors;
  */
 public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
     private static final Logger LOG = Logger.getInstance(SyncApiIdAction.class);
-
-    // 定義電文代號的正則表達式模式
-    private static final Pattern API_ID_PATTERN = Pattern.compile("([A-Za-z0-9]+-[A-Za-z0-9]+-[A-Za-z0-9]+.*)");
+    // 超過此檔案數時分批寫入，每個寫入命令最多改寫的檔案數
+    private static final int WRITE_CHUNK_FILES = 20;
+    private static final Key<CachedValue<Boolean>> HAS_API_ID_KEY = Key.create("cathaybk.syncApiId.available");
 
     @NotNull
     @Override
@@ -59,26 +78,16 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
             return false;
         }
 
-        // 使用原子變量來存儲結果
-        final boolean[] result = { false };
-
-        // 使用runReadAction確保讀取PSI在正確的線程上
-        ApplicationManager.getApplication().runReadAction(() -> {
-            int offset = editor.getCaretModel().getOffset();
-            PsiElement element = file.findElementAt(offset);
-            PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
-
-            if (method != null) {
-                result[0] = hasApiIdJavadoc(method);
-                return;
-            }
-
-            // 如果不是方法上，檢查是否在類上
-            PsiClass psiClass = PsiTreeUtil.getParentOfType(element, PsiClass.class);
-            result[0] = psiClass != null && hasApiIdJavadoc(psiClass);
-        });
+        // 意圖在讀操作中計算可用性，每次移動游標都會呼叫，只查快取的結果
+        PsiElement element = file.findElementAt(editor.getCaretModel().getOffset());
+        PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
+        if (method != null) {
+            return hasCachedApiIdJavadoc(method);
+        }
 
-        return result[0];
+        // 如果不是方法上，檢查是否在類上
+        PsiClass psiClass = PsiTreeUtil.getParentOfType(element, PsiClass.class);
+        return psiClass != null && hasCachedApiIdJavadoc(psiClass);
     }
 
     @Override
@@ -86,32 +95,27 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
         int offset = editor.getCaretModel().getOffset();
         PsiElement element = file.findElementAt(offset);
 
-        // 使用讀操作來識別要處理的元素
-        ApplicationManager.getApplication().runReadAction(() -> {
-            PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
-            if (method != null) {
-                syncApiId(project, method);
-            } else {
-                // 檢查是否在類上
-                PsiClass psiClass = PsiTreeUtil.getParentOfType(element, PsiClass.class);
-                if (psiClass != null && hasApiIdJavadoc(psiClass)) {
-                    syncApiIdForClass(project, psiClass);
-                }
+        // 在 EDT 上只識別要處理的元素，查找相關類交給背景任務
+        PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
+        if (method != null) {
+            syncApiId(project, method);
+        } else {
+            // 檢查是否在類上
+            PsiClass psiClass = PsiTreeUtil.getParentOfType(element, PsiClass.class);
+            if (psiClass != null && hasApiIdJavadoc(psiClass)) {
+                syncApiIdForClass(project, psiClass);
             }
-        });
+        }
     }
 
     @Override
     public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
         PsiElement element = descriptor.getPsiElement();
 
-        // 使用讀操作來識別要處理的元素
-        ApplicationManager.getApplication().runReadAction(() -> {
-            PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
-            if (method != null) {
-                syncApiId(project, method);
-            }
-        });
+        PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
+        if (method != null) {
+            syncApiId(project, method);
+        }
     }
 
     // 根據 IDE 版本，ActionUpdateThread 可能不存在於舊版 IntentionAction 介面中
@@ -130,99 +134,10 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
      * (處理 Controller -> Service/Impl 類，Service/Impl -> Controller 方法)
      */
     private void syncApiId(Project project, PsiMethod sourceMethod) {
-        String apiId = extractApiIdFromElement(sourceMethod);
-        if (apiId == null) {
-            /* ... error handling ... */ return;
-        }
-        final String finalApiId = apiId;
-
-        // 使用runReadAction包裝所有讀取操作
-        ApplicationManager.getApplication().runReadAction(() -> {
-            PsiClass sourceClass = sourceMethod.getContainingClass();
-            if (sourceClass == null) {
-                /* ... error handling ... */ return;
-            }
-
-            Map<PsiClass, List<PsiMethod>> targetMethodMap = new HashMap<>();
-            Set<PsiClass> targetClassSet = new HashSet<>();
-            boolean updateTargetMethods;
-            String noTargetsMessage = "";
-
-            // --- 判斷來源並查找目標 ---
-            if (isControllerMethod(sourceMethod)) {
-                updateTargetMethods = false;
-                LOG.info("來源: Controller 方法 " + sourceClass.getName() + "." + sourceMethod.getName()
-                        + " --> 目標: Service/Impl 類");
-                findRelatedServiceClassesOnly(project, sourceMethod, targetClassSet);
-                if (targetClassSet.isEmpty())
-                    noTargetsMessage = "在方法 " + sourceMethod.getName() + " 中未找到使用的 Service 類。";
-            } else if (sourceClass.getName() != null && sourceClass.getName().contains("Service")) {
-                updateTargetMethods = true;
-                LOG.info("來源: Service/Impl 方法 " + sourceClass.getName() + "." + sourceMethod.getName()
-                        + " --> 目標: Controller 方法");
-                findRelatedControllerMethods(project, sourceMethod, targetMethodMap);
-                if (targetMethodMap.isEmpty())
-                    noTargetsMessage = "未找到調用 Service 方法 " + sourceMethod.getName() + " 的 Controller 方法。";
-            } else {
-                LOG.warn("無法識別的來源方法類型: " + sourceClass.getName() + "." + sourceMethod.getName());
-                showInfoMessage("無法識別的來源方法類型。", "同步失敗"); // 這個可以直接顯示，因為是終端情況
-                return;
-            }
-
-            // 如果找不到目標，提前顯示訊息並返回
-            if (!noTargetsMessage.isEmpty()) {
-                // 使用 invokeLater 顯示，避免 side effect
-                final String finalMsg = noTargetsMessage;
-                ApplicationManager.getApplication().invokeLater(() -> showInfoMessage(finalMsg, "同步提醒"));
-                return;
-            }
-
-            // 使用invokeLater確保在UI線程執行寫入操作
-            ApplicationManager.getApplication().invokeLater(() -> {
-                // --- 執行 PSI 修改 ---
-                final StringBuilder resultMsg = new StringBuilder();
-                final AtomicInteger count = new AtomicInteger(0); // 使用 AtomicInteger
-
-                // WriteCommandAction 處理 PSI 修改和線程
-                WriteCommandAction.runWriteCommandAction(project, "更新API電文代號", null, () -> {
-                    try {
-                        if (updateTargetMethods) {
-                            LOG.info("執行更新目標【方法】的註解...");
-                            count.set(updateApiIdToTargets(project, targetMethodMap, finalApiId, resultMsg));
-                        } else {
-                            LOG.info("執行更新目標【類】的註解...");
-                            List<PsiClass> targetClassList = new ArrayList<>(targetClassSet);
-                            targetClassList.remove(sourceClass);
-                            if (!targetClassList.isEmpty()) {
-                                count.set(updateApiIdToClasses(project, targetClassList, finalApiId, resultMsg));
-                            } else {
-                                LOG.info("目標類列表為空或只包含來源類，無需更新。");
-                            }
-                        }
-                    } catch (Exception e) {
-                        LOG.error("更新電文代號時出錯", e);
-                        resultMsg.append("\n錯誤: ").append(e.getMessage()); // 記錄錯誤信息
-                    }
-                }); // End WriteCommandAction
-
-                // --- 在操作完成後，顯示最終結果 ---
-                String messageToShow;
-                String titleToShow;
-                if (resultMsg.toString().contains("錯誤:")) {
-                    messageToShow = "更新電文代號時出錯: " + resultMsg.toString();
-                    titleToShow = "同步失敗";
-                    showErrorMessage(messageToShow, titleToShow);
-                } else if (count.get() > 0) {
-                    messageToShow = "已成功將電文代號 '" + finalApiId + "' 同步到 " + count.get() + " 個相關目標:\n" + resultMsg;
-                    titleToShow = "同步成功";
-                    showInfoMessage(messageToShow, titleToShow);
-                } else {
-                    messageToShow = "沒有目標需要更新電文代號 (可能已存在相同註解或未找到目標)。";
-                    titleToShow = "同步結果";
-                    showInfoMessage(messageToShow, titleToShow);
-                }
-            });
-        });
+        PsiClass sourceClass = sourceMethod.getContainingClass();
+        String source = (sourceClass != null ? sourceClass.getName() + "." : "") + sourceMethod.getName();
+        SmartPsiElementPointer<PsiMethod> pointer = SmartPointerManager.createPointer(sourceMethod);
+        runInBackground(project, source, pointer, () -> findTargetsForMethod(project, pointer.getElement()));
     }
 
     /**
@@ -230,387 +145,402 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
      * (處理 Service/Impl 類 -> Service/Impl 類 & Controller 方法)
      */
     private void syncApiIdForClass(Project project, PsiClass sourceClass) {
-        String apiId = extractApiIdFromElement(sourceClass);
-        if (apiId == null) {
-            /* ... error handling ... */ return;
-        }
-        final String finalApiId = apiId;
-        LOG.info("從類 " + sourceClass.getName() + " 提取到電文代號: " + apiId);
+        SmartPsiElementPointer<PsiClass> pointer = SmartPointerManager.createPointer(sourceClass);
+        runInBackground(project, sourceClass.getName(), pointer, () -> findTargetsForClass(project, pointer.getElement()));
+    }
 
-        // 在寫入操作外執行讀取操作，先收集所有必要的資料
-        ApplicationManager.getApplication().runReadAction(() -> {
-            // --- 查找並分類目標 ---
-            List<PsiClass> relatedClasses = findRelatedClasses(project, sourceClass);
-            final List<PsiClass> allRelatedClasses = getAllRelatedClassesWithImpls(project, relatedClasses);
-
-            List<PsiClass> controllerClasses = new ArrayList<>();
-            List<PsiClass> otherTargetClasses = new ArrayList<>();
-            boolean hasTargets = false;
-            for (PsiClass relatedClass : allRelatedClasses) {
-                if (relatedClass.equals(sourceClass))
-                    continue; // Skip source
-                hasTargets = true; // 只要有不是 source 的相關類，就認為有目標
-                if (isControllerClass(relatedClass)) {
-                    if (!controllerClasses.contains(relatedClass))
-                        controllerClasses.add(relatedClass);
-                } else {
-                    if (!otherTargetClasses.contains(relatedClass))
-                        otherTargetClasses.add(relatedClass);
+    /**
+     * 在背景執行查找階段，完成後回到 EDT 寫入
+     * <p>
+     * 查找在可取消的非阻塞讀操作中執行：遇到寫操作時會自動中止並重新執行，
+     * 因此查找階段不可有副作用，所有訊息都先記錄在 {@link SyncPlan} 中。
+     * 查找與寫入之間只傳遞智慧指標與 {@link ApiIdChangeSet}，不持有 PSI 元素。
+     *
+     * @param source        來源類或方法的名稱，記錄在 JFR 事件中
+     * @param sourcePointer 來源元素的指標，任務結束後釋放
+     */
+    private void runInBackground(Project project, String source, SmartPsiElementPointer<?> sourcePointer,
+            Callable<SyncPlan> discovery) {
+        new Task.Backgroundable(project, "查找電文代號同步目標", true) {
+            private SyncPlan plan;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                SyncPhaseEvent event = SyncPhaseEvent.start(SyncPhaseEvent.DISCOVERY, source);
+                try {
+                    plan = ReadAction.nonBlocking(discovery)
+                            .inSmartMode(project)
+                            .wrapProgress(indicator)
+                            .executeSynchronously();
+                } finally {
+                    boolean hasChanges = plan != null && plan.changes != null;
+                    event.finish(plan != null ? plan.apiId : null,
+                            hasChanges ? plan.changes.getClassCount() : 0,
+                            hasChanges ? plan.changes.getMethodCount() : 0, 0);
                 }
             }
 
-            if (!hasTargets) {
-                final String msg = "找不到與 " + sourceClass.getName() + " 相關的其他類";
-                ApplicationManager.getApplication().invokeLater(() -> showInfoMessage(msg, "同步提醒"));
-                return;
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                LOG.warn("查找電文代號同步目標時出錯: " + source, error);
+                showErrorMessage("查找電文代號同步目標時出錯: " + error.getMessage(), "同步失敗");
             }
 
-            // 使用invokeLater確保在UI線程執行寫入操作
-            ApplicationManager.getApplication().invokeLater(() -> {
-                // --- 執行 PSI 修改 ---
-                final StringBuilder resultMsg = new StringBuilder();
-                final AtomicInteger totalCount = new AtomicInteger(0);
-
-                WriteCommandAction.runWriteCommandAction(project, "更新API電文代號", null, () -> {
-                    try {
-                        int currentCount = 0;
-                        // 更新非 Controller 類
-                        if (!otherTargetClasses.isEmpty()) {
-                            LOG.info("執行更新 " + otherTargetClasses.size() + " 個 Service/Impl 【類】的註解...");
-                            currentCount += updateApiIdToClasses(project, otherTargetClasses, finalApiId, resultMsg);
-                        }
-                        // 更新 Controller 方法
-                        if (!controllerClasses.isEmpty()) {
-                            LOG.info("執行更新 " + controllerClasses.size() + " 個 Controller 【方法】的註解...");
-                            currentCount += updateApiIdToControllerMethods(project, controllerClasses, sourceClass,
-                                    finalApiId, resultMsg);
-                        }
-                        totalCount.set(currentCount);
-                    } catch (Exception e) {
-                        LOG.error("更新電文代號時出錯", e);
-                        resultMsg.append("\n錯誤: ").append(e.getMessage());
-                    }
-                }); // End WriteCommandAction
-
-                // --- 在操作完成後，顯示最終結果 ---
-                String messageToShow;
-                String titleToShow;
-                if (resultMsg.toString().contains("錯誤:")) {
-                    messageToShow = "更新電文代號時出錯: " + resultMsg.toString();
-                    titleToShow = "同步失敗";
-                    showErrorMessage(messageToShow, titleToShow);
-                } else if (totalCount.get() > 0) {
-                    messageToShow = "已成功將電文代號 '" + finalApiId + "' 同步到 " + totalCount.get() + " 個相關目標:\n" + resultMsg;
-                    titleToShow = "同步成功";
-                    showInfoMessage(messageToShow, titleToShow);
-                } else {
-                    messageToShow = "沒有找到需要更新電文代號的類或方法。";
-                    titleToShow = "同步結果";
-                    showInfoMessage(messageToShow, titleToShow);
+            @Override
+            public void onSuccess() {
+                if (plan != null && !project.isDisposed()) {
+                    applySyncPlan(project, source, plan);
                 }
-            });
-        });
+            }
+
+            @Override
+            public void onFinished() {
+                SmartPointerManager.getInstance(project).removePointer(sourcePointer);
+            }
+        }.queue();
     }
 
     /**
-     * 更新電文代號到目標 Controller 類中的相關方法。
-     *
-     * @param project            當前專案
-     * @param controllerClasses  目標 Controller 類列表
-     * @param sourceServiceClass 觸發同步的來源 Service 接口或實現類
-     * @param apiId              要同步的電文代號
-     * @param resultMsg          用於記錄結果訊息的 StringBuilder
-     * @return 更新的方法數量
+     * 查找方法的同步目標（在讀操作中執行）
      */
-    private int updateApiIdToControllerMethods(Project project, List<PsiClass> controllerClasses,
-            PsiClass sourceServiceClass, String apiId, StringBuilder resultMsg) {
-        LOG.info("正在為 " + controllerClasses.size() + " 個 Controller 查找使用了 " + sourceServiceClass.getName() + " 的方法...");
-        Map<PsiClass, List<PsiMethod>> targetMethodMap = new HashMap<>();
-        int relatedMethodCount = 0;
+    private SyncPlan findTargetsForMethod(Project project, PsiMethod sourceMethod) {
+        if (sourceMethod == null || !sourceMethod.isValid()) {
+            LOG.info("同步來源方法已不存在");
+            return SyncPlan.message("來源方法已被刪除或修改，請重新執行同步。", "同步提醒");
+        }
+        String apiId = extractApiIdFromElement(sourceMethod);
+        if (apiId == null) {
+            LOG.info("方法 " + sourceMethod.getName() + " 的 Javadoc 中沒有電文代號");
+            return SyncPlan.message("方法 " + sourceMethod.getName() + " 的 Javadoc 中沒有電文代號，無法同步。", "同步提醒");
+        }
 
-        // 遍歷所有目標 Controller 類
-        for (PsiClass controllerClass : controllerClasses) {
-            LOG.debug("檢查 Controller: " + controllerClass.getName());
-            List<PsiMethod> relatedMethodsInThisController = new ArrayList<>();
-            // 遍歷 Controller 的所有方法
-            for (PsiMethod controllerMethod : controllerClass.getMethods()) {
-                // 只處理非構造函數的公開方法 (可選，根據需要調整)
-                if (!controllerMethod.isConstructor()
-                        && controllerMethod.getModifierList().hasModifierProperty(PsiModifier.PUBLIC)) {
-                    LOG.trace("  檢查方法: " + controllerMethod.getName());
-                    // 判斷此 Controller 方法是否與來源 Service 相關
-                    if (isControllerMethodRelatedToService(controllerMethod, sourceServiceClass)) {
-                        LOG.debug("  找到相關方法: " + controllerClass.getName() + "." + controllerMethod.getName());
-                        relatedMethodsInThisController.add(controllerMethod);
-                        relatedMethodCount++;
-                    }
-                }
-            }
-            // 如果在這個 Controller 中找到了相關方法，則添加到 Map 中
-            if (!relatedMethodsInThisController.isEmpty()) {
-                targetMethodMap.put(controllerClass, relatedMethodsInThisController);
-            } else {
-                LOG.info("在 Controller " + controllerClass.getName() + " 中未找到使用 " + sourceServiceClass.getName()
-                        + " 的相關方法。");
-            }
+        PsiClass sourceClass = sourceMethod.getContainingClass();
+        if (sourceClass == null) {
+            LOG.warn("找不到方法 " + sourceMethod.getName() + " 所在的類");
+            return SyncPlan.message("找不到方法 " + sourceMethod.getName() + " 所在的類，無法同步。", "同步失敗");
         }
 
-        // 如果找到了相關的 Controller 方法，則更新它們的註解
-        if (!targetMethodMap.isEmpty()) {
-            LOG.info("共找到 " + relatedMethodCount + " 個相關的 Controller 方法，準備更新註解...");
-            // 複用 updateApiIdToTargets 的邏輯來更新方法註解
-            // 注意：updateApiIdToTargets 返回的是成功更新的數量，可能因已存在相同註解而小於 relatedMethodCount
-            return updateApiIdToTargets(project, targetMethodMap, apiId, resultMsg);
+        SyncPlan plan = new SyncPlan(project, apiId, "沒有目標需要更新電文代號 (可能已存在相同註解或未找到目標)。");
+
+        // --- 判斷來源並查找目標 ---
+        if (isControllerMethod(sourceMethod)) {
+            LOG.info("來源: Controller 方法 " + sourceClass.getName() + "." + sourceMethod.getName()
+                    + " --> 目標: Service/Impl 類");
+            Set<PsiClass> targetClassSet = new HashSet<>();
+            findRelatedServiceClassesOnly(project, sourceMethod, targetClassSet);
+            if (targetClassSet.isEmpty()) {
+                return plan.withMessage("在方法 " + sourceMethod.getName() + " 中未找到使用的 Service 類。", "同步提醒");
+            }
+            targetClassSet.remove(sourceClass);
+            addClassTargets(plan.changes, targetClassSet);
+        } else if (isServiceClass(sourceClass)) {
+            LOG.info("來源: Service/Impl 方法 " + sourceClass.getName() + "." + sourceMethod.getName()
+                    + " --> 目標: Controller 方法");
+            Map<PsiClass, List<PsiMethod>> targetMethods = new LinkedHashMap<>();
+            findCallingControllerMethods(project, Collections.singletonList(sourceMethod), targetMethods);
+            if (targetMethods.isEmpty()) {
+                return plan.withMessage("未找到調用 Service 方法 " + sourceMethod.getName() + " 的 Controller 方法。", "同步提醒");
+            }
+            addMethodTargets(plan.changes, targetMethods);
         } else {
-            String controllerNames = controllerClasses.stream().map(PsiClass::getName)
-                    .collect(Collectors.joining(", "));
-            LOG.info("在所有檢查的 Controller (" + controllerNames + ") 中均未找到使用 " + sourceServiceClass.getName() + " 的相關方法。");
-            resultMsg.append("- 在 Controller 類 [").append(controllerNames).append("] 中未找到與 ")
-                    .append(sourceServiceClass.getName()).append(" 相關聯的方法。\n");
-            return 0; // 沒有方法被更新
+            LOG.warn("無法識別的來源方法類型: " + sourceClass.getName() + "." + sourceMethod.getName());
+            return plan.withMessage("無法識別的來源方法類型。", "同步失敗");
         }
+        return plan;
     }
 
     /**
-     * 判斷一個 Controller 方法是否與指定的 Service 類 (接口或實現) 相關。
-     * 檢查方法體內是否有對 Service 實例的方法調用。
-     *
-     * @param controllerMethod   要檢查的 Controller 方法
-     * @param sourceServiceClass 來源 Service 接口或實現類
-     * @return 如果相關則返回 true，否則 false
+     * 查找類的同步目標（在讀操作中執行）
      */
-    private boolean isControllerMethodRelatedToService(PsiMethod controllerMethod, PsiClass sourceServiceClass) {
-        PsiCodeBlock body = controllerMethod.getBody();
-        if (body == null) {
-            return false; // 沒有方法體，無法判斷
+    private SyncPlan findTargetsForClass(Project project, PsiClass sourceClass) {
+        if (sourceClass == null || !sourceClass.isValid()) {
+            LOG.info("同步來源類已不存在");
+            return SyncPlan.message("來源類已被刪除或修改，請重新執行同步。", "同步提醒");
         }
-        PsiClass controllerClass = controllerMethod.getContainingClass();
-        if (controllerClass == null) {
-            return false;
+        String apiId = extractApiIdFromElement(sourceClass);
+        if (apiId == null) {
+            LOG.info("類 " + sourceClass.getName() + " 的 Javadoc 中沒有電文代號");
+            return SyncPlan.message("類 " + sourceClass.getName() + " 的 Javadoc 中沒有電文代號，無法同步。", "同步提醒");
         }
+        LOG.info("從類 " + sourceClass.getName() + " 提取到電文代號: " + apiId);
 
-        // 建立一個包含來源 Service 類及其實現/接口的集合，方便後續比較
-        final Set<PsiClass> relevantServiceClasses = new HashSet<>();
-        relevantServiceClasses.add(sourceServiceClass);
-        // 如果來源是實現類，添加它實現的接口
-        if (!sourceServiceClass.isInterface()) {
-            for (PsiClassType interfaceType : sourceServiceClass.getImplementsListTypes()) {
-                PsiClass interfaceClass = interfaceType.resolve();
-                if (interfaceClass != null) {
-                    relevantServiceClasses.add(interfaceClass);
-                }
+        SyncPlan plan = new SyncPlan(project, apiId, "沒有找到需要更新電文代號的類或方法。");
+
+        // --- 查找並分類目標 ---
+        final List<PsiClass> allRelatedClasses = ServiceRelationGraph.getInstance(project).findRelatedClasses(sourceClass);
+
+        List<PsiClass> controllerClasses = new ArrayList<>();
+        Set<PsiClass> targetClasses = new LinkedHashSet<>();
+        boolean hasTargets = false;
+        for (PsiClass relatedClass : allRelatedClasses) {
+            if (relatedClass.equals(sourceClass))
+                continue; // Skip source
+            hasTargets = true; // 只要有不是 source 的相關類，就認為有目標
+            if (isControllerClass(relatedClass)) {
+                if (!controllerClasses.contains(relatedClass))
+                    controllerClasses.add(relatedClass);
+            } else {
+                targetClasses.add(relatedClass);
             }
         }
-        // 如果來源是接口，找到它的實現類 (可選，看是否需要反向關聯)
-        // Collection<PsiClass> impls =
-        // findImplementingClasses(controllerMethod.getProject(), sourceServiceClass);
-        // relevantServiceClasses.addAll(impls);
-
-        // LOG.trace(" 相關 Service 判斷集合 ("+controllerMethod.getName()+"): " +
-        // relevantServiceClasses.stream().map(PsiClass::getName).collect(Collectors.joining(",
-        // ")));
-
-        // 查找 Controller 中注入的相關 Service 字段
-        final List<PsiField> relevantServiceFields = new ArrayList<>();
-        for (PsiField field : controllerClass.getFields()) {
-            PsiType fieldType = field.getType();
-            PsiClass fieldClass = PsiUtil.resolveClassInType(fieldType);
-            if (fieldClass != null && relevantServiceClasses.contains(fieldClass)) {
-                relevantServiceFields.add(field);
-                LOG.trace("    找到相關 Service 字段: " + field.getName() + " (" + fieldClass.getName() + ")");
-            }
+
+        if (!hasTargets) {
+            return plan.withMessage("找不到與 " + sourceClass.getName() + " 相關的其他類", "同步提醒");
         }
 
-        // 使用 Visitor 遍歷方法體，查找方法調用
-        final boolean[] isRelated = { false }; // 用數組讓內部類可以修改
-        body.accept(new JavaRecursiveElementWalkingVisitor() {
+        addClassTargets(plan.changes, targetClasses);
 
-            @Override
-            public void visitMethodCallExpression(PsiMethodCallExpression expression) {
-                super.visitMethodCallExpression(expression); // 繼續遍歷子節點
+        // Controller 只更新使用了來源 Service 的方法，也在查找階段決定
+        if (!controllerClasses.isEmpty()) {
+            Map<PsiClass, List<PsiMethod>> targetMethods = new LinkedHashMap<>();
+            findRelatedMethodsInControllers(project, controllerClasses, sourceClass, targetMethods, plan.notes);
+            addMethodTargets(plan.changes, targetMethods);
+        }
+        return plan;
+    }
 
-                // 如果已經找到關聯，就不再繼續檢查
-                if (isRelated[0]) {
-                    return;
-                }
+    /**
+     * 在 EDT 上以單一寫入命令套用查找結果，並顯示結果；目標檔案太多時改為分批寫入
+     */
+    private void applySyncPlan(Project project, String source, SyncPlan plan) {
+        if (plan.message != null) {
+            showInfoMessage(plan.message, plan.messageTitle);
+            return;
+        }
+        if (plan.changes.getFileCount() > WRITE_CHUNK_FILES) {
+            applySyncPlanInChunks(project, source, plan);
+            return;
+        }
 
-                // 嘗試解析被調用的方法
-                PsiMethod calledMethod = expression.resolveMethod();
-                if (calledMethod != null) {
-                    PsiClass containingClass = calledMethod.getContainingClass();
-                    // LOG.trace(" 訪問方法調用: " + (containingClass != null ? containingClass.getName()
-                    // : "null") + "." + calledMethod.getName());
-
-                    // 檢查被調用方法所屬的類是否是我們關心的 Service 類 (或其接口/實現)
-                    if (containingClass != null && relevantServiceClasses.contains(containingClass)) {
-                        LOG.trace("      直接調用了相關 Service 方法: " + containingClass.getName() + "."
-                                + calledMethod.getName());
-                        isRelated[0] = true;
-                        return; // 找到關聯，停止當前分支的遍歷
-                    }
-                }
+        final String finalApiId = plan.apiId;
+        final StringBuilder resultMsg = new StringBuilder(plan.notes);
+        final AtomicInteger count = new AtomicInteger(0);
+        final AtomicBoolean failed = new AtomicBoolean(false);
 
-                // 檢查調用是否通過注入的 Service 字段發起
-                PsiReferenceExpression methodExpression = expression.getMethodExpression();
-                PsiExpression qualifier = methodExpression.getQualifierExpression(); // 獲取調用者表達式，例如
-                                                                                     // serviceField.callMethod() 中的
-                                                                                     // serviceField
-
-                if (qualifier instanceof PsiReferenceExpression) {
-                    PsiElement resolvedQualifier = ((PsiReferenceExpression) qualifier).resolve();
-                    // LOG.trace(" 調用者解析結果: " + (resolvedQualifier != null ?
-                    // resolvedQualifier.toString() : "null"));
-                    // 檢查調用者是否是我們之前找到的相關 Service 字段之一
-                    if (resolvedQualifier instanceof PsiField && relevantServiceFields.contains(resolvedQualifier)) {
-                        LOG.trace("      通過相關 Service 字段 " + ((PsiField) resolvedQualifier).getName() + " 調用了方法");
-                        isRelated[0] = true;
-                        // return; // 找到關聯
-                    }
-                }
+        // WriteCommandAction 處理 PSI 修改和線程
+        SyncPhaseEvent event = SyncPhaseEvent.start(SyncPhaseEvent.WRITE, source);
+        WriteCommandAction.runWriteCommandAction(project, "更新API電文代號", null, () -> {
+            try {
+                // 背景查找期間檔案可能已被修改，指標會追蹤目標位置，已刪除的目標略過
+                LOG.info("執行更新 " + plan.changes.getClassCount() + " 個類與 " + plan.changes.getMethodCount()
+                        + " 個方法的註解...");
+                JavadocBatchRewriter rewriter = new JavadocBatchRewriter(project);
+                int currentCount = plan.changes.applyTo(rewriter, resultMsg);
+                rewriter.apply();
+                count.set(currentCount);
+            } catch (Exception e) {
+                LOG.error("更新電文代號時出錯", e);
+                failed.set(true);
+                resultMsg.append("\n錯誤: ").append(e.getMessage()); // 記錄錯誤信息
             }
+        }); // End WriteCommandAction
+        event.finish(finalApiId, plan.changes.getClassCount(), plan.changes.getMethodCount(), count.get());
 
-            // 可以選擇性地覆蓋其他 visit 方法，例如 visitReferenceExpression 來查找對 Service 字段的直接引用，
-            // 但僅檢查方法調用通常足夠判斷 "使用" 關係。
-        });
-
-        // LOG.trace(" 方法 " + controllerMethod.getName() + " 關聯性判斷結果: " + isRelated[0]);
-        return isRelated[0];
+        showSyncResult(plan, count.get(), failed.get(), resultMsg);
     }
 
     /**
-     * 更新電文代號到目標方法
+     * 在背景任務中分批寫入：每個寫入命令只改寫 {@link #WRITE_CHUNK_FILES} 個檔案，
+     * 命令之間釋放寫鎖，索引與高亮可以繼續執行，並回報進度。
+     * 所有命令使用同一個 groupId，復原時合併為一次操作；取消時已寫入的部分同樣可一次復原。
      */
-    private int updateApiIdToTargets(Project project, Map<PsiClass, List<PsiMethod>> targetMap, String apiId,
-            StringBuilder resultMsg) {
-        PsiElementFactory factory = JavaPsiFacade.getElementFactory(project);
-        int count = 0;
+    private void applySyncPlanInChunks(Project project, String source, SyncPlan plan) {
+        final String groupId = "cathaybk.syncApiId." + System.nanoTime();
+        final StringBuilder resultMsg = new StringBuilder(plan.notes);
+        final AtomicInteger count = new AtomicInteger(0);
+        // 任一批寫入失敗即停止，不再寫入其餘檔案
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final int totalFiles = plan.changes.getFileCount();
+        LOG.info("分批更新 " + totalFiles + " 個檔案中 " + plan.changes.getClassCount() + " 個類與 "
+                + plan.changes.getMethodCount() + " 個方法的註解...");
 
-        for (Map.Entry<PsiClass, List<PsiMethod>> entry : targetMap.entrySet()) {
-            PsiClass psiClass = entry.getKey();
-            List<PsiMethod> methods = entry.getValue();
-
-            for (PsiMethod method : methods) {
-                // 檢查是否已有相同的電文代號
-                boolean alreadyHasSameApiId = false;
-                PsiDocComment existingComment = method.getDocComment();
-
-                if (existingComment != null) {
-                    String existingApiId = extractApiIdFromDocComment(existingComment);
-                    if (existingApiId != null) {
-                        String existingMainPart = extractMainPartOfApiId(existingApiId);
-                        String apiIdMainPart = extractMainPartOfApiId(apiId);
-                        alreadyHasSameApiId = apiIdMainPart.equals(existingMainPart) && apiId.equals(existingApiId);
+        new Task.Backgroundable(project, "寫入電文代號", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                SyncPhaseEvent event = SyncPhaseEvent.start(SyncPhaseEvent.WRITE, source);
+                try {
+                    int remainingFiles = totalFiles;
+                    while (remainingFiles > 0 && !failed.get()) {
+                        indicator.checkCanceled();
+                        indicator.setFraction((double) (totalFiles - remainingFiles) / totalFiles);
+                        indicator.setText2("已寫入 " + (totalFiles - remainingFiles) + " / " + totalFiles + " 個檔案");
+
+                        ApplicationManager.getApplication().invokeAndWait(() -> WriteCommandAction
+                                .writeCommandAction(project)
+                                .withName("更新API電文代號")
+                                .withGroupId(groupId)
+                                .run(() -> {
+                                    try {
+                                        JavadocBatchRewriter rewriter = new JavadocBatchRewriter(project);
+                                        count.addAndGet(plan.changes.applyTo(rewriter, resultMsg, WRITE_CHUNK_FILES));
+                                        rewriter.apply();
+                                    } catch (Exception e) {
+                                        LOG.error("更新電文代號時出錯", e);
+                                        failed.set(true);
+                                        resultMsg.append("\n錯誤: ").append(e.getMessage());
+                                    }
+                                }));
+                        remainingFiles = ReadAction.compute(plan.changes::getFileCount);
                     }
+                } finally {
+                    event.finish(plan.apiId, plan.changes.getClassCount(), plan.changes.getMethodCount(),
+                            count.get());
                 }
+            }
 
-                if (alreadyHasSameApiId) {
-                    resultMsg.append("- ").append(psiClass.getName()).append(".").append(method.getName())
-                            .append(" (已有相同電文代號)\n");
-                    continue;
-                }
+            @Override
+            public void onSuccess() {
+                showSyncResult(plan, count.get(), failed.get(), resultMsg);
+            }
 
-                // 創建新的 Javadoc 註解
-                final PsiDocComment newDocComment = factory.createDocCommentFromText(
-                        "/**\n * " + apiId + "\n */");
+            @Override
+            public void onCancel() {
+                showInfoMessage("已取消同步，已寫入 " + count.get() + " 個目標，可使用復原一次還原。", "同步取消");
+            }
+        }.queue();
+    }
 
-                try {
-                    if (existingComment != null) {
-                        existingComment.replace(newDocComment);
-                    } else {
-                        method.addBefore(newDocComment, method.getModifierList());
-                    }
+    /**
+     * 顯示寫入結果
+     */
+    private void showSyncResult(SyncPlan plan, int count, boolean failed, StringBuilder resultMsg) {
+        if (failed) {
+            showErrorMessage("更新電文代號時出錯: " + resultMsg, "同步失敗");
+        } else if (count > 0) {
+            showInfoMessage("已成功將電文代號 '" + plan.apiId + "' 同步到 " + count + " 個相關目標:\n" + resultMsg,
+                    "同步成功");
+        } else {
+            showInfoMessage(plan.emptyResultMessage, "同步結果");
+        }
+    }
 
-                    count++;
-                    resultMsg.append("- ").append(psiClass.getName()).append(".").append(method.getName())
-                            .append(existingComment != null ? " (更新)" : " (新增)").append("\n");
-                } catch (Exception e) {
-                    LOG.error("更新方法文檔註解失敗", e);
-                    resultMsg.append("- ").append(psiClass.getName()).append(".").append(method.getName())
-                            .append(" (更新失敗: ").append(e.getMessage()).append(")\n");
-                }
-            }
+    /**
+     * 查找階段的結果：要更新的類與方法，或是直接顯示的訊息
+     */
+    private static class SyncPlan {
+        final String apiId;
+        final String emptyResultMessage;
+        final ApiIdChangeSet changes;
+        final StringBuilder notes = new StringBuilder();
+        String message;
+        String messageTitle;
+
+        SyncPlan(Project project, String apiId, String emptyResultMessage) {
+            this.apiId = apiId;
+            this.emptyResultMessage = emptyResultMessage;
+            this.changes = new ApiIdChangeSet(project, apiId);
+        }
+
+        private SyncPlan() {
+            this.apiId = null;
+            this.emptyResultMessage = null;
+            this.changes = null;
+        }
+
+        /**
+         * 還沒取得電文代號就結束查找時，只顯示訊息的結果
+         */
+        static SyncPlan message(String message, String title) {
+            return new SyncPlan().withMessage(message, title);
         }
 
-        return count;
+        SyncPlan withMessage(String message, String title) {
+            this.message = message;
+            this.messageTitle = title;
+            return this;
+        }
     }
 
     /**
-     * 更新電文代號到目標類
+     * 查找目標 Controller 類中調用來源 Service 的方法。
+     *
+     * @param project            當前專案
+     * @param controllerClasses  目標 Controller 類列表
+     * @param sourceServiceClass 觸發同步的來源 Service 接口或實現類
+     * @param targetMethodMap    用於收集找到的 Controller 方法
+     * @param notes              用於記錄查找結果訊息的 StringBuilder
      */
-    private int updateApiIdToClasses(Project project, List<PsiClass> classes, String apiId, StringBuilder resultMsg) {
-        PsiElementFactory factory = JavaPsiFacade.getElementFactory(project);
-        int count = 0;
+    private void findRelatedMethodsInControllers(Project project, List<PsiClass> controllerClasses,
+            PsiClass sourceServiceClass, Map<PsiClass, List<PsiMethod>> targetMethodMap, StringBuilder notes) {
+        LOG.info("正在為 " + controllerClasses.size() + " 個 Controller 查找使用了 " + sourceServiceClass.getName() + " 的方法...");
 
-        LOG.info("準備更新 " + classes.size() + " 個類的電文代號: " + apiId);
+        // 整個 Service 類的方法只做一次批次搜尋
+        Map<PsiClass, List<PsiMethod>> callers = new HashMap<>();
+        findCallingControllerMethods(project, Arrays.asList(sourceServiceClass.getMethods()), callers);
 
-        for (PsiClass psiClass : classes) {
-            // 檢查是否已有相同的電文代號
-            boolean alreadyHasSameApiId = false;
-            PsiDocComment existingComment = psiClass.getDocComment();
-
-            if (existingComment != null) {
-                String existingApiId = extractApiIdFromDocComment(existingComment);
-                if (existingApiId != null) {
-                    String existingMainPart = extractMainPartOfApiId(existingApiId);
-                    String apiIdMainPart = extractMainPartOfApiId(apiId);
-                    alreadyHasSameApiId = apiIdMainPart.equals(existingMainPart) && apiId.equals(existingApiId);
+        int relatedMethodCount = 0;
+        for (PsiClass controllerClass : controllerClasses) {
+            List<PsiMethod> relatedMethodsInThisController = new ArrayList<>();
+            for (PsiMethod controllerMethod : callers.getOrDefault(controllerClass, Collections.emptyList())) {
+                // 只處理非構造函數的公開方法 (可選，根據需要調整)
+                if (!controllerMethod.isConstructor()
+                        && controllerMethod.getModifierList().hasModifierProperty(PsiModifier.PUBLIC)) {
+                    LOG.debug("  找到相關方法: " + controllerClass.getName() + "." + controllerMethod.getName());
+                    relatedMethodsInThisController.add(controllerMethod);
+                    relatedMethodCount++;
                 }
             }
-
-            if (alreadyHasSameApiId) {
-                resultMsg.append("- ").append(psiClass.getName()).append(" (已有相同電文代號)\n");
-                continue;
+            // 如果在這個 Controller 中找到了相關方法，則添加到 Map 中
+            if (!relatedMethodsInThisController.isEmpty()) {
+                targetMethodMap.put(controllerClass, relatedMethodsInThisController);
+            } else {
+                LOG.info("在 Controller " + controllerClass.getName() + " 中未找到使用 " + sourceServiceClass.getName()
+                        + " 的相關方法。");
             }
+        }
 
-            // 創建新的 Javadoc 註解
-            final PsiDocComment newDocComment = factory.createDocCommentFromText(
-                    "/**\n * " + apiId + "\n */");
-
-            try {
-                if (existingComment != null) {
-                    existingComment.replace(newDocComment);
-                } else {
-                    psiClass.addBefore(newDocComment, psiClass.getModifierList());
-                }
+        if (!targetMethodMap.isEmpty()) {
+            LOG.info("共找到 " + relatedMethodCount + " 個相關的 Controller 方法");
+        } else {
+            String controllerNames = controllerClasses.stream().map(PsiClass::getName)
+                    .collect(Collectors.joining(", "));
+            LOG.info("在所有檢查的 Controller (" + controllerNames + ") 中均未找到使用 " + sourceServiceClass.getName() + " 的相關方法。");
+            notes.append("- 在 Controller 類 [").append(controllerNames).append("] 中未找到與 ")
+                    .append(sourceServiceClass.getName()).append(" 相關聯的方法。\n");
+        }
+    }
 
-                count++;
-                resultMsg.append("- ").append(psiClass.getName())
-                        .append(existingComment != null ? " (更新)" : " (新增)").append("\n");
-            } catch (Exception e) {
-                LOG.error("更新類文檔註解失敗", e);
-                resultMsg.append("- ").append(psiClass.getName()).append(" (更新失敗: ").append(e.getMessage())
-                        .append(")\n");
+    /**
+     * 將目標方法加入修改清單（在讀操作中執行）
+     */
+    private void addMethodTargets(ApiIdChangeSet changes, Map<PsiClass, List<PsiMethod>> targetMap) {
+        for (Map.Entry<PsiClass, List<PsiMethod>> entry : targetMap.entrySet()) {
+            for (PsiMethod method : entry.getValue()) {
+                addTarget(changes, method, entry.getKey().getName() + "." + method.getName());
             }
         }
-
-        return count;
     }
 
     /**
-     * 從 PsiElement 提取電文代號
+     * 將目標類加入修改清單（在讀操作中執行）
      */
-    private String extractApiIdFromElement(PsiDocCommentOwner element) {
-        PsiDocComment docComment = element.getDocComment();
-        if (docComment != null) {
-            return extractApiIdFromDocComment(docComment);
+    private void addClassTargets(ApiIdChangeSet changes, Collection<PsiClass> classes) {
+        LOG.info("準備更新 " + classes.size() + " 個類的電文代號: " + changes.getApiId());
+        for (PsiClass psiClass : classes) {
+            addTarget(changes, psiClass, psiClass.getName());
+        }
+    }
+
+    private void addTarget(ApiIdChangeSet changes, PsiDocCommentOwner target, String name) {
+        // 檢查是否已有相同的電文代號
+        boolean hasDocComment = target.getDocComment() != null;
+        if (hasDocComment && changes.getApiId().equals(extractApiIdFromElement(target))) {
+            changes.addUnchanged(target, name);
+        } else {
+            changes.add(target, name, hasDocComment);
         }
-        return null;
     }
 
     /**
-     * 從文檔註解中提取電文代號
+     * 從 PsiElement 提取電文代號（透過電文代號索引查詢）
      */
-    private String extractApiIdFromDocComment(PsiDocComment docComment) {
-        if (docComment == null) {
+    private String extractApiIdFromElement(PsiDocCommentOwner element) {
+        if (element.getDocComment() == null) {
             return null;
         }
-
-        String docText = docComment.getText();
-        Matcher matcher = API_ID_PATTERN.matcher(docText);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        return null;
+        return ApiMsgIdIndex.findJavadocApiId(element);
     }
 
     /**
@@ -620,6 +550,17 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
         return extractApiIdFromElement(element) != null;
     }
 
+    /**
+     * 同 {@link #hasApiIdJavadoc}，結果快取在元素上直到所在檔案被修改；沒有 Javadoc 時不查索引
+     */
+    private static boolean hasCachedApiIdJavadoc(PsiDocCommentOwner element) {
+        if (element.getDocComment() == null) {
+            return false;
+        }
+        return CachedValuesManager.getCachedValue(element, HAS_API_ID_KEY, () -> CachedValueProvider.Result.create(
+                ApiMsgIdIndex.findJavadocApiId(element) != null, element));
+    }
+
     /**
      * 判斷一個方法是否是 Controller 方法
      */
@@ -627,22 +568,14 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
         // 檢查方法是否有@PostMapping、@GetMapping等註解
         PsiAnnotation[] annotations = method.getModifierList().getAnnotations();
         for (PsiAnnotation annotation : annotations) {
-            String qualifiedName = annotation.getQualifiedName();
-            if (qualifiedName != null && (qualifiedName.endsWith("Mapping") ||
-                    qualifiedName.contains("RequestMapping") ||
-                    qualifiedName.contains("PostMapping") ||
-                    qualifiedName.contains("GetMapping"))) {
+            if (MappingAnnotations.isMapping(annotation.getQualifiedName())) {
                 return true;
             }
         }
 
         // 檢查是否在 Controller 類中
         PsiClass containingClass = method.getContainingClass();
-        return containingClass != null &&
-                containingClass.getName() != null &&
-                (containingClass.getName().contains("Controller") ||
-                        (containingClass.getQualifiedName() != null &&
-                                containingClass.getQualifiedName().contains("controller")));
+        return containingClass != null && isControllerClass(containingClass);
     }
 
     /**
@@ -702,7 +635,7 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
 
                             // 如果是接口，處理實現類
                             if (fieldType.isInterface()) {
-                                Collection<PsiClass> impls = findImplementingClasses(project, fieldType);
+                                Collection<PsiClass> impls = findImplementingClasses(fieldType);
                                 for (PsiClass impl : impls) {
                                     for (PsiMethod implMethod : impl.getMethods()) {
                                         // 只處理公開且覆寫接口方法的方法
@@ -725,7 +658,7 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
      */
     private void findServiceImplMethods(Project project, PsiClass serviceInterface, PsiMethod interfaceMethod,
             Map<PsiClass, List<PsiMethod>> targetMap) {
-        Collection<PsiClass> impls = findImplementingClasses(project, serviceInterface);
+        Collection<PsiClass> impls = findImplementingClasses(serviceInterface);
 
         for (PsiClass impl : impls) {
             for (PsiMethod implMethod : impl.getMethods()) {
@@ -738,49 +671,71 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
     }
 
     /**
-     * 查找與 Service 方法相關的 Controller 方法
+     * 一次搜尋多個 Service 方法（連同它們覆寫的接口方法與實現類中的覆寫方法）的調用者，依 Controller 類分組
+     * <p>
+     * 所有方法的搜尋請求先放進同一個 SearchRequestCollector，再由 PsiSearchHelper 一起處理，
+     * 詞索引只走訪一次，而不是每個方法與每個接口方法各做一次 ReferencesSearch。
      */
-    private void findRelatedControllerMethods(Project project, PsiMethod serviceMethod,
+    private void findCallingControllerMethods(Project project, Collection<PsiMethod> serviceMethods,
             Map<PsiClass, List<PsiMethod>> targetMap) {
-        PsiClass serviceClass = serviceMethod.getContainingClass();
-        if (serviceClass == null)
+        Set<PsiMethod> targets = new LinkedHashSet<>();
+        for (PsiMethod serviceMethod : serviceMethods) {
+            if (serviceMethod.isConstructor()) {
+                continue;
+            }
+            targets.add(serviceMethod);
+            // 實現類方法經由接口調用時，引用指向的是接口方法
+            Collections.addAll(targets, serviceMethod.findSuperMethods());
+            // 接口方法經由實現類型別調用時，引用指向的是實現類的方法
+            targets.addAll(findOverridingMethods(serviceMethod));
+        }
+        if (targets.isEmpty()) {
             return;
+        }
 
-        // 查找所有引用此 Service 方法的地方
-        Collection<PsiReference> references = ReferencesSearch
-                .search(serviceMethod, GlobalSearchScope.projectScope(project)).findAll();
-
-        for (PsiReference reference : references) {
-            PsiElement element = reference.getElement();
-
-            // 尋找調用此方法的 Controller 方法
-            PsiMethod callingMethod = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
-            if (callingMethod != null) {
-                PsiClass callingClass = callingMethod.getContainingClass();
-                if (callingClass != null && isControllerClass(callingClass)) {
-                    targetMap.computeIfAbsent(callingClass, k -> new ArrayList<>()).add(callingMethod);
+        Set<PsiMethod> callers = new HashSet<>();
+        Processor<PsiReference> processor = reference -> {
+            PsiMethod callingMethod = PsiTreeUtil.getParentOfType(reference.getElement(), PsiMethod.class);
+            if (callingMethod == null) {
+                return true;
+            }
+            PsiClass callingClass = callingMethod.getContainingClass();
+            if (callingClass != null && isControllerClass(callingClass)) {
+                // 搜尋可能在多個線程中回呼
+                synchronized (callers) {
+                    if (callers.add(callingMethod)) {
+                        targetMap.computeIfAbsent(callingClass, k -> new ArrayList<>()).add(callingMethod);
+                    }
                 }
             }
+            return true;
+        };
+
+        SearchRequestCollector collector = new SearchRequestCollector(new SearchSession());
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        for (PsiMethod target : targets) {
+            ReferencesSearch.searchOptimized(target, scope, false, collector, processor);
         }
+        PsiSearchHelper.getInstance(project).processRequests(collector, processor);
+    }
 
-        // 如果是實現類方法，也尋找對應接口方法的引用
-        if (isServiceImplClass(serviceClass)) {
-            for (PsiMethod interfaceMethod : findCorrespondingInterfaceMethods(serviceMethod)) {
-                Collection<PsiReference> interfaceRefs = ReferencesSearch
-                        .search(interfaceMethod, GlobalSearchScope.projectScope(project)).findAll();
-
-                for (PsiReference ref : interfaceRefs) {
-                    PsiElement element = ref.getElement();
-                    PsiMethod callingMethod = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
-                    if (callingMethod != null) {
-                        PsiClass callingClass = callingMethod.getContainingClass();
-                        if (callingClass != null && isControllerClass(callingClass)) {
-                            targetMap.computeIfAbsent(callingClass, k -> new ArrayList<>()).add(callingMethod);
-                        }
-                    }
-                }
+    /**
+     * 繼承者中覆寫（實現）此方法的方法，繼承者依結構修改快取
+     */
+    private List<PsiMethod> findOverridingMethods(PsiMethod method) {
+        PsiClass containingClass = method.getContainingClass();
+        if (containingClass == null || method.hasModifierProperty(PsiModifier.PRIVATE)
+                || method.hasModifierProperty(PsiModifier.STATIC)) {
+            return Collections.emptyList();
+        }
+        List<PsiMethod> result = new ArrayList<>();
+        for (PsiClass inheritor : InheritorCache.getInheritors(containingClass)) {
+            PsiMethod overriding = inheritor.findMethodBySignature(method, false);
+            if (overriding != null) {
+                result.add(overriding);
             }
         }
+        return result;
     }
 
     /**
@@ -821,698 +776,38 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
     }
 
     /**
-     * 尋找實現類方法對應的接口方法
+     * 查找接口的所有實現類（依結構修改快取的繼承者查詢）
      */
-    private List<PsiMethod> findCorrespondingInterfaceMethods(PsiMethod implMethod) {
-        List<PsiMethod> result = new ArrayList<>();
-        PsiClass implClass = implMethod.getContainingClass();
-        if (implClass == null)
-            return result;
-
-        for (PsiClassType interfaceType : implClass.getImplementsListTypes()) {
-            PsiClass interfaceClass = interfaceType.resolve();
-            if (interfaceClass != null) {
-                for (PsiMethod interfaceMethod : interfaceClass.getMethods()) {
-                    if (isImplementationOf(implMethod, interfaceMethod)) {
-                        result.add(interfaceMethod);
-                    }
-                }
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * 查找接口的所有實現類
-     */
-    private Collection<PsiClass> findImplementingClasses(Project project, PsiClass interfaceClass) {
+    private Collection<PsiClass> findImplementingClasses(PsiClass interfaceClass) {
         Collection<PsiClass> result = new ArrayList<>();
         if (!interfaceClass.isInterface()) {
             return result;
         }
 
-        // 方法1：使用 ReferencesSearch 查找所有引用
-        try {
-            Collection<PsiReference> references = ReferencesSearch.search(interfaceClass,
-                    GlobalSearchScope.projectScope(project)).findAll();
-
-            for (PsiReference reference : references) {
-                PsiElement element = reference.getElement();
-                // 檢查是否是 "implements" 子句中的引用
-                if (element.getParent() instanceof PsiJavaCodeReferenceElement) {
-                    PsiJavaCodeReferenceElement refElement = (PsiJavaCodeReferenceElement) element.getParent();
-                    if (refElement.getParent() instanceof PsiReferenceList) {
-                        PsiReferenceList refList = (PsiReferenceList) refElement.getParent();
-                        if (refList.getParent() instanceof PsiClass &&
-                                refList.getFirstChild() != null &&
-                                refList.getFirstChild().getText().equals("implements")) {
-
-                            PsiClass implementingClass = (PsiClass) refList.getParent();
-                            if (!result.contains(implementingClass)) {
-                                result.add(implementingClass);
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LOG.error("搜索實現類引用時出錯", e);
-        }
-
-        // 方法2：按命名規則查找
-        if (result.isEmpty()) {
-            try {
-                String implName = interfaceClass.getName() + "Impl";
-
-                // 在項目範圍內查找
-                PsiClass[] implClasses = JavaPsiFacade.getInstance(project)
-                        .findClasses(implName, GlobalSearchScope.projectScope(project));
-
-                for (PsiClass implClass : implClasses) {
-                    // 驗證是否確實實現了接口
-                    for (PsiClassType implementedType : implClass.getImplementsListTypes()) {
-                        PsiClass implemented = implementedType.resolve();
-                        if (implemented != null && implemented.equals(interfaceClass)) {
-                            if (!result.contains(implClass)) {
-                                result.add(implClass);
-                            }
-                            break;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                LOG.error("根據命名規則查找實現類時出錯", e);
-            }
-        }
-
-        // 方法3：搜索可能的包路徑
-        if (result.isEmpty()) {
-            try {
-                String qualifiedName = interfaceClass.getQualifiedName();
-                if (qualifiedName != null) {
-                    // 嘗試常見的包路徑規則
-                    String packageName = qualifiedName.substring(0, qualifiedName.lastIndexOf('.') + 1);
-                    String[] possibleImplPackages = {
-                            packageName + "impl.",
-                            packageName,
-                            packageName.replace(".service.", ".service.impl.")
-                    };
-
-                    for (String implPackage : possibleImplPackages) {
-                        String implQualifiedName = implPackage + interfaceClass.getName() + "Impl";
-
-                        PsiClass implClass = JavaPsiFacade.getInstance(project)
-                                .findClass(implQualifiedName, GlobalSearchScope.projectScope(project));
-
-                        if (implClass != null) {
-                            // 驗證是否確實實現了接口
-                            boolean actuallyImplements = false;
-                            for (PsiClassType implementedType : implClass.getImplementsListTypes()) {
-                                PsiClass implemented = implementedType.resolve();
-                                if (implemented != null && implemented.equals(interfaceClass)) {
-                                    actuallyImplements = true;
-                                    break;
-                                }
-                            }
-
-                            if (actuallyImplements && !result.contains(implClass)) {
-                                result.add(implClass);
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                LOG.error("搜索可能的包路徑時出錯", e);
+        for (PsiClass inheritor : InheritorCache.getInheritors(interfaceClass)) {
+            if (!inheritor.isInterface()) {
+                result.add(inheritor);
             }
         }
-
         return result;
     }
 
     /**
-     * 判斷一個類是否是 Controller 類
+     * 判斷一個類是否是 Controller 類（依 Spring stereotype 註解）
      */
     private boolean isControllerClass(PsiClass psiClass) {
-        String className = psiClass.getName();
-        if (className == null) {
-            return false;
-        }
-
-        // 檢查類名
-        if (className.contains("Controller")) {
-            return true;
-        }
-
-        // 檢查註解
-        for (PsiAnnotation annotation : psiClass.getAnnotations()) {
-            String qualifiedName = annotation.getQualifiedName();
-            if (qualifiedName != null &&
-                    (qualifiedName.endsWith("Controller") || qualifiedName.endsWith("RestController"))) {
-                return true;
-            }
-        }
-
-        // 檢查包名
-        String qualifiedName = psiClass.getQualifiedName();
-        return qualifiedName != null && qualifiedName.contains(".controller.");
+        return SpringStereotypeRegistry.getInstance(psiClass.getProject()).isController(psiClass);
     }
 
     /**
-     * 判斷一個類是否是 Service 類
+     * 判斷一個類是否是 Service 類（標註 @Service 的類及其實現的接口）
      */
     private boolean isServiceClass(PsiClass psiClass) {
-        String className = psiClass.getName();
-        if (className == null) {
-            return false;
-        }
-
-        // 檢查類名是否包含 "Service"
-        if (className.contains("Service")) {
-            return true;
-        }
-
-        // 檢查是否有 @Service 註解
-        for (PsiAnnotation annotation : psiClass.getAnnotations()) {
-            String qualifiedName = annotation.getQualifiedName();
-            if (qualifiedName != null && qualifiedName.endsWith("Service")) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * 判斷一個類是否是 ServiceImpl 類
-     */
-    private boolean isServiceImplClass(PsiClass psiClass) {
-        String className = psiClass.getName();
-        return className != null && className.contains("Impl") && isServiceClass(psiClass);
-    }
-
-    /**
-     * 查找與特定類相關的所有類
-     */
-    private List<PsiClass> findRelatedClasses(Project project, PsiClass sourceClass) {
-        List<PsiClass> result = new ArrayList<>();
-        String className = sourceClass.getName();
-        if (className == null) {
-            return result;
-        }
-
-        // 根據類的命名模式尋找相關類
-        if (className.contains("Controller")) {
-            // 如果是 Controller，找相關的 Service 和 ServiceImpl
-            String baseName = className.replace("Controller", "");
-            findRelatedServiceForController(project, sourceClass, baseName, result);
-            findServicesByControllerReference(project, sourceClass, result);
-
-        } else if (className.contains("Service") && !className.contains("Impl")) {
-            // 如果是 Service 接口，找相關的 Controller 和實現類
-            String baseName = className.replace("Service", "");
-            findRelatedControllerForService(project, baseName, result);
-            findControllersByServiceName(project, className, result);
-            findServiceImplForService(project, sourceClass, result);
-
-            if (result.isEmpty() || !hasControllerInResult(result)) {
-                findRelatedClassesByReference(project, sourceClass, result);
-            }
-
-            if (!hasServiceImplInResult(result, className)) {
-                findServiceImplByNamingConvention(project, sourceClass, result);
-            }
-
-        } else if (className.contains("ServiceImpl")) {
-            // 如果是 ServiceImpl，找相關的 Controller 和接口
-            String baseName = className.replace("ServiceImpl", "");
-            findRelatedControllerForService(project, baseName, result);
-
-            if (!hasControllerInResult(result)) {
-                findControllersByServiceImplName(project, className, result);
-            }
-
-            findServiceInterfaceForImpl(project, sourceClass, result);
-
-            // 尋找同級的 ServiceImpl 類
-            for (PsiClassType interfaceType : sourceClass.getImplementsListTypes()) {
-                PsiClass interfaceClass = interfaceType.resolve();
-                if (interfaceClass != null && interfaceClass.getName() != null &&
-                        interfaceClass.getName().contains("Service")) {
-                    Collection<PsiClass> allImpls = findImplementingClasses(project, interfaceClass);
-                    for (PsiClass impl : allImpls) {
-                        if (!result.contains(impl) && !impl.equals(sourceClass)) {
-                            result.add(impl);
-                        }
-                    }
-                }
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * 確保包含所有相關類的實現類
-     */
-    private List<PsiClass> getAllRelatedClassesWithImpls(Project project, List<PsiClass> initialClasses) {
-        Set<PsiClass> allClasses = new HashSet<>(initialClasses);
-        Queue<PsiClass> classesToCheck = new LinkedList<>(initialClasses);
-
-        int iterationCount = 0;
-        while (!classesToCheck.isEmpty() && iterationCount < 10) { // 設置最大迭代次數防止無限循環
-            iterationCount++;
-
-            PsiClass psiClass = classesToCheck.poll();
-            String className = psiClass.getName();
-            if (className == null)
-                continue;
-
-            // 如果是接口，查找所有實現類
-            if (psiClass.isInterface() && className.contains("Service")) {
-                // 查找服務接口的所有實現類
-                Collection<PsiClass> impls = findImplementingClasses(project, psiClass);
-
-                for (PsiClass impl : impls) {
-                    if (!allClasses.contains(impl)) {
-                        allClasses.add(impl);
-                        classesToCheck.offer(impl);
-                    }
-                }
-            }
-
-            // 如果是實現類，確保我們也有其接口
-            if (isServiceImplClass(psiClass)) {
-                for (PsiClassType interfaceType : psiClass.getImplementsListTypes()) {
-                    PsiClass interfaceClass = interfaceType.resolve();
-                    if (interfaceClass != null && interfaceClass.getName() != null) {
-                        // 添加接口
-                        if (!allClasses.contains(interfaceClass)) {
-                            allClasses.add(interfaceClass);
-                            classesToCheck.offer(interfaceClass);
-                        }
-
-                        // 尋找相關的 Controller
-                        if (interfaceClass.getName().contains("Service")) {
-                            String baseName = interfaceClass.getName().replace("Service", "");
-                            String controllerName = baseName + "Controller";
-
-                            PsiClass[] controllers = JavaPsiFacade.getInstance(project)
-                                    .findClasses(controllerName, GlobalSearchScope.projectScope(project));
-
-                            for (PsiClass controller : controllers) {
-                                if (!allClasses.contains(controller)) {
-                                    allClasses.add(controller);
-                                    classesToCheck.offer(controller);
-                                }
-                            }
-                        }
-
-                        // 尋找所有實現同一接口的其他實現類
-                        Collection<PsiClass> siblingImpls = findImplementingClasses(project, interfaceClass);
-
-                        for (PsiClass siblingImpl : siblingImpls) {
-                            if (!allClasses.contains(siblingImpl)) {
-                                allClasses.add(siblingImpl);
-                                classesToCheck.offer(siblingImpl);
-                            }
-                        }
-                    }
-                }
-            }
-
-            // 如果是Controller，查找相關的Service和ServiceImpl
-            if (className.contains("Controller")) {
-                String baseName = className.replace("Controller", "");
-                findRelatedServiceForController(project, psiClass, baseName, new ArrayList<>(allClasses));
-
-                // 檢查方法體中使用的Service
-                for (PsiMethod method : psiClass.getMethods()) {
-                    List<PsiClass> serviceClasses = new ArrayList<>();
-                    collectServiceClassesFromMethod(method, serviceClasses);
-
-                    for (PsiClass serviceClass : serviceClasses) {
-                        if (!allClasses.contains(serviceClass)) {
-                            allClasses.add(serviceClass);
-                            classesToCheck.offer(serviceClass);
-                        }
-                    }
-                }
-            }
-        }
-
-        return new ArrayList<>(allClasses);
+        return SpringStereotypeRegistry.getInstance(psiClass.getProject()).isService(psiClass);
     }
 
     // 下面是各種輔助方法
 
-    /**
-     * 檢查結果列表中是否有Controller類
-     */
-    private boolean hasControllerInResult(List<PsiClass> result) {
-        for (PsiClass psiClass : result) {
-            if (psiClass.getName() != null && psiClass.getName().contains("Controller")) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * 檢查結果列表中是否已經有對應的ServiceImpl
-     */
-    private boolean hasServiceImplInResult(List<PsiClass> result, String interfaceName) {
-        String implName = interfaceName + "Impl";
-        for (PsiClass psiClass : result) {
-            if (psiClass.getName() != null && psiClass.getName().equals(implName)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * 從方法中收集使用的 Service 類
-     */
-    private void collectServiceClassesFromMethod(PsiMethod method, List<PsiClass> result) {
-        // 檢查方法體中使用的 Service
-        PsiCodeBlock body = method.getBody();
-        if (body != null) {
-            // 尋找所有變量引用
-            body.accept(new JavaRecursiveElementVisitor() {
-                @Override
-                public void visitReferenceExpression(PsiReferenceExpression expression) {
-                    super.visitReferenceExpression(expression);
-
-                    PsiElement resolved = expression.resolve();
-                    if (resolved instanceof PsiField) {
-                        PsiField field = (PsiField) resolved;
-                        PsiClass fieldType = PsiUtil.resolveClassInType(field.getType());
-                        if (fieldType != null && isServiceClass(fieldType) && !result.contains(fieldType)) {
-                            result.add(fieldType);
-
-                            // 如果是接口，也收集其實現類
-                            if (fieldType.isInterface()) {
-                                Collection<PsiClass> implementingClasses = findImplementingClasses(
-                                        method.getProject(), fieldType);
-                                for (PsiClass impl : implementingClasses) {
-                                    if (!result.contains(impl)) {
-                                        result.add(impl);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            });
-        }
-    }
-
-    /**
-     * 通過Controller查找可能使用的Service類
-     */
-    private void findServicesByControllerReference(Project project, PsiClass controllerClass, List<PsiClass> result) {
-        // 檢查所有方法
-        for (PsiMethod method : controllerClass.getMethods()) {
-            PsiCodeBlock body = method.getBody();
-            if (body == null)
-                continue;
-
-            // 檢查方法體中的所有引用表達式
-            body.accept(new JavaRecursiveElementVisitor() {
-                @Override
-                public void visitMethodCallExpression(PsiMethodCallExpression expression) {
-                    super.visitMethodCallExpression(expression);
-
-                    // 獲取調用的方法
-                    PsiMethod calledMethod = expression.resolveMethod();
-                    if (calledMethod == null)
-                        return;
-
-                    // 獲取方法所屬的類
-                    PsiClass calledClass = calledMethod.getContainingClass();
-                    if (calledClass == null)
-                        return;
-
-                    String calledClassName = calledClass.getName();
-                    if (calledClassName == null)
-                        return;
-
-                    // 檢查是否是Service或ServiceImpl
-                    if ((calledClassName.contains("Service") &&
-                            !result.contains(calledClass))) {
-                        result.add(calledClass);
-
-                        // 如果是接口，添加其實現類
-                        if (calledClass.isInterface()) {
-                            findServiceImplForService(project, calledClass, result);
-                        }
-                        // 如果是實現類，添加其接口
-                        else if (calledClassName.contains("Impl")) {
-                            findServiceInterfaceForImpl(project, calledClass, result);
-                        }
-                    }
-                }
-
-                @Override
-                public void visitReferenceExpression(PsiReferenceExpression expression) {
-                    super.visitReferenceExpression(expression);
-
-                    // 檢查引用的字段
-                    PsiElement resolved = expression.resolve();
-                    if (resolved instanceof PsiField) {
-                        PsiField field = (PsiField) resolved;
-                        PsiClass fieldType = PsiUtil.resolveClassInType(field.getType());
-
-                        if (fieldType != null && fieldType.getName() != null &&
-                                fieldType.getName().contains("Service") &&
-                                !result.contains(fieldType)) {
-                            result.add(fieldType);
-
-                            // 如果是接口，添加其實現類
-                            if (fieldType.isInterface()) {
-                                findServiceImplForService(project, fieldType, result);
-                            }
-                            // 如果是實現類，添加其接口
-                            else if (fieldType.getName().contains("Impl")) {
-                                findServiceInterfaceForImpl(project, fieldType, result);
-                            }
-                        }
-                    }
-                }
-            });
-        }
-    }
-
-    /**
-     * 根據Service名稱查找可能的Controller類
-     */
-    private void findControllersByServiceName(Project project, String serviceName, List<PsiClass> result) {
-        // 從Service名稱推測可能的Controller名稱
-        String baseName = serviceName.replace("Service", "");
-        String controllerName = baseName + "Controller";
-
-        // 在整個項目中查找
-        PsiClass[] controllers = JavaPsiFacade.getInstance(project)
-                .findClasses(controllerName, GlobalSearchScope.projectScope(project));
-
-        for (PsiClass controller : controllers) {
-            if (!result.contains(controller)) {
-                result.add(controller);
-            }
-        }
-    }
-
-    /**
-     * 根據ServiceImpl名稱查找可能的Controller類
-     */
-    private void findControllersByServiceImplName(Project project, String serviceImplName, List<PsiClass> result) {
-        // 從ServiceImpl名稱推測可能的Controller名稱
-        String baseName = serviceImplName.replace("ServiceImpl", "");
-        String controllerName = baseName + "Controller";
-
-        // 在整個項目中查找
-        PsiClass[] controllers = JavaPsiFacade.getInstance(project)
-                .findClasses(controllerName, GlobalSearchScope.projectScope(project));
-
-        for (PsiClass controller : controllers) {
-            if (!result.contains(controller)) {
-                result.add(controller);
-            }
-        }
-    }
-
-    /**
-     * 通過查找引用找到關聯的類
-     */
-    private void findRelatedClassesByReference(Project project, PsiClass sourceClass, List<PsiClass> result) {
-        // 查找所有引用這個類的地方
-        Collection<PsiReference> references = ReferencesSearch.search(sourceClass,
-                GlobalSearchScope.projectScope(project)).findAll();
-
-        for (PsiReference reference : references) {
-            PsiElement element = reference.getElement();
-            PsiClass containingClass = PsiTreeUtil.getParentOfType(element, PsiClass.class);
-
-            if (containingClass != null) {
-                String name = containingClass.getName();
-                if (name != null) {
-                    // 如果是Controller或ServiceImpl，添加到結果
-                    if (name.contains("Controller") || name.contains("ServiceImpl")) {
-                        if (!result.contains(containingClass)) {
-                            result.add(containingClass);
-
-                            // 如果找到Controller，也添加它可能使用的其他Service
-                            if (name.contains("Controller")) {
-                                findServicesByControllerReference(project, containingClass, result);
-                            }
-                            // 如果找到ServiceImpl，也添加它的接口
-                            else if (name.contains("ServiceImpl")) {
-                                findServiceInterfaceForImpl(project, containingClass, result);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * 根據命名規則查找可能的ServiceImpl類
-     */
-    private void findServiceImplByNamingConvention(Project project, PsiClass serviceInterface, List<PsiClass> result) {
-        String interfaceName = serviceInterface.getName();
-        if (interfaceName == null)
-            return;
-
-        String implName = interfaceName + "Impl";
-
-        // 嘗試常見的包路徑：
-        // 1. 在同一個包中
-        // 2. 在impl子包中
-        // 3. 替換.service.為.service.impl.
-        String qualifiedName = serviceInterface.getQualifiedName();
-        if (qualifiedName == null)
-            return;
-
-        String packageName = qualifiedName.substring(0, qualifiedName.lastIndexOf('.') + 1);
-        String[] possibleImplPackages = {
-                packageName, // 同一個包
-                packageName + "impl.", // impl子包
-                packageName.replace(".service.", ".service.impl.") // 標準service.impl結構
-        };
-
-        for (String implPackage : possibleImplPackages) {
-            String implQualifiedName = implPackage + implName;
-
-            PsiClass implClass = JavaPsiFacade.getInstance(project)
-                    .findClass(implQualifiedName, GlobalSearchScope.projectScope(project));
-
-            if (implClass != null) {
-                if (!result.contains(implClass)) {
-                    result.add(implClass);
-                }
-            }
-        }
-    }
-
-    /**
-     * 查找與 Controller 方法相關的 Service 和 ServiceImpl 類
-     */
-    private void findRelatedServiceForController(Project project, PsiClass controller, String baseName,
-            List<PsiClass> result) {
-        String serviceName = baseName + "Service";
-        String serviceImplName = baseName + "ServiceImpl";
-        String controllerPackage = controller.getQualifiedName();
-
-        if (controllerPackage != null) {
-            // 查找可能的 Service 接口
-            String servicePackage = controllerPackage.replace(controller.getName(), serviceName);
-            PsiClass serviceInterface = JavaPsiFacade.getInstance(project)
-                    .findClass(servicePackage, GlobalSearchScope.projectScope(project));
-
-            if (serviceInterface != null) {
-                if (!result.contains(serviceInterface)) {
-                    result.add(serviceInterface);
-                }
-
-                // 查找 Service 接口的實現類
-                findServiceImplForService(project, serviceInterface, result);
-            }
-
-            // 查找可能的 ServiceImpl 類
-            String serviceImplPackage = controllerPackage.replace(controller.getName(), serviceImplName);
-            PsiClass serviceImpl = JavaPsiFacade.getInstance(project)
-                    .findClass(serviceImplPackage, GlobalSearchScope.projectScope(project));
-
-            if (serviceImpl != null && !result.contains(serviceImpl)) {
-                result.add(serviceImpl);
-            }
-        }
-    }
-
-    /**
-     * 查找與 Controller 相關的 Service 和 ServiceImpl
-     */
-    private void findRelatedControllerForService(Project project, String baseName, List<PsiClass> result) {
-        String controllerName = baseName + "Controller";
-
-        // 查找可能的 Controller 類
-        PsiClass[] controllers = JavaPsiFacade.getInstance(project)
-                .findClasses(controllerName, GlobalSearchScope.projectScope(project));
-
-        for (PsiClass controller : controllers) {
-            if (!result.contains(controller)) {
-                result.add(controller);
-            }
-        }
-    }
-
-    /**
-     * 查找 Service 接口的實現類
-     */
-    private void findServiceImplForService(Project project, PsiClass serviceInterface, List<PsiClass> result) {
-        if (!serviceInterface.isInterface()) {
-            return;
-        }
-
-        // 查找所有實現此接口的類
-        Collection<PsiClass> implementingClasses = findImplementingClasses(project, serviceInterface);
-        for (PsiClass impl : implementingClasses) {
-            if (!result.contains(impl)) {
-                result.add(impl);
-            }
-        }
-    }
-
-    /**
-     * 查找 ServiceImpl 類實現的接口
-     */
-    private void findServiceInterfaceForImpl(Project project, PsiClass serviceImpl, List<PsiClass> result) {
-        for (PsiClassType interfaceType : serviceImpl.getImplementsListTypes()) {
-            PsiClass interfaceClass = interfaceType.resolve();
-            if (interfaceClass != null && !result.contains(interfaceClass)) {
-                result.add(interfaceClass);
-            }
-        }
-    }
-
-    /**
-     * 提取電文代號的主要部分（第一個連字符前的部分）
-     */
-    private String extractMainPartOfApiId(String apiId) {
-        if (apiId == null) {
-            return "";
-        }
-
-        // 提取第一部分，例如 "RET-B-TAKINGFILE" 提取 "RET"
-        int firstHyphen = apiId.indexOf('-');
-        if (firstHyphen > 0) {
-            return apiId.substring(0, firstHyphen);
-        }
-        return apiId;
-    }
-
     /**
      * 在 Swing EDT 線程中顯示錯誤訊息
      */
@@ -1563,7 +858,7 @@ public class SyncApiIdAction implements IntentionAction, LocalQuickFix {
                     LOG.debug("  發現並添加 Service 類: " + potentialServiceClass.getName());
                     // 如果是接口，找到實現類並添加
                     if (potentialServiceClass.isInterface()) {
-                        Collection<PsiClass> impls = findImplementingClasses(project, potentialServiceClass);
+                        Collection<PsiClass> impls = findImplementingClasses(potentialServiceClass);
                         for (PsiClass impl : impls) {
                             if (isServiceClass(impl) && targetClasses.add(impl)) { // 確保實現類也是 Service
                                 LOG.debug("    添加其實現類: " + impl.getName());
@@ -0,0 +1,31 @@
+package com.cathaybk.codingassistant.actions;
+
+import com.cathaybk.codingassistant.metrics.MsgIdMetrics;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 開啟或關閉檢查器的效能統計；開啟時清除先前的累計結果
+ */
+public class ToggleMsgIdMetricsAction extends ToggleAction {
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        return MsgIdMetrics.isEnabled();
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        if (state) {
+            MsgIdMetrics.reset();
+        }
+        MsgIdMetrics.setEnabled(state);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+}
@@ -0,0 +1,48 @@
+package com.cathaybk.codingassistant.cli;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 簡單的 JSON 格式：findings 陣列加上 summary 耗時統計
+ */
+class JsonReportWriter extends ScanReportWriter {
+
+    JsonReportWriter(@NotNull OutputStream out) throws IOException {
+        super(out);
+    }
+
+    @Override
+    public void begin(@NotNull List<ScanRule> rules) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("tool", "CathayBk Coding Assistant");
+        generator.writeArrayFieldStart("findings");
+    }
+
+    @Override
+    protected void writeFinding(@NotNull ScanFinding finding) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("rule", finding.getRuleId());
+        generator.writeStringField("path", finding.getPath());
+        generator.writeNumberField("line", finding.getLine());
+        generator.writeNumberField("column", finding.getColumn());
+        generator.writeStringField("message", finding.getMessage());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void finish(@NotNull List<ScanRule> rules, int fileCount, long wallClockMillis, boolean completed)
+            throws IOException {
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("summary");
+        generator.writeBooleanField("completed", completed);
+        generator.writeNumberField("files", fileCount);
+        generator.writeNumberField("wallClockMillis", wallClockMillis);
+        writeRuleTimings(rules);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,117 @@
+package com.cathaybk.codingassistant.cli;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * 命令列入口：{@code idea msgid-scan <專案路徑> [--format=json|sarif] [--output=檔案]}
+ *
+ * <p>
+ * 結束代碼：0 表示沒有問題，1 表示找到問題，2 表示執行失敗。耗時統計同時寫入報告與標準錯誤輸出，
+ * 報告未指定輸出檔時寫到標準輸出。
+ * </p>
+ */
+public class MsgIdScanStarter implements ApplicationStarter {
+
+    @Override
+    public int getRequiredModality() {
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        int exitCode;
+        try {
+            exitCode = run(args);
+        } catch (Throwable e) {
+            System.err.println("掃描失敗: " + e);
+            e.printStackTrace(System.err);
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+
+    private int run(@NotNull List<String> args) throws Exception {
+        // args.get(0) 是命令名稱本身
+        String projectPath = null;
+        String format = "json";
+        String output = null;
+        for (String arg : args.subList(1, args.size())) {
+            if (arg.startsWith("--format=")) {
+                format = arg.substring("--format=".length());
+            } else if (arg.startsWith("--output=")) {
+                output = arg.substring("--output=".length());
+            } else if (projectPath == null) {
+                projectPath = arg;
+            }
+        }
+        if (projectPath == null) {
+            System.err.println("用法: msgid-scan <專案路徑> [--format=json|sarif] [--output=檔案]");
+            return 2;
+        }
+
+        Path path = Paths.get(projectPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(path)) {
+            System.err.println("找不到專案目錄: " + path);
+            return 2;
+        }
+
+        long start = System.nanoTime();
+        Project project = ProjectUtil.openOrImport(path, null, false);
+        if (project == null) {
+            System.err.println("無法開啟專案: " + path);
+            return 2;
+        }
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+            System.err.println("專案載入與索引完成，耗時 " + elapsedMillis(start) + " ms");
+
+            MsgIdScanner scanner = new MsgIdScanner(project);
+            long scanStart = System.nanoTime();
+            boolean completed;
+            int findings = 0;
+            try (OutputStream out = output != null ? new FileOutputStream(output) : System.out;
+                    ScanReportWriter writer = ScanReportWriter.create(format, out)) {
+                writer.begin(scanner.getRules());
+                ProgressIndicator indicator = new EmptyProgressIndicator();
+                completed = ProgressManager.getInstance().runProcess(() -> scanner.scan(writer, indicator),
+                        indicator);
+                long scanMillis = elapsedMillis(scanStart);
+                writer.finish(scanner.getRules(), scanner.getFileCount(), scanMillis, completed);
+
+                System.err.println("掃描 " + scanner.getFileCount() + " 個檔案，耗時 " + scanMillis + " ms");
+                for (ScanRule rule : scanner.getRules()) {
+                    System.err.println("  " + rule.getId() + ": " + rule.getFindings() + " 個問題，累計 "
+                            + rule.getMillis() + " ms");
+                    findings += rule.getFindings();
+                }
+            }
+            if (!completed) {
+                return 2;
+            }
+            return findings > 0 ? 1 : 0;
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(
+                    () -> ProjectManager.getInstance().closeAndDispose(project));
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
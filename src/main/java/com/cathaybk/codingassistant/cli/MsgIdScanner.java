@@ -0,0 +1,147 @@
+package com.cathaybk.codingassistant.cli;
+
+import com.cathaybk.codingassistant.inspection.ApiMsgIdInspection;
+import com.cathaybk.codingassistant.inspection.ServiceLinkGlobalInspection;
+import com.cathaybk.codingassistant.inspection.ServiceLinkInspection;
+import com.cathaybk.codingassistant.inspection.ServiceLinkTable;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemDescriptorUtil;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 在無介面模式下對整個專案執行電文代號相關檢查
+ *
+ * <p>
+ * 每個檔案在獨立的讀取動作中處理，由 {@link JobLauncher} 平行分派；找到的問題立即交給
+ * {@link ScanReportWriter} 串流輸出。
+ * </p>
+ */
+public class MsgIdScanner {
+    private static final Logger LOG = Logger.getInstance(MsgIdScanner.class);
+
+    private final Project project;
+    private final List<ScanRule> rules = new ArrayList<>();
+    private int fileCount;
+    // 每次掃描重新建立，所有檔案共用
+    private volatile ServiceLinkTable linkTable;
+
+    public MsgIdScanner(@NotNull Project project) {
+        this.project = project;
+        rules.add(new ScanRule("ApiMsgIdInspection", "Controller/Service 缺少電文代號註解",
+                new ApiMsgIdInspection()));
+        rules.add(new ScanRule("ServiceLinkInspection", "Service 類別缺少電文代號",
+                new ServiceLinkInspection()));
+        rules.add(new ScanRule("ServiceLinkGlobalInspection", "Service 類別缺少電文代號（退回掃描 Controller）",
+                (file, holder) -> ServiceLinkGlobalInspection.checkFile(file, holder, linkTable)));
+    }
+
+    @NotNull
+    public List<ScanRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * 最近一次掃描的 Java 檔案數量
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * 掃描專案內所有 Java 檔案
+     *
+     * @return 是否完成所有檔案（被取消時回傳 false）
+     */
+    public boolean scan(@NotNull ScanReportWriter writer, @NotNull ProgressIndicator indicator) {
+        Collection<VirtualFile> files = ReadAction.compute(() -> FileTypeIndex.getFiles(JavaFileType.INSTANCE,
+                GlobalSearchScope.projectScope(project)));
+        fileCount = files.size();
+        linkTable = new ServiceLinkTable(project);
+        LOG.info("開始掃描 " + fileCount + " 個 Java 檔案");
+
+        VirtualFile baseDir = ProjectUtil.guessProjectDir(project);
+        return JobLauncher.getInstance().invokeConcurrentlyUnderProgress(new ArrayList<>(files), indicator,
+                file -> {
+                    List<ScanFinding> findings = ReadAction.compute(() -> scanFile(file, baseDir));
+                    for (ScanFinding finding : findings) {
+                        try {
+                            writer.write(finding);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    return true;
+                });
+    }
+
+    @NotNull
+    private List<ScanFinding> scanFile(@NotNull VirtualFile file, VirtualFile baseDir) {
+        List<ScanFinding> findings = new ArrayList<>();
+        if (!file.isValid()) {
+            return findings;
+        }
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (psiFile == null) {
+            return findings;
+        }
+        Document document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+        String path = baseDir != null ? VfsUtilCore.getRelativePath(file, baseDir) : null;
+        if (path == null) {
+            path = file.getPath();
+        }
+
+        InspectionManager inspectionManager = InspectionManager.getInstance(project);
+        for (ScanRule rule : rules) {
+            long start = System.nanoTime();
+            ProblemsHolder holder = new ProblemsHolder(inspectionManager, psiFile, false);
+            rule.check(psiFile, holder);
+            rule.addTime(System.nanoTime() - start);
+
+            int count = 0;
+            for (ProblemDescriptor descriptor : holder.getResults()) {
+                // 資訊層級的提示（例如電文代號格式提醒）不列入 CI 結果
+                if (descriptor.getHighlightType() == ProblemHighlightType.INFORMATION) {
+                    continue;
+                }
+                PsiElement element = descriptor.getPsiElement();
+                int offset = element != null ? element.getTextRange().getStartOffset() : 0;
+                int line = 1;
+                int column = 1;
+                if (document != null && offset <= document.getTextLength()) {
+                    line = document.getLineNumber(offset) + 1;
+                    column = offset - document.getLineStartOffset(line - 1) + 1;
+                }
+                String message = ProblemDescriptorUtil.renderDescriptionMessage(descriptor, element);
+                findings.add(new ScanFinding(rule.getId(), path, line, column, message));
+                count++;
+            }
+            rule.addFindings(count);
+        }
+        return findings;
+    }
+}
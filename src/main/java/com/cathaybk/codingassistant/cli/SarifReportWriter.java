@@ -0,0 +1,91 @@
+package com.cathaybk.codingassistant.cli;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * SARIF 2.1.0 格式，可直接上傳到支援 SARIF 的 CI 平台；耗時統計放在 invocation 的 properties 中
+ */
+class SarifReportWriter extends ScanReportWriter {
+
+    SarifReportWriter(@NotNull OutputStream out) throws IOException {
+        super(out);
+    }
+
+    @Override
+    public void begin(@NotNull List<ScanRule> rules) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("$schema", "https://json.schemastore.org/sarif-2.1.0.json");
+        generator.writeStringField("version", "2.1.0");
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+
+        generator.writeObjectFieldStart("tool");
+        generator.writeObjectFieldStart("driver");
+        generator.writeStringField("name", "CathayBk Coding Assistant");
+        generator.writeArrayFieldStart("rules");
+        for (ScanRule rule : rules) {
+            generator.writeStartObject();
+            generator.writeStringField("id", rule.getId());
+            generator.writeObjectFieldStart("shortDescription");
+            generator.writeStringField("text", rule.getDescription());
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("results");
+    }
+
+    @Override
+    protected void writeFinding(@NotNull ScanFinding finding) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("ruleId", finding.getRuleId());
+        generator.writeStringField("level", "warning");
+        generator.writeObjectFieldStart("message");
+        generator.writeStringField("text", finding.getMessage());
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("locations");
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("physicalLocation");
+        generator.writeObjectFieldStart("artifactLocation");
+        generator.writeStringField("uri", finding.getPath());
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("region");
+        generator.writeNumberField("startLine", finding.getLine());
+        generator.writeNumberField("startColumn", finding.getColumn());
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void finish(@NotNull List<ScanRule> rules, int fileCount, long wallClockMillis, boolean completed)
+            throws IOException {
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("invocations");
+        generator.writeStartObject();
+        generator.writeBooleanField("executionSuccessful", completed);
+        generator.writeObjectFieldStart("properties");
+        generator.writeNumberField("files", fileCount);
+        generator.writeNumberField("wallClockMillis", wallClockMillis);
+        writeRuleTimings(rules);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,50 @@
+package com.cathaybk.codingassistant.cli;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 命令列掃描找到的一個問題
+ */
+public final class ScanFinding {
+    private final String ruleId;
+    private final String path;
+    private final int line;
+    private final int column;
+    private final String message;
+
+    /**
+     * @param path   相對於專案根目錄的路徑
+     * @param line   行號，從 1 開始
+     * @param column 欄位，從 1 開始
+     */
+    public ScanFinding(@NotNull String ruleId, @NotNull String path, int line, int column, @NotNull String message) {
+        this.ruleId = ruleId;
+        this.path = path;
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    @NotNull
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    @NotNull
+    public String getPath() {
+        return path;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    @NotNull
+    public String getMessage() {
+        return message;
+    }
+}
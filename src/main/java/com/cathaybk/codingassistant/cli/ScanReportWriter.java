@@ -0,0 +1,78 @@
+package com.cathaybk.codingassistant.cli;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 以串流方式輸出掃描結果：找到問題時立即寫出，不在記憶體中累積全部結果
+ */
+public abstract class ScanReportWriter implements Closeable {
+
+    protected final JsonGenerator generator;
+
+    protected ScanReportWriter(@NotNull OutputStream out) throws IOException {
+        this.generator = new JsonFactory().createGenerator(out, JsonEncoding.UTF8).useDefaultPrettyPrinter();
+    }
+
+    /**
+     * 依格式名稱建立輸出器
+     *
+     * @param format {@code json} 或 {@code sarif}
+     */
+    @NotNull
+    public static ScanReportWriter create(@NotNull String format, @NotNull OutputStream out) throws IOException {
+        switch (format) {
+            case "json":
+                return new JsonReportWriter(out);
+            case "sarif":
+                return new SarifReportWriter(out);
+            default:
+                throw new IllegalArgumentException("不支援的輸出格式: " + format);
+        }
+    }
+
+    /**
+     * 寫出檔頭（在任何問題之前呼叫一次）
+     */
+    public abstract void begin(@NotNull List<ScanRule> rules) throws IOException;
+
+    /**
+     * 寫出一個問題，可由多個掃描線程同時呼叫
+     */
+    public final synchronized void write(@NotNull ScanFinding finding) throws IOException {
+        writeFinding(finding);
+    }
+
+    protected abstract void writeFinding(@NotNull ScanFinding finding) throws IOException;
+
+    /**
+     * 寫出耗時統計並結束文件
+     *
+     * @param completed 是否掃描了全部檔案（被取消時為 false）
+     */
+    public abstract void finish(@NotNull List<ScanRule> rules, int fileCount, long wallClockMillis,
+            boolean completed) throws IOException;
+
+    protected void writeRuleTimings(@NotNull List<ScanRule> rules) throws IOException {
+        generator.writeObjectFieldStart("rules");
+        for (ScanRule rule : rules) {
+            generator.writeObjectFieldStart(rule.getId());
+            generator.writeNumberField("millis", rule.getMillis());
+            generator.writeNumberField("findings", rule.getFindings());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.cathaybk.codingassistant.cli;
+
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 命令列掃描的一條規則（包裝既有的檢查器），並累計耗時與問題數量
+ */
+public final class ScanRule {
+
+    /**
+     * 檢查單一檔案並將問題加入 holder
+     */
+    @FunctionalInterface
+    public interface FileChecker {
+        void check(@NotNull PsiFile file, @NotNull ProblemsHolder holder);
+    }
+
+    private final String id;
+    private final String description;
+    private final FileChecker checker;
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger findings = new AtomicInteger();
+
+    /**
+     * 以批次模式（isOnTheFly 為 false）對檔案中每個元素執行檢查器的 visitor
+     */
+    public ScanRule(@NotNull String id, @NotNull String description, @NotNull LocalInspectionTool tool) {
+        this(id, description, (file, holder) -> {
+            PsiElementVisitor visitor = tool.buildVisitor(holder, false);
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(@NotNull PsiElement element) {
+                    element.accept(visitor);
+                    super.visitElement(element);
+                }
+            });
+        });
+    }
+
+    public ScanRule(@NotNull String id, @NotNull String description, @NotNull FileChecker checker) {
+        this.id = id;
+        this.description = description;
+        this.checker = checker;
+    }
+
+    @NotNull
+    public String getId() {
+        return id;
+    }
+
+    @NotNull
+    public String getDescription() {
+        return description;
+    }
+
+    void check(@NotNull PsiFile file, @NotNull ProblemsHolder holder) {
+        checker.check(file, holder);
+    }
+
+    void addTime(long elapsedNanos) {
+        nanos.addAndGet(elapsedNanos);
+    }
+
+    void addFindings(int count) {
+        findings.addAndGet(count);
+    }
+
+    /**
+     * 所有線程執行此規則的累計時間（毫秒）
+     */
+    public long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.get());
+    }
+
+    public int getFindings() {
+        return findings.get();
+    }
+}
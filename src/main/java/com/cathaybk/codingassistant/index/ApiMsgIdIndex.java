@@ -0,0 +1,375 @@
+package com.cathaybk.codingassistant.index;
+
+import com.cathaybk.codingassistant.util.JavadocMsgIdExtractor;
+import com.cathaybk.codingassistant.util.MsgIdMatch;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * 電文代號索引：電文代號 -> 宣告位置（檔案、類、方法、種類、來源）
+ * <p>
+ * 取代各檢查器與動作每次都對 Javadoc 全文執行正則表達式的做法，
+ * 同一檔案只在內容變更時重新解析一次。
+ */
+public class ApiMsgIdIndex extends FileBasedIndexExtension<String, List<ApiMsgIdLocation>> {
+
+    public static final ID<String, List<ApiMsgIdLocation>> NAME = ID.create("com.cathaybk.codingassistant.ApiMsgIdIndex");
+
+    private static final String API_MSG_ID_ANNOTATION = "ApiMsgId";
+
+    @NotNull
+    @Override
+    public ID<String, List<ApiMsgIdLocation>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<ApiMsgIdLocation>, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+            if (!(psiFile instanceof PsiJavaFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, List<ApiMsgIdLocation>> result = new HashMap<>();
+            for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+                indexClass(psiClass, result);
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<ApiMsgIdLocation>> getValueExternalizer() {
+        return new LocationListExternalizer();
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    // ===== 查詢 =====
+
+    /**
+     * 查找指定電文代號在範圍內的所有宣告位置
+     */
+    @NotNull
+    public static Map<VirtualFile, List<ApiMsgIdLocation>> findLocations(@NotNull Project project,
+            @NotNull String msgId, @NotNull GlobalSearchScope scope) {
+        Map<VirtualFile, List<ApiMsgIdLocation>> result = new LinkedHashMap<>();
+        if (DumbService.isDumb(project)) {
+            return result;
+        }
+        FileBasedIndex.getInstance().processValues(NAME, msgId, null, (file, locations) -> {
+            result.computeIfAbsent(file, k -> new ArrayList<>()).addAll(locations);
+            return true;
+        }, scope);
+        return result;
+    }
+
+    /**
+     * 取得類或方法 Javadoc 中的電文代號（包含說明的完整行）
+     *
+     * @return 沒有電文代號時返回 null
+     */
+    @Nullable
+    public static String findJavadocApiId(@Nullable PsiDocCommentOwner owner) {
+        ApiMsgIdLocation location = findLocation(owner, ApiMsgIdLocation.Source.JAVADOC);
+        return location != null ? location.getFullText() : null;
+    }
+
+    /**
+     * 從索引取得類或方法上的電文代號宣告
+     * <p>
+     * 索引不可用時（索引建立中、非實體檔案、寫入操作中 PSI 剛被修改）退回直接解析 PSI。
+     */
+    @Nullable
+    public static ApiMsgIdLocation findLocation(@Nullable PsiDocCommentOwner owner,
+            @NotNull ApiMsgIdLocation.Source source) {
+        if (owner == null || !owner.isValid()) {
+            return null;
+        }
+
+        String className = getOwnerClassName(owner);
+        PsiFile file = owner.getContainingFile();
+        VirtualFile virtualFile = file != null ? file.getVirtualFile() : null;
+        Project project = owner.getProject();
+
+        if (className == null || virtualFile == null || DumbService.isDumb(project)
+                || ApplicationManager.getApplication().isWriteAccessAllowed()) {
+            return parseOwner(owner, className != null ? className : "", source);
+        }
+
+        return findLocation(project, virtualFile, className, getMemberSignature(owner), source);
+    }
+
+    /**
+     * 從指定檔案的索引資料取得類或方法上的電文代號宣告，不需載入 PSI
+     *
+     * @param memberSignature 方法簽名，類本身為空字串
+     */
+    @Nullable
+    public static ApiMsgIdLocation findLocation(@NotNull Project project, @NotNull VirtualFile virtualFile,
+            @NotNull String className, @NotNull String memberSignature, @NotNull ApiMsgIdLocation.Source source) {
+        if (DumbService.isDumb(project)) {
+            return null;
+        }
+
+        Map<String, List<ApiMsgIdLocation>> fileData = FileBasedIndex.getInstance()
+                .getFileData(NAME, virtualFile, project);
+        for (List<ApiMsgIdLocation> locations : fileData.values()) {
+            for (ApiMsgIdLocation location : locations) {
+                if (location.getSource() == source &&
+                        location.getClassName().equals(className) &&
+                        location.getMemberSignature().equals(memberSignature)) {
+                    return location;
+                }
+            }
+        }
+        return null;
+    }
+
+    // ===== 建立索引 =====
+
+    private static void indexClass(PsiClass psiClass, Map<String, List<ApiMsgIdLocation>> result) {
+        String className = psiClass.getQualifiedName();
+        if (className == null) {
+            return;
+        }
+
+        ApiMsgIdLocation.Kind kind = getKind(psiClass);
+        addOwner(psiClass, className, kind, result);
+        for (PsiMethod method : psiClass.getMethods()) {
+            addOwner(method, className, kind, result);
+        }
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            indexClass(innerClass, result);
+        }
+    }
+
+    private static void addOwner(PsiDocCommentOwner owner, String className, ApiMsgIdLocation.Kind kind,
+            Map<String, List<ApiMsgIdLocation>> result) {
+        String memberSignature = getMemberSignature(owner);
+
+        ApiMsgIdLocation fromDoc = parseJavadoc(owner.getDocComment(), className, memberSignature, kind);
+        if (fromDoc != null) {
+            result.computeIfAbsent(fromDoc.getMsgId(), k -> new ArrayList<>()).add(fromDoc);
+        }
+
+        ApiMsgIdLocation fromAnnotation = parseAnnotation(owner, className, memberSignature, kind);
+        if (fromAnnotation != null) {
+            result.computeIfAbsent(fromAnnotation.getMsgId(), k -> new ArrayList<>()).add(fromAnnotation);
+        }
+    }
+
+    @Nullable
+    private static ApiMsgIdLocation parseOwner(PsiDocCommentOwner owner, String className,
+            ApiMsgIdLocation.Source source) {
+        PsiClass ownerClass = owner instanceof PsiClass ? (PsiClass) owner : owner.getContainingClass();
+        ApiMsgIdLocation.Kind kind = ownerClass != null ? getKind(ownerClass) : ApiMsgIdLocation.Kind.OTHER;
+        String memberSignature = getMemberSignature(owner);
+        return source == ApiMsgIdLocation.Source.JAVADOC
+                ? parseJavadoc(owner.getDocComment(), className, memberSignature, kind)
+                : parseAnnotation(owner, className, memberSignature, kind);
+    }
+
+    @Nullable
+    private static ApiMsgIdLocation parseJavadoc(@Nullable PsiDocComment docComment, String className,
+            String memberSignature, ApiMsgIdLocation.Kind kind) {
+        if (docComment == null) {
+            return null;
+        }
+
+        MsgIdMatch match = new MsgIdMatch();
+        if (!JavadocMsgIdExtractor.find(docComment, match)) {
+            return null;
+        }
+
+        String msgId = match.msgId();
+        String description = match.description();
+        return new ApiMsgIdLocation(msgId, description, className, memberSignature, kind,
+                ApiMsgIdLocation.Source.JAVADOC);
+    }
+
+    @Nullable
+    private static ApiMsgIdLocation parseAnnotation(PsiDocCommentOwner owner, String className,
+            String memberSignature, ApiMsgIdLocation.Kind kind) {
+        PsiModifierList modifierList = owner.getModifierList();
+        if (modifierList == null) {
+            return null;
+        }
+
+        // 建立索引時不能解析引用，只比對註解的簡單名稱
+        for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+            if (!API_MSG_ID_ANNOTATION.equals(getShortName(annotation))) {
+                continue;
+            }
+            String msgId = getLiteralAttribute(annotation, "value");
+            if (msgId == null || msgId.isEmpty()) {
+                return null;
+            }
+            String description = getLiteralAttribute(annotation, "description");
+            return new ApiMsgIdLocation(msgId, description != null ? description : "", className,
+                    memberSignature, kind, ApiMsgIdLocation.Source.ANNOTATION);
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String getLiteralAttribute(PsiAnnotation annotation, String attributeName) {
+        PsiAnnotationMemberValue value = annotation.findDeclaredAttributeValue(attributeName);
+        if (value instanceof PsiLiteralExpression) {
+            Object literal = ((PsiLiteralExpression) value).getValue();
+            return literal instanceof String ? ((String) literal).trim() : null;
+        }
+        return null;
+    }
+
+    /**
+     * 依命名與註解簡單名稱判斷類的種類（不解析引用，可在建立索引時使用）
+     */
+    @NotNull
+    public static ApiMsgIdLocation.Kind getKind(@NotNull PsiClass psiClass) {
+        String name = psiClass.getName();
+        if (name == null) {
+            return ApiMsgIdLocation.Kind.OTHER;
+        }
+
+        boolean serviceAnnotated = false;
+        PsiModifierList modifierList = psiClass.getModifierList();
+        if (modifierList != null) {
+            for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+                String shortName = getShortName(annotation);
+                if ("Controller".equals(shortName) || "RestController".equals(shortName)) {
+                    return ApiMsgIdLocation.Kind.CONTROLLER;
+                }
+                if ("Service".equals(shortName)) {
+                    serviceAnnotated = true;
+                }
+            }
+        }
+
+        if (name.contains("Controller")) {
+            return ApiMsgIdLocation.Kind.CONTROLLER;
+        }
+        if (name.contains("Service") && name.contains("Impl")) {
+            return ApiMsgIdLocation.Kind.IMPL;
+        }
+        if (serviceAnnotated) {
+            return psiClass.isInterface() ? ApiMsgIdLocation.Kind.SERVICE : ApiMsgIdLocation.Kind.IMPL;
+        }
+        if (name.contains("Service")) {
+            return ApiMsgIdLocation.Kind.SERVICE;
+        }
+        return ApiMsgIdLocation.Kind.OTHER;
+    }
+
+    @Nullable
+    private static String getShortName(PsiAnnotation annotation) {
+        PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+        return reference != null ? reference.getReferenceName() : null;
+    }
+
+    @Nullable
+    private static String getOwnerClassName(PsiDocCommentOwner owner) {
+        if (owner instanceof PsiClass) {
+            return ((PsiClass) owner).getQualifiedName();
+        }
+        PsiClass containingClass = owner.getContainingClass();
+        return containingClass != null ? containingClass.getQualifiedName() : null;
+    }
+
+    /**
+     * 方法簽名（名稱與參數型別的顯示文字），類本身返回空字串
+     * <p>
+     * 只使用不需解析引用的資訊，建立索引與查詢時的結果才會一致。
+     */
+    @NotNull
+    public static String getMemberSignature(@NotNull PsiDocCommentOwner owner) {
+        if (!(owner instanceof PsiMethod)) {
+            return "";
+        }
+        PsiMethod method = (PsiMethod) owner;
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0)
+                signature.append(',');
+            signature.append(parameters[i].getType().getPresentableText());
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * 索引值的序列化
+     */
+    private static class LocationListExternalizer implements DataExternalizer<List<ApiMsgIdLocation>> {
+        @Override
+        public void save(@NotNull DataOutput out, List<ApiMsgIdLocation> value) throws IOException {
+            DataInputOutputUtil.writeINT(out, value.size());
+            for (ApiMsgIdLocation location : value) {
+                IOUtil.writeUTF(out, location.getMsgId());
+                IOUtil.writeUTF(out, location.getDescription());
+                IOUtil.writeUTF(out, location.getClassName());
+                IOUtil.writeUTF(out, location.getMemberSignature());
+                DataInputOutputUtil.writeINT(out, location.getKind().ordinal());
+                DataInputOutputUtil.writeINT(out, location.getSource().ordinal());
+            }
+        }
+
+        @Override
+        public List<ApiMsgIdLocation> read(@NotNull DataInput in) throws IOException {
+            int size = DataInputOutputUtil.readINT(in);
+            List<ApiMsgIdLocation> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String msgId = IOUtil.readUTF(in);
+                String description = IOUtil.readUTF(in);
+                String className = IOUtil.readUTF(in);
+                String memberSignature = IOUtil.readUTF(in);
+                ApiMsgIdLocation.Kind kind = ApiMsgIdLocation.Kind.values()[DataInputOutputUtil.readINT(in)];
+                ApiMsgIdLocation.Source source = ApiMsgIdLocation.Source.values()[DataInputOutputUtil.readINT(in)];
+                result.add(new ApiMsgIdLocation(msgId, description, className, memberSignature, kind, source));
+            }
+            return result;
+        }
+    }
+}
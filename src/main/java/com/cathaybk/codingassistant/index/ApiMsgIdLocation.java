@@ -0,0 +1,122 @@
+package com.cathaybk.codingassistant.index;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * 電文代號索引中的一筆宣告位置
+ */
+public final class ApiMsgIdLocation {
+
+    /**
+     * 宣告所在類的種類
+     */
+    public enum Kind {
+        CONTROLLER, SERVICE, IMPL, OTHER
+    }
+
+    /**
+     * 電文代號的來源
+     */
+    public enum Source {
+        JAVADOC, ANNOTATION
+    }
+
+    private final String msgId;
+    private final String description;
+    private final String className;
+    private final String memberSignature;
+    private final Kind kind;
+    private final Source source;
+
+    public ApiMsgIdLocation(@NotNull String msgId, @NotNull String description, @NotNull String className,
+            @NotNull String memberSignature, @NotNull Kind kind, @NotNull Source source) {
+        this.msgId = msgId;
+        this.description = description;
+        this.className = className;
+        this.memberSignature = memberSignature;
+        this.kind = kind;
+        this.source = source;
+    }
+
+    /**
+     * 電文代號本身，例如 "RET-B-TAKINGFILE"
+     */
+    @NotNull
+    public String getMsgId() {
+        return msgId;
+    }
+
+    /**
+     * 電文代號後面的說明文字，可能為空字串
+     */
+    @NotNull
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 宣告所在類的完整名稱
+     */
+    @NotNull
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * 方法簽名，類級別的宣告為空字串
+     */
+    @NotNull
+    public String getMemberSignature() {
+        return memberSignature;
+    }
+
+    public boolean isClassLevel() {
+        return memberSignature.isEmpty();
+    }
+
+    @NotNull
+    public Kind getKind() {
+        return kind;
+    }
+
+    @NotNull
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * 取得包含說明的完整電文代號行，與原本 Javadoc 中的寫法一致
+     */
+    @NotNull
+    public String getFullText() {
+        return description.isEmpty() ? msgId : msgId + " " + description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ApiMsgIdLocation))
+            return false;
+        ApiMsgIdLocation that = (ApiMsgIdLocation) o;
+        return msgId.equals(that.msgId) &&
+                description.equals(that.description) &&
+                className.equals(that.className) &&
+                memberSignature.equals(that.memberSignature) &&
+                kind == that.kind &&
+                source == that.source;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(msgId, description, className, memberSignature, kind, source);
+    }
+
+    @Override
+    public String toString() {
+        return getFullText() + " @ " + className + (isClassLevel() ? "" : "#" + memberSignature)
+                + " [" + kind + ", " + source + "]";
+    }
+}
@@ -0,0 +1,63 @@
+package com.cathaybk.codingassistant.index;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Controller API 方法對某個 Service 型別的依賴
+ */
+public final class ServiceDependency {
+    private final String controllerClassName;
+    private final String methodSignature;
+
+    public ServiceDependency(@NotNull String controllerClassName, @NotNull String methodSignature) {
+        this.controllerClassName = controllerClassName;
+        this.methodSignature = methodSignature;
+    }
+
+    /**
+     * Controller 類的完整名稱
+     */
+    @NotNull
+    public String getControllerClassName() {
+        return controllerClassName;
+    }
+
+    /**
+     * API 方法簽名，格式與 {@link ApiMsgIdLocation#getMemberSignature()} 相同
+     */
+    @NotNull
+    public String getMethodSignature() {
+        return methodSignature;
+    }
+
+    /**
+     * API 方法名稱
+     */
+    @NotNull
+    public String getMethodName() {
+        int paren = methodSignature.indexOf('(');
+        return paren < 0 ? methodSignature : methodSignature.substring(0, paren);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ServiceDependency))
+            return false;
+        ServiceDependency that = (ServiceDependency) o;
+        return controllerClassName.equals(that.controllerClassName) && methodSignature.equals(that.methodSignature);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(controllerClassName, methodSignature);
+    }
+
+    @Override
+    public String toString() {
+        return controllerClassName + "#" + methodSignature;
+    }
+}
@@ -0,0 +1,238 @@
+package com.cathaybk.codingassistant.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Controller -> Service 呼叫關係索引：Service 型別簡單名稱 -> 依賴它的 Controller API 方法
+ * <p>
+ * 依賴包括 API 方法的參數、方法內使用的 Controller 字段、局部變量以及 new 表達式。
+ * 建立索引時不能解析引用，因此以型別的簡單名稱為鍵，查詢端在名稱重複時再自行驗證。
+ */
+public class ServiceDependencyIndex extends FileBasedIndexExtension<String, List<ServiceDependency>> {
+
+    public static final ID<String, List<ServiceDependency>> NAME = ID.create("com.cathaybk.codingassistant.ServiceDependencyIndex");
+
+    @NotNull
+    @Override
+    public ID<String, List<ServiceDependency>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<ServiceDependency>, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile psiFile = inputData.getPsiFile();
+            if (!(psiFile instanceof PsiJavaFile)) {
+                return Collections.emptyMap();
+            }
+
+            Map<String, List<ServiceDependency>> result = new HashMap<>();
+            for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+                indexClass(psiClass, result);
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<ServiceDependency>> getValueExternalizer() {
+        return new DependencyListExternalizer();
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    // ===== 查詢 =====
+
+    /**
+     * 反查依賴指定 Service 型別的 Controller API 方法
+     *
+     * @param serviceName Service 類的簡單名稱
+     */
+    @NotNull
+    public static Map<VirtualFile, List<ServiceDependency>> findDependentMethods(@NotNull Project project,
+            @NotNull String serviceName, @NotNull GlobalSearchScope scope) {
+        Map<VirtualFile, List<ServiceDependency>> result = new LinkedHashMap<>();
+        if (DumbService.isDumb(project)) {
+            return result;
+        }
+        FileBasedIndex.getInstance().processValues(NAME, serviceName, null, (file, dependencies) -> {
+            result.computeIfAbsent(file, k -> new ArrayList<>()).addAll(dependencies);
+            return true;
+        }, scope);
+        return result;
+    }
+
+    // ===== 建立索引 =====
+
+    private static void indexClass(PsiClass psiClass, Map<String, List<ServiceDependency>> result) {
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            indexClass(innerClass, result);
+        }
+
+        String className = psiClass.getQualifiedName();
+        if (className == null || ApiMsgIdIndex.getKind(psiClass) != ApiMsgIdLocation.Kind.CONTROLLER) {
+            return;
+        }
+
+        // 字段名稱 -> 型別簡單名稱，用來判斷方法體中對字段的引用
+        Map<String, String> fieldTypes = new HashMap<>();
+        for (PsiField field : psiClass.getFields()) {
+            String typeName = getTypeName(field.getTypeElement());
+            if (typeName != null) {
+                fieldTypes.put(field.getName(), typeName);
+            }
+        }
+
+        for (PsiMethod method : psiClass.getMethods()) {
+            if (!isMappingMethod(method)) {
+                continue;
+            }
+
+            ServiceDependency dependency = new ServiceDependency(className, ApiMsgIdIndex.getMemberSignature(method));
+            for (String serviceName : collectServiceTypes(method, fieldTypes)) {
+                result.computeIfAbsent(serviceName, k -> new ArrayList<>()).add(dependency);
+            }
+        }
+    }
+
+    /**
+     * 收集 API 方法依賴的 Service 型別簡單名稱
+     */
+    private static Set<String> collectServiceTypes(PsiMethod method, Map<String, String> fieldTypes) {
+        Set<String> typeNames = new LinkedHashSet<>();
+
+        // 方法參數
+        for (PsiParameter parameter : method.getParameterList().getParameters()) {
+            addIfService(typeNames, getTypeName(parameter.getTypeElement()));
+        }
+
+        PsiCodeBlock body = method.getBody();
+        if (body != null) {
+            body.accept(new JavaRecursiveElementWalkingVisitor() {
+                // 局部變量
+                @Override
+                public void visitLocalVariable(@NotNull PsiLocalVariable variable) {
+                    super.visitLocalVariable(variable);
+                    addIfService(typeNames, getTypeName(variable.getTypeElement()));
+                }
+
+                // new ServiceImpl()
+                @Override
+                public void visitNewExpression(@NotNull PsiNewExpression expression) {
+                    super.visitNewExpression(expression);
+                    PsiJavaCodeReferenceElement classReference = expression.getClassReference();
+                    if (classReference != null) {
+                        addIfService(typeNames, classReference.getReferenceName());
+                    }
+                }
+
+                // 對 Controller 字段的引用（無限定或 this.xxx）
+                @Override
+                public void visitReferenceExpression(@NotNull PsiReferenceExpression expression) {
+                    super.visitReferenceExpression(expression);
+                    PsiExpression qualifier = expression.getQualifierExpression();
+                    if (qualifier == null || qualifier instanceof PsiThisExpression) {
+                        String name = expression.getReferenceName();
+                        if (name != null) {
+                            addIfService(typeNames, fieldTypes.get(name));
+                        }
+                    }
+                }
+            });
+        }
+        return typeNames;
+    }
+
+    private static void addIfService(Set<String> typeNames, @Nullable String typeName) {
+        if (typeName != null && typeName.contains("Service")) {
+            typeNames.add(typeName);
+        }
+    }
+
+    /**
+     * 判斷方法是否有 @XxxMapping 註解（只比對簡單名稱）
+     */
+    static boolean isMappingMethod(@NotNull PsiMethod method) {
+        for (PsiAnnotation annotation : method.getModifierList().getAnnotations()) {
+            PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+            String shortName = reference != null ? reference.getReferenceName() : null;
+            if (shortName != null && shortName.endsWith("Mapping")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static String getTypeName(@Nullable PsiTypeElement typeElement) {
+        if (typeElement == null) {
+            return null;
+        }
+        PsiJavaCodeReferenceElement reference = typeElement.getInnermostComponentReferenceElement();
+        return reference != null ? reference.getReferenceName() : null;
+    }
+
+    /**
+     * 索引值的序列化
+     */
+    private static class DependencyListExternalizer implements DataExternalizer<List<ServiceDependency>> {
+        @Override
+        public void save(@NotNull DataOutput out, List<ServiceDependency> value) throws IOException {
+            DataInputOutputUtil.writeINT(out, value.size());
+            for (ServiceDependency dependency : value) {
+                IOUtil.writeUTF(out, dependency.getControllerClassName());
+                IOUtil.writeUTF(out, dependency.getMethodSignature());
+            }
+        }
+
+        @Override
+        public List<ServiceDependency> read(@NotNull DataInput in) throws IOException {
+            int size = DataInputOutputUtil.readINT(in);
+            List<ServiceDependency> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(new ServiceDependency(IOUtil.readUTF(in), IOUtil.readUTF(in)));
+            }
+            return result;
+        }
+    }
+}
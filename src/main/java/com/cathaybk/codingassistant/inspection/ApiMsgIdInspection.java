@@ -1,5 +1,9 @@
 package com.cathaybk.codingassistant.inspection;
 
+import com.cathaybk.codingassistant.index.ApiMsgIdIndex;
+import com.cathaybk.codingassistant.metrics.InspectionEvent;
+import com.cathaybk.codingassistant.util.JavadocBatchRewriter;
+import com.cathaybk.codingassistant.util.MappingAnnotations;
 import com.intellij.codeInspection.*;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.*;
@@ -10,16 +14,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 檢查 Controller 中的 API 方法是否有正確的 電文代號 註解
  */
 public class ApiMsgIdInspection extends AbstractBaseJavaLocalInspectionTool {
 
-    private static final Pattern API_ID_PATTERN = Pattern.compile("([A-Za-z0-9]+-[A-Za-z0-9]+-[A-Za-z0-9]+.*)");
-
     @NotNull
     @Override
     public String getShortName() {
@@ -41,6 +41,20 @@ public class ApiMsgIdInspection extends AbstractBaseJavaLocalInspectionTool {
     @Override
     public ProblemDescriptor @Nullable [] checkMethod(@NotNull PsiMethod method, @NotNull InspectionManager manager,
             boolean isOnTheFly) {
+        InspectionEvent event = InspectionEvent.start(getShortName());
+        ProblemDescriptor[] result = null;
+        try {
+            result = doCheckMethod(method, manager, isOnTheFly);
+            return result;
+        } finally {
+            PsiClass containingClass = method.getContainingClass();
+            event.finish(containingClass != null ? containingClass.getName() : null, method.getName(),
+                    result != null ? result.length : 0);
+        }
+    }
+
+    private ProblemDescriptor @Nullable [] doCheckMethod(@NotNull PsiMethod method, @NotNull InspectionManager manager,
+            boolean isOnTheFly) {
         // 檢查是否是Controller方法
         if (!isControllerMethod(method)) {
             return null;
@@ -55,13 +69,9 @@ public class ApiMsgIdInspection extends AbstractBaseJavaLocalInspectionTool {
             };
         }
 
-        // 檢查Javadoc註解中是否包含正確格式的電文代號
-        String docText = docComment.getText();
-
-        // 使用更寬鬆的正則表達式檢查格式：前面是電文代號格式，後面跟隨空格和說明文字
-        // 允許前段由字母、數字和連字符組成，不強制特定格式
-        Matcher matcher = API_ID_PATTERN.matcher(docText);
-        if (!matcher.find()) {
+        // 從電文代號索引查詢Javadoc註解中是否包含正確格式的電文代號
+        String apiId = ApiMsgIdIndex.findJavadocApiId(method);
+        if (apiId == null) {
             // 找不到符合格式的電文代號
             return new ProblemDescriptor[] {
                     createProblemDescriptor(method, manager, isOnTheFly)
@@ -70,7 +80,7 @@ public class ApiMsgIdInspection extends AbstractBaseJavaLocalInspectionTool {
 
         // 有符合的電文代號，檢查是否需要同步到 Service
         return new ProblemDescriptor[] {
-                createSyncProblemDescriptor(method, manager, isOnTheFly, matcher.group(1))
+                createSyncProblemDescriptor(method, manager, isOnTheFly, apiId)
         };
     }
 
@@ -81,11 +91,7 @@ public class ApiMsgIdInspection extends AbstractBaseJavaLocalInspectionTool {
         // 檢查方法是否有@PostMapping、@GetMapping等註解
         PsiAnnotation[] annotations = method.getModifierList().getAnnotations();
         for (PsiAnnotation annotation : annotations) {
-            String qualifiedName = annotation.getQualifiedName();
-            if (qualifiedName != null && (qualifiedName.endsWith("Mapping") ||
-                    qualifiedName.contains("RequestMapping") ||
-                    qualifiedName.contains("PostMapping") ||
-                    qualifiedName.contains("GetMapping"))) {
+            if (MappingAnnotations.isMapping(annotation.getQualifiedName())) {
                 return true;
             }
         }
@@ -145,19 +151,11 @@ public class ApiMsgIdInspection extends AbstractBaseJavaLocalInspectionTool {
 
                 PsiMethod method = (PsiMethod) element.getParent();
 
-                // 創建一個新的Javadoc註解
-                PsiElementFactory factory = JavaPsiFacade.getElementFactory(project);
+                // 已有註解則替換，否則新增；直接改寫文件而不是替換 PSI
                 String apiId = generateApiId(method);
-                PsiDocComment newDocComment = factory.createDocCommentFromText(
-                        "/**\n * " + apiId + " [請填寫API描述]\n */");
-
-                // 如果已有註解則替換，否則新增
-                PsiDocComment existingComment = method.getDocComment();
-                if (existingComment != null) {
-                    existingComment.replace(newDocComment);
-                } else {
-                    method.addBefore(newDocComment, method.getModifierList());
-                }
+                JavadocBatchRewriter rewriter = new JavadocBatchRewriter(project);
+                rewriter.setApiId(method, apiId + " [請填寫API描述]");
+                rewriter.apply();
             } catch (IncorrectOperationException e) {
                 // 忽略異常
             }
@@ -0,0 +1,101 @@
+package com.cathaybk.codingassistant.inspection;
+
+import com.cathaybk.codingassistant.index.ApiMsgIdIndex;
+import com.cathaybk.codingassistant.util.MappingAnnotations;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一組 Controller 中有電文代號的 API 方法與類，供退回掃描使用
+ * <p>
+ * 篩選映射註解與讀取 Javadoc 只做一次；全域檢查在整次執行中共用同一份所有 Controller 的結果。
+ * 建立後唯讀，可由多個線程同時讀取。
+ */
+final class ControllerApis {
+
+    static final ControllerApis EMPTY = new ControllerApis(Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList(), Collections.emptyList());
+
+    private final List<PsiMethod> methods;
+    private final List<String> methodApiIds;
+    private final List<PsiClass> classes;
+    private final List<String> classApiIds;
+
+    private ControllerApis(List<PsiMethod> methods, List<String> methodApiIds, List<PsiClass> classes,
+            List<String> classApiIds) {
+        this.methods = methods;
+        this.methodApiIds = methodApiIds;
+        this.classes = classes;
+        this.classApiIds = classApiIds;
+    }
+
+    /**
+     * 依 Controller 順序收集有電文代號的映射方法與類級別電文代號
+     */
+    static ControllerApis collect(Collection<PsiClass> controllers) {
+        List<PsiMethod> methods = new ArrayList<>();
+        List<String> methodApiIds = new ArrayList<>();
+        List<PsiClass> classes = new ArrayList<>();
+        List<String> classApiIds = new ArrayList<>();
+        for (PsiClass controller : controllers) {
+            ProgressManager.checkCanceled();
+            for (PsiMethod method : controller.getMethods()) {
+                if (!isApiMethod(method)) {
+                    continue;
+                }
+                String apiId = ApiMsgIdIndex.findJavadocApiId(method);
+                if (apiId != null) {
+                    methods.add(method);
+                    methodApiIds.add(apiId);
+                }
+            }
+
+            String classApiId = ApiMsgIdIndex.findJavadocApiId(controller);
+            if (classApiId != null) {
+                classes.add(controller);
+                classApiIds.add(classApiId);
+            }
+        }
+        return new ControllerApis(methods, methodApiIds, classes, classApiIds);
+    }
+
+    private static boolean isApiMethod(PsiMethod method) {
+        for (PsiAnnotation annotation : method.getModifierList().getAnnotations()) {
+            if (MappingAnnotations.isMapping(annotation.getQualifiedName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getMethodCount() {
+        return methods.size();
+    }
+
+    PsiMethod getMethod(int index) {
+        return methods.get(index);
+    }
+
+    String getMethodApiId(int index) {
+        return methodApiIds.get(index);
+    }
+
+    int getClassCount() {
+        return classes.size();
+    }
+
+    PsiClass getClass(int index) {
+        return classes.get(index);
+    }
+
+    String getClassApiId(int index) {
+        return classApiIds.get(index);
+    }
+}
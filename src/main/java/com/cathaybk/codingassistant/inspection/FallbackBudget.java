@@ -0,0 +1,63 @@
+package com.cathaybk.codingassistant.inspection;
+
+import com.intellij.openapi.progress.ProgressManager;
+
+/**
+ * 退回掃描所有 Controller 時的成本上限
+ * <p>
+ * 即時高亮時以 API 方法數與經過時間限制掃描範圍，超出時停止並使用已找到的部分結果；
+ * 批次檢查（Analyze | Inspect Code、命令列掃描）使用 {@link #UNLIMITED} 完整掃描。
+ * 每次消耗額度時都呼叫 {@link ProgressManager#checkCanceled()}，使用者輸入時可立即中止。
+ * 非線程安全，每次查找各自建立。
+ */
+final class FallbackBudget {
+
+    static final FallbackBudget UNLIMITED = new FallbackBudget(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int maxMethods;
+    private final long deadlineNanos;
+    private int usedMethods;
+    private boolean exhausted;
+
+    private FallbackBudget(int maxMethods, long deadlineNanos) {
+        this.maxMethods = maxMethods;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param maxMethods    最多檢查幾個 API 方法的引用
+     * @param timeoutMillis 從現在起最多使用的時間
+     */
+    static FallbackBudget limited(int maxMethods, int timeoutMillis) {
+        return new FallbackBudget(maxMethods, System.nanoTime() + timeoutMillis * 1_000_000L);
+    }
+
+    boolean isLimited() {
+        return this != UNLIMITED;
+    }
+
+    /**
+     * 消耗一個 API 方法的額度
+     *
+     * @return 是否還有額度；返回 false 後呼叫端應停止掃描
+     */
+    boolean tryConsume() {
+        ProgressManager.checkCanceled();
+        if (!isLimited()) {
+            return true;
+        }
+        if (exhausted || usedMethods >= maxMethods || System.nanoTime() - deadlineNanos > 0) {
+            exhausted = true;
+            return false;
+        }
+        usedMethods++;
+        return true;
+    }
+
+    /**
+     * 是否因超出上限而提前停止（結果可能不完整）
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+}
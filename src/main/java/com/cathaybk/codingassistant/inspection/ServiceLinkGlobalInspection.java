@@ -0,0 +1,84 @@
+package com.cathaybk.codingassistant.inspection;
+
+import com.intellij.codeInspection.GlobalInspectionContext;
+import com.intellij.codeInspection.GlobalSimpleInspectionTool;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemDescriptionsProcessor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.JavaRecursiveElementWalkingVisitor;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * Service 關聯檢查中需要掃描整個專案的部分，只在 Inspect Code 等批次檢查時執行
+ * <p>
+ * {@link ServiceLinkInspection} 只讀取 Javadoc 與依賴索引，編輯時不延遲高亮；
+ * 索引找不到關聯（例如 Service 字段宣告在 Controller 的父類中）的 Service 類由此檢查退回掃描 Controller。
+ * 兩者互補，同一個類不會重複報告。所有 Controller 的 API 方法在每次執行中只收集一次，由所有檔案共用。
+ */
+public class ServiceLinkGlobalInspection extends GlobalSimpleInspectionTool {
+
+    private static final Key<ServiceLinkTable> TABLE_KEY = Key.create("cathaybk.serviceLink.table");
+
+    @NotNull
+    @Override
+    public String getShortName() {
+        return "ServiceLinkGlobalInspection";
+    }
+
+    @Override
+    public void inspectionStarted(@NotNull InspectionManager manager, @NotNull GlobalInspectionContext globalContext,
+            @NotNull ProblemDescriptionsProcessor problemDescriptionsProcessor) {
+        globalContext.putUserData(TABLE_KEY, new ServiceLinkTable(globalContext.getProject()));
+    }
+
+    @Override
+    public void inspectionFinished(@NotNull InspectionManager manager, @NotNull GlobalInspectionContext globalContext,
+            @NotNull ProblemDescriptionsProcessor problemDescriptionsProcessor) {
+        globalContext.putUserData(TABLE_KEY, null);
+    }
+
+    @Override
+    public void checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+            @NotNull ProblemsHolder problemsHolder, @NotNull GlobalInspectionContext globalContext,
+            @NotNull ProblemDescriptionsProcessor problemDescriptionsProcessor) {
+        ServiceLinkTable table = globalContext.getUserData(TABLE_KEY);
+        if (table != null) {
+            checkFile(file, problemsHolder, table);
+        }
+    }
+
+    /**
+     * 檢查檔案中索引找不到關聯的 Service 類（命令列掃描也使用）
+     */
+    public static void checkFile(@NotNull PsiFile file, @NotNull ProblemsHolder holder,
+            @NotNull ServiceLinkTable table) {
+        if (!(file instanceof PsiJavaFile)) {
+            return;
+        }
+        file.accept(new JavaRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitClass(@NotNull PsiClass aClass) {
+                super.visitClass(aClass);
+                if (!ServiceLinkInspection.isServiceClassName(aClass.getName())
+                        || ServiceLinkInspection.hasOwnApiId(aClass)) {
+                    return;
+                }
+                // 索引找得到的由 ServiceLinkInspection 報告
+                if (!ServiceLinkInspection.getLinkedApiIds(aClass).isEmpty()) {
+                    return;
+                }
+
+                Map<String, String> controllerApiIds = table.findFallbackLinkedApiIds(aClass);
+                if (!controllerApiIds.isEmpty()) {
+                    ServiceLinkInspection.registerProblem(aClass, holder, controllerApiIds);
+                }
+            }
+        });
+    }
+}
@@ -1,15 +1,33 @@
 package com.cathaybk.codingassistant.inspection;
 
+import com.cathaybk.codingassistant.index.ApiMsgIdIndex;
+import com.cathaybk.codingassistant.index.ApiMsgIdLocation;
+import com.cathaybk.codingassistant.index.ServiceDependency;
+import com.cathaybk.codingassistant.index.ServiceDependencyIndex;
+import com.cathaybk.codingassistant.metrics.ApiIdLookupEvent;
+import com.cathaybk.codingassistant.metrics.MsgIdMetrics;
+import com.cathaybk.codingassistant.util.InheritorCache;
+import com.cathaybk.codingassistant.util.JavadocBatchRewriter;
+import com.cathaybk.codingassistant.util.SpringStereotypeRegistry;
 import com.intellij.codeInspection.AbstractBaseJavaLocalInspectionTool;
 import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
-import com.intellij.psi.javadoc.PsiDocComment;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.search.searches.ReferencesSearch;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.search.PsiShortNamesCache;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -17,17 +35,39 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 檢查Service類是否有關聯的Controller 電文代號註解
  */
 public class ServiceLinkInspection extends AbstractBaseJavaLocalInspectionTool {
+    private static final Logger LOG = Logger.getInstance(ServiceLinkInspection.class);
 
-    // 定義電文代號的正則表達式模式 - 匹配整行內容，包括電文代號和描述
-    private static final Pattern API_ID_PATTERN = Pattern.compile("([A-Za-z0-9]+-[A-Za-z0-9]+-[A-Za-z0-9]+.*)");
+    private static final Key<CachedValue<Map<String, String>>> CONTROLLER_API_IDS_KEY = Key
+            .create("cathaybk.serviceLink.controllerApiIds");
+    private static final Key<CachedValue<Map<String, String>>> LINKED_API_IDS_KEY = Key
+            .create("cathaybk.serviceLink.linkedApiIds");
+    // 即時高亮的退回掃描結果可能因超出上限而不完整，與索引查找的結果分開快取
+    private static final Key<CachedValue<Map<String, String>>> BUDGETED_FALLBACK_API_IDS_KEY = Key
+            .create("cathaybk.serviceLink.fallbackApiIds.budgeted");
+    private static final Key<CachedValue<Map<String, String>>> BUDGETED_LINKED_FALLBACK_API_IDS_KEY = Key
+            .create("cathaybk.serviceLink.linkedFallbackApiIds.budgeted");
+
+    static final String PROBLEM_MESSAGE = "Service類可能需要添加來自Controller的電文代號註解";
+
+    /**
+     * 即時高亮時退回掃描所有 Controller 最多檢查的 API 方法數；0 表示編輯時只讀取索引，
+     * 退回掃描交給 {@link ServiceLinkGlobalInspection} 在 Inspect Code 時執行
+     */
+    public int fallbackMethodBudget = 0;
+
+    /**
+     * 即時高亮時退回掃描所有 Controller 最多使用的時間（毫秒）
+     */
+    public int fallbackTimeoutMillis = 100;
 
     @NotNull
     @Override
@@ -35,359 +75,387 @@ public class ServiceLinkInspection extends AbstractBaseJavaLocalInspectionTool {
         return "ServiceLinkInspection";
     }
 
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return OptPane.pane(
+                OptPane.number("fallbackMethodBudget", "即時檢查時退回掃描最多檢查的 API 方法數（0 表示只讀取索引）", 0,
+                        100_000),
+                OptPane.number("fallbackTimeoutMillis", "即時檢查時退回掃描最多使用的時間（毫秒）", 1, 60_000));
+    }
+
     @NotNull
     @Override
     public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
         return new JavaElementVisitor() {
             @Override
             public void visitClass(PsiClass aClass) {
-                // 只檢查Service或ServiceImpl類
-                String className = aClass.getName();
-                System.out.println("檢查類: " + className);
+                MsgIdMetrics.count(MsgIdMetrics.Counter.CLASSES_VISITED);
 
-                if (className == null || !(className.contains("Service") || className.contains("ServiceImpl"))) {
+                if (!isServiceClassName(aClass.getName())) {
                     return;
                 }
 
-                System.out.println("檢查Service類: " + className);
+                long start = MsgIdMetrics.start();
+                try {
+                    checkServiceClass(aClass, holder, isOnTheFly);
+                } finally {
+                    MsgIdMetrics.stop(MsgIdMetrics.Phase.VISIT_CLASS, start);
+                }
+            }
+        };
+    }
 
-                // 檢查是否已經有電文代號 Javadoc註解
-                PsiDocComment docComment = aClass.getDocComment();
-                boolean hasApiIdFormat = false;
+    /**
+     * 只檢查Service或ServiceImpl類
+     */
+    static boolean isServiceClassName(String className) {
+        return className != null && className.contains("Service");
+    }
 
-                if (docComment != null) {
-                    String docText = docComment.getText();
-                    hasApiIdFormat = API_ID_PATTERN.matcher(docText).find();
-                    System.out.println("Service類 " + className + " 的文檔註解: " + docText);
-                    System.out.println("已有電文代號格式? " + hasApiIdFormat);
-                } else {
-                    System.out.println("Service類 " + className + " 沒有文檔註解");
-                }
+    /**
+     * 檢查 Service 類，沒有電文代號但可以從 Controller 取得時註冊問題
+     * <p>
+     * 只讀取 Javadoc 與依賴索引；索引找不到時的退回掃描由 {@link ServiceLinkGlobalInspection} 負責，
+     * 除非設定了 {@link #fallbackMethodBudget}，才在即時高亮時做有上限的退回掃描。
+     */
+    private void checkServiceClass(PsiClass aClass, ProblemsHolder holder, boolean isOnTheFly) {
+        MsgIdMetrics.count(MsgIdMetrics.Counter.SERVICE_CLASSES_CHECKED);
 
-                if (hasApiIdFormat) {
-                    return;
-                }
+        // 檢查是否已經有電文代號 Javadoc註解
+        if (hasOwnApiId(aClass)) {
+            return;
+        }
 
-                // 查找使用此Service的Controller方法
-                Map<String, String> controllerApiIds = findControllerApiIds(aClass);
-
-                // 如果是實現類，且未找到相關電文代號，嘗試查找對應接口的電文代號
-                if (controllerApiIds.isEmpty() && className.contains("Impl")) {
-                    System.out.println("嘗試查找對應接口的電文代號...");
-                    // 從實現類名推斷接口名
-                    String possibleInterfaceName = className.replace("Impl", "");
-
-                    // 檢查實現的接口
-                    for (PsiClassType interfaceType : aClass.getImplementsListTypes()) {
-                        PsiClass interfaceClass = interfaceType.resolve();
-                        if (interfaceClass != null && interfaceClass.getName() != null) {
-                            System.out.println("檢查實現的接口: " + interfaceClass.getName());
-
-                            // 查找接口的電文代號
-                            Map<String, String> interfaceApiIds = findControllerApiIds(interfaceClass);
-                            if (!interfaceApiIds.isEmpty()) {
-                                System.out.println("使用接口 " + interfaceClass.getName() + " 的電文代號");
-                                controllerApiIds.putAll(interfaceApiIds);
-                                break;
-                            }
-
-                            // 檢查接口的Javadoc註解
-                            PsiDocComment interfaceDoc = interfaceClass.getDocComment();
-                            if (interfaceDoc != null) {
-                                String interfaceDocText = interfaceDoc.getText();
-                                Matcher matcher = API_ID_PATTERN.matcher(interfaceDocText);
-                                if (matcher.find()) {
-                                    String apiId = matcher.group(1);
-                                    System.out.println("從接口獲取電文代號: " + apiId);
-                                    controllerApiIds.put(interfaceClass.getName(), apiId);
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                }
+        // 查找使用此Service的Controller方法（實現類找不到時改查其接口），結果依 Java PSI 修改快取
+        Map<String, String> controllerApiIds = getLinkedApiIds(aClass);
+        if (controllerApiIds.isEmpty() && isOnTheFly && fallbackMethodBudget > 0) {
+            controllerApiIds = getCached(aClass, BUDGETED_LINKED_FALLBACK_API_IDS_KEY,
+                    () -> computeLinkedApiIds(aClass, this::getBudgetedFallbackApiIds, false));
+        }
+        if (!controllerApiIds.isEmpty()) {
+            registerProblem(aClass, holder, controllerApiIds);
+        }
+    }
 
-                // 如果本身有電文代號，也應該提示同步到其他相關類
-                if (controllerApiIds.isEmpty() && hasApiIdFormat) {
-                    String currentApiId = extractApiIdFromDoc(docComment.getText());
-                    if (currentApiId != null) {
-                        System.out.println("從當前類獲取電文代號: " + currentApiId);
-                        controllerApiIds.put(className, currentApiId);
-                    }
-                }
+    static boolean hasOwnApiId(PsiClass aClass) {
+        return aClass.getDocComment() != null && ApiMsgIdIndex.findJavadocApiId(aClass) != null;
+    }
 
-                System.out.println("找到關聯的Controller API IDs: " + controllerApiIds.size() + " 個");
-                for (Map.Entry<String, String> entry : controllerApiIds.entrySet()) {
-                    System.out.println("方法: " + entry.getKey() + ", 電文代號: " + entry.getValue());
-                }
+    static void registerProblem(PsiClass aClass, ProblemsHolder holder, Map<String, String> controllerApiIds) {
+        MsgIdMetrics.count(MsgIdMetrics.Counter.PROBLEMS_REGISTERED);
+        holder.registerProblem(
+                aClass.getNameIdentifier() != null ? aClass.getNameIdentifier() : aClass,
+                PROBLEM_MESSAGE,
+                new AddServiceApiIdQuickFix(controllerApiIds));
+    }
 
-                if (!controllerApiIds.isEmpty()) {
-                    System.out.println("註冊問題: Service類 " + className + " 需要添加電文代號註解");
-                    holder.registerProblem(
-                            aClass.getNameIdentifier() != null ? aClass.getNameIdentifier() : aClass,
-                            "Service類可能需要添加來自Controller的電文代號註解",
-                            new AddServiceApiIdQuickFix(controllerApiIds));
-                } else {
-                    System.out.println("未找到關聯的Controller 電文代號，不註冊問題");
+    /**
+     * 從 Javadoc 與依賴索引取得 Service 類關聯的 Controller 電文代號，實現類找不到時改查其實現的接口（快取）
+     */
+    static Map<String, String> getLinkedApiIds(PsiClass aClass) {
+        return getCached(aClass, LINKED_API_IDS_KEY,
+                () -> computeLinkedApiIds(aClass, ServiceLinkInspection::getIndexedApiIds, true));
+    }
+
+    /**
+     * 從 Javadoc 與依賴索引取得服務類對應的 Controller 電文代號（快取）
+     */
+    private static Map<String, String> getIndexedApiIds(PsiClass aClass) {
+        return getCached(aClass, CONTROLLER_API_IDS_KEY, () -> {
+            long start = MsgIdMetrics.start();
+            ApiIdLookupEvent event = ApiIdLookupEvent.start(ApiIdLookupEvent.ALL);
+            Map<String, String> result = null;
+            try {
+                result = findIndexedApiIds(aClass);
+                return result;
+            } finally {
+                MsgIdMetrics.stop(MsgIdMetrics.Phase.FIND_CONTROLLER_API_IDS, start);
+                event.finish(aClass.getName(), result != null ? result.size() : 0);
+            }
+        });
+    }
+
+    /**
+     * 即時高亮時有上限的退回掃描（快取）
+     */
+    private Map<String, String> getBudgetedFallbackApiIds(PsiClass aClass) {
+        return getCached(aClass, BUDGETED_FALLBACK_API_IDS_KEY, () -> findFallbackApiIds(aClass,
+                FallbackBudget.limited(fallbackMethodBudget, fallbackTimeoutMillis),
+                () -> ControllerApis.collect(findAllControllers(aClass.getProject()))));
+    }
+
+    /**
+     * 以 CachedValuesManager 快取計算結果，依賴 Java 語言的 PSI 修改計數
+     * <p>
+     * 結果依賴 Controller 方法體內的 Service 呼叫（依賴索引與退回掃描），方法體內的修改也必須使快取失效，
+     * 因此不能使用只追蹤類結構的計數；改用 Java 語言的計數只是讓 XML、properties 等其他語言檔案的修改
+     * 不再使快取失效。返回的是副本，呼叫端可以自由修改。
+     */
+    private static Map<String, String> getCached(PsiClass aClass, Key<CachedValue<Map<String, String>>> key,
+            Supplier<Map<String, String>> computation) {
+        MsgIdMetrics.count(MsgIdMetrics.Counter.CACHE_REQUESTS);
+        Map<String, String> cached = CachedValuesManager.getCachedValue(aClass, key, () -> {
+            MsgIdMetrics.count(MsgIdMetrics.Counter.CACHE_MISSES);
+            return CachedValueProvider.Result.create(Collections.unmodifiableMap(computation.get()),
+                    PsiModificationTracker.getInstance(aClass.getProject()).forLanguage(JavaLanguage.INSTANCE));
+        });
+        return new HashMap<>(cached);
+    }
+
+    /**
+     * 查找 Service 類關聯的 Controller 電文代號，實現類找不到時改查其實現的接口
+     *
+     * @param lookup               單一類的查找方式（索引或退回掃描）
+     * @param checkInterfaceJavadoc 是否也採用接口本身 Javadoc 的電文代號
+     */
+    static Map<String, String> computeLinkedApiIds(PsiClass aClass, Function<PsiClass, Map<String, String>> lookup,
+            boolean checkInterfaceJavadoc) {
+        String className = aClass.getName();
+        Map<String, String> controllerApiIds = lookup.apply(aClass);
+
+        // 如果是實現類，且未找到相關電文代號，嘗試查找對應接口的電文代號
+        if (controllerApiIds.isEmpty() && className != null && className.contains("Impl")) {
+            // 檢查實現的接口
+            for (PsiClassType interfaceType : aClass.getImplementsListTypes()) {
+                PsiClass interfaceClass = interfaceType.resolve();
+                if (interfaceClass != null && interfaceClass.getName() != null) {
+                    // 查找接口的電文代號
+                    Map<String, String> interfaceApiIds = lookup.apply(interfaceClass);
+                    if (!interfaceApiIds.isEmpty()) {
+                        controllerApiIds.putAll(interfaceApiIds);
+                        break;
+                    }
+
+                    // 檢查接口的Javadoc註解
+                    String apiId = checkInterfaceJavadoc ? ApiMsgIdIndex.findJavadocApiId(interfaceClass) : null;
+                    if (apiId != null) {
+                        controllerApiIds.put(interfaceClass.getName(), apiId);
+                        break;
+                    }
                 }
             }
-        };
+        }
+
+        return controllerApiIds;
     }
 
     /**
-     * 查找服務類對應的 Controller 電文代號
-     * 
+     * 從 Javadoc 與依賴索引查找服務類對應的 Controller 電文代號，不解析方法體也不掃描 Controller
+     *
      * @param aClass Service 類
      * @return 電文代號和描述的映射
      */
-    private Map<String, String> findControllerApiIds(PsiClass aClass) {
+    private static Map<String, String> findIndexedApiIds(PsiClass aClass) {
         Map<String, String> result = new HashMap<>();
         String className = aClass.getName();
         if (className == null)
             return result;
 
-        System.out.println("尋找 " + className + " 相關的 Controller 電文代號");
-
         try {
             // 1. 先檢查自身是否有 API ID
-            PsiDocComment docComment = aClass.getDocComment();
-            if (docComment != null) {
-                String docText = docComment.getText();
-                Matcher matcher = API_ID_PATTERN.matcher(docText);
-                if (matcher.find()) {
-                    String apiId = matcher.group(1);
-                    System.out.println("  類自身有電文代號: " + apiId);
-                    result.put(className, apiId);
-                    return result;
-                }
+            ApiIdLookupEvent event = ApiIdLookupEvent.start("ownJavadoc");
+            String ownApiId = ApiMsgIdIndex.findJavadocApiId(aClass);
+            event.finish(className, ownApiId != null ? 1 : 0);
+            if (ownApiId != null) {
+                result.put(className, ownApiId);
+                return result;
             }
 
             // 2. 如果這是一個實現類，檢查它實現的接口是否有 API ID
             if (className.contains("Impl")) {
+                event = ApiIdLookupEvent.start("interfaceJavadoc");
                 for (PsiClassType interfaceType : aClass.getImplementsListTypes()) {
                     PsiClass interfaceClass = interfaceType.resolve();
                     if (interfaceClass != null) {
-                        PsiDocComment interfaceDoc = interfaceClass.getDocComment();
-                        if (interfaceDoc != null) {
-                            String interfaceDocText = interfaceDoc.getText();
-                            Matcher matcher = API_ID_PATTERN.matcher(interfaceDocText);
-                            if (matcher.find()) {
-                                String apiId = matcher.group(1);
-                                System.out.println("  實現的接口有電文代號: " + apiId);
-                                result.put(interfaceClass.getName(), apiId);
-                                return result;
-                            }
+                        String apiId = ApiMsgIdIndex.findJavadocApiId(interfaceClass);
+                        if (apiId != null) {
+                            result.put(interfaceClass.getName(), apiId);
+                            break;
                         }
                     }
                 }
-            }
-
-            // 4. 查找引用 Service 的 Controller 方法
-            Collection<PsiReference> references = ReferencesSearch
-                    .search(aClass, GlobalSearchScope.projectScope(aClass.getProject())).findAll();
-            System.out.println("  找到 " + references.size() + " 個引用");
-
-            // 首先優先查找方法級別的引用和API ID
-            boolean foundMethodLevelApiId = false;
-            for (PsiReference reference : references) {
-                System.out.println("  檢查引用: " + reference.getElement().getText());
-
-                PsiMethod containingMethod = PsiTreeUtil.getParentOfType(reference.getElement(), PsiMethod.class);
-                if (containingMethod != null) {
-                    System.out.println("  引用在方法: " + containingMethod.getName() + " 中");
-
-                    PsiClass containingClass = containingMethod.getContainingClass();
-                    if (containingClass != null && containingClass.getName() != null) {
-                        String containingClassName = containingClass.getName();
-                        System.out.println("  方法所屬類: " + containingClassName);
-
-                        if (containingClassName.contains("Controller")) {
-                            // 檢查方法是否有API映射註解
-                            boolean isApiMethod = false;
-                            for (PsiAnnotation annotation : containingMethod.getModifierList().getAnnotations()) {
-                                String annotationName = annotation.getQualifiedName();
-                                if (annotationName != null &&
-                                        (annotationName.endsWith("Mapping") ||
-                                                annotationName.contains("RequestMapping") ||
-                                                annotationName.contains("GetMapping") ||
-                                                annotationName.contains("PostMapping"))) {
-                                    System.out.println("  發現API方法: " + containingMethod.getName());
-                                    isApiMethod = true;
-                                    break;
-                                }
-                            }
-
-                            if (!isApiMethod) {
-                                System.out.println("  方法不是API方法，跳過: " + containingMethod.getName());
-                                continue;
-                            }
-
-                            PsiDocComment methodDoc = containingMethod.getDocComment();
-                            if (methodDoc != null) {
-                                String methodDocText = methodDoc.getText();
-                                Matcher matcher = API_ID_PATTERN.matcher(methodDocText);
-                                if (matcher.find()) {
-                                    String apiId = matcher.group(1);
-                                    System.out.println("  找到 Controller 方法的電文代號: " + apiId);
-                                    result.put(containingMethod.getName(), apiId);
-                                    foundMethodLevelApiId = true;
-                                }
-                            }
-                        }
-                    }
+                event.finish(className, result.size());
+                if (!result.isEmpty()) {
+                    return result;
                 }
             }
 
-            // 3. 如果沒有找到方法級別的API ID，嘗試從類名推導相關的 Controller 名稱
-            if (!foundMethodLevelApiId) {
-                String controllerName;
-                if (className.contains("Service")) {
-                    if (className.contains("Impl")) {
-                        // 從 ServiceImpl 去掉 "Impl" 和 "Service" 後加上 "Controller"
-                        controllerName = className.replace("ServiceImpl", "Controller");
-                        controllerName = controllerName.replace("Service", "");
-                    } else {
-                        // 從 Service 去掉 "Service" 後加上 "Controller"
-                        controllerName = className.replace("Service", "Controller");
-                    }
-                } else {
-                    // 如果不含 "Service"，直接加上 "Controller"
-                    controllerName = className + "Controller";
-                }
-
-                System.out.println("  推導可能的 Controller 名稱: " + controllerName);
+            // 3. 從 Controller→Service 依賴索引反查使用此 Service 的 Controller API 方法
+            collectApiIdsFromDependencyIndex(aClass, result);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.warn("尋找 Controller 電文代號時出錯", e);
+        }
 
-                // 在 Controller 層找相應的方法並獲取電文代號
-                Collection<PsiClass> controllers = findClassesByName(aClass.getProject(), controllerName);
-                if (controllers.isEmpty()) {
-                    System.out.println("  沒有找到名為 " + controllerName + " 的 Controller 類");
+        return result;
+    }
 
-                    // 嘗試查找所有 Controller 類
-                    controllers = findAllControllers(aClass.getProject());
-                    System.out.println("  找到 " + controllers.size() + " 個 Controller 類");
+    /**
+     * 索引找不到時的退回掃描：先找由類名推導的 Controller，找不到再掃描所有 Controller
+     * <p>
+     * 用於 Service 字段宣告在 Controller 的父類中等索引看不到的情況，需要解析方法體的引用。
+     *
+     * @param budget         解析方法體的成本上限，超出時返回已找到的部分結果
+     * @param allControllers 所有 Controller 的 API 方法，只在類名推導找不到時取用
+     */
+    static Map<String, String> findFallbackApiIds(PsiClass aClass, FallbackBudget budget,
+            Supplier<ControllerApis> allControllers) {
+        Map<String, String> result = new HashMap<>();
+        String className = aClass.getName();
+        if (className == null)
+            return result;
 
-                    if (controllers.isEmpty()) {
-                        return result;
-                    }
+        try {
+            String controllerName;
+            if (className.contains("Service")) {
+                if (className.contains("Impl")) {
+                    // 從 ServiceImpl 去掉 "Impl" 和 "Service" 後加上 "Controller"
+                    controllerName = className.replace("ServiceImpl", "Controller");
+                    controllerName = controllerName.replace("Service", "");
+                } else {
+                    // 從 Service 去掉 "Service" 後加上 "Controller"
+                    controllerName = className.replace("Service", "Controller");
                 }
+            } else {
+                // 如果不含 "Service"，直接加上 "Controller"
+                controllerName = className + "Controller";
+            }
 
-                // 5. 對於每個 Controller，檢查其中調用 Service 的方法
-                if (result.isEmpty()) {
-                    System.out.println("  通過引用未找到電文代號，嘗試檢查所有 Controller");
-                    for (PsiClass controller : controllers) {
-                        System.out.println("  檢查 Controller: " + controller.getName());
-
-                        // 檢查方法
-                        for (PsiMethod method : controller.getMethods()) {
-                            System.out.println("  檢查方法: " + method.getName());
-
-                            // 檢查方法是否有API映射註解
-                            boolean isApiMethod = false;
-                            for (PsiAnnotation annotation : method.getModifierList().getAnnotations()) {
-                                String annotationName = annotation.getQualifiedName();
-                                if (annotationName != null &&
-                                        (annotationName.endsWith("Mapping") ||
-                                                annotationName.contains("RequestMapping") ||
-                                                annotationName.contains("GetMapping") ||
-                                                annotationName.contains("PostMapping"))) {
-                                    System.out.println("  發現API方法: " + method.getName());
-                                    isApiMethod = true;
-                                    break;
-                                }
-                            }
-
-                            if (!isApiMethod) {
-                                System.out.println("  方法不是API方法，跳過: " + method.getName());
-                                continue;
-                            }
-
-                            // 檢查方法文檔
-                            PsiDocComment methodDoc = method.getDocComment();
-                            if (methodDoc != null) {
-                                String methodDocText = methodDoc.getText();
-                                Matcher matcher = API_ID_PATTERN.matcher(methodDocText);
-                                if (matcher.find()) {
-                                    String apiId = matcher.group(1);
-                                    System.out.println("  方法文檔有電文代號: " + apiId);
-
-                                    // 檢查方法體中是否引用了 Service
-                                    boolean usesService = checkMethodUsesService(method, aClass);
-                                    if (usesService) {
-                                        System.out.println("  方法使用了該 Service");
-                                        result.put(method.getName(), apiId);
-                                        break;
-                                    }
-                                }
-                            }
-
-                            // 檢查方法體中是否引用了 Service，即使沒有 API ID
-                            boolean usesService = checkMethodUsesService(method, aClass);
-                            if (usesService) {
-                                System.out.println("  方法使用了該 Service，但沒有 API ID");
-                            }
-                        }
+            // 在 Controller 層找相應的方法並獲取電文代號
+            ApiIdLookupEvent event = ApiIdLookupEvent.start("controllerByName");
+            Collection<PsiClass> namedControllers = findClassesByName(aClass.getProject(), controllerName);
+            event.finish(className, namedControllers.size());
+            ControllerApis controllers;
+            if (!namedControllers.isEmpty()) {
+                controllers = ControllerApis.collect(namedControllers);
+            } else {
+                // 嘗試查找所有 Controller 類
+                event = ApiIdLookupEvent.start("allControllers");
+                controllers = allControllers.get();
+                event.finish(className, controllers.getMethodCount());
+            }
 
-                        if (!result.isEmpty()) {
-                            break;
-                        }
-                    }
+            // 對於每個有電文代號的 API 方法，檢查方法體中是否引用了 Service
+            event = ApiIdLookupEvent.start("controllerMethods");
+            for (int i = 0; i < controllers.getMethodCount(); i++) {
+                // 解析方法體的引用成本最高，受即時檢查的上限限制
+                if (!budget.tryConsume()) {
+                    break;
                 }
-
-                // 6. 如果仍然找不到，嘗試檢查類級別的文檔（最後的選擇）
-                if (result.isEmpty()) {
-                    for (PsiClass controller : controllers) {
-                        // 檢查類級別的文檔
-                        PsiDocComment classDoc = controller.getDocComment();
-                        if (classDoc != null) {
-                            String classDocText = classDoc.getText();
-                            Matcher matcher = API_ID_PATTERN.matcher(classDocText);
-                            if (matcher.find()) {
-                                String apiId = matcher.group(1);
-                                System.out.println("  Controller 類文檔有電文代號: " + apiId);
-                                result.put(controller.getName(), apiId);
-                                break;
-                            }
-                        }
-                    }
+                if (checkMethodUsesService(controllers.getMethod(i), aClass)) {
+                    result.put(controllers.getMethod(i).getName(), controllers.getMethodApiId(i));
+                    break;
                 }
             }
+            event.finish(className, result.size());
+
+            // 如果仍然找不到，使用類級別的文檔（最後的選擇）；
+            // 超出上限時還有方法未檢查，類級別的電文代號可能屬於無關的 Controller，不採用
+            if (result.isEmpty() && !budget.isExhausted() && controllers.getClassCount() > 0) {
+                result.put(controllers.getClass(0).getName(), controllers.getClassApiId(0));
+            }
+        } catch (ProcessCanceledException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println("尋找 Controller 電文代號時出錯: " + e.getMessage());
-            e.printStackTrace();
+            LOG.warn("尋找 Controller 電文代號時出錯", e);
         }
 
-        System.out.println("找到 " + result.size() + " 個關聯的 Controller API IDs");
+        if (budget.isExhausted()) {
+            MsgIdMetrics.count(MsgIdMetrics.Counter.FALLBACK_BUDGET_EXHAUSTED);
+            LOG.debug("退回掃描超出即時檢查上限，" + className + " 使用部分結果（完整結果請執行 Inspect Code）");
+        }
         return result;
     }
 
     /**
-     * 查找項目中所有的 Controller 類
+     * 透過依賴索引查找使用 Service 的 Controller API 方法及其電文代號
+     *
+     * @return 是否找到方法級別的電文代號
      */
-    private Collection<PsiClass> findAllControllers(Project project) {
-        Collection<PsiClass> result = new ArrayList<>();
+    private static boolean collectApiIdsFromDependencyIndex(PsiClass serviceClass, Map<String, String> result) {
+        String serviceName = serviceClass.getName();
+        if (serviceName == null) {
+            return false;
+        }
 
+        long start = MsgIdMetrics.start();
+        ApiIdLookupEvent event = ApiIdLookupEvent.start("dependencyIndex");
         try {
-            // 查找名字包含 "Controller" 的類
-            PsiClass[] controllers = JavaPsiFacade.getInstance(project).findClasses(
-                    "*Controller", GlobalSearchScope.projectScope(project));
+            return collectApiIdsFromDependencyIndex(serviceClass, serviceName, result);
+        } finally {
+            MsgIdMetrics.stop(MsgIdMetrics.Phase.DEPENDENCY_INDEX_LOOKUP, start);
+            event.finish(serviceName, result.size());
+        }
+    }
 
-            for (PsiClass controller : controllers) {
-                result.add(controller);
-            }
+    private static boolean collectApiIdsFromDependencyIndex(PsiClass serviceClass, String serviceName,
+            Map<String, String> result) {
+        Project project = serviceClass.getProject();
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        MsgIdMetrics.count(MsgIdMetrics.Counter.INDEX_QUERIES);
+        Map<VirtualFile, List<ServiceDependency>> dependencies = ServiceDependencyIndex
+                .findDependentMethods(project, serviceName, scope);
+
+        // 索引以簡單名稱為鍵，專案中有同名類時需要解析確認
+        boolean ambiguousName = PsiShortNamesCache.getInstance(project).getClassesByName(serviceName, scope).length > 1;
+
+        boolean found = false;
+        for (Map.Entry<VirtualFile, List<ServiceDependency>> entry : dependencies.entrySet()) {
+            for (ServiceDependency dependency : entry.getValue()) {
+                MsgIdMetrics.count(MsgIdMetrics.Counter.INDEX_QUERIES);
+                ApiMsgIdLocation location = ApiMsgIdIndex.findLocation(project, entry.getKey(),
+                        dependency.getControllerClassName(), dependency.getMethodSignature(),
+                        ApiMsgIdLocation.Source.JAVADOC);
+                if (location == null) {
+                    continue;
+                }
+                if (ambiguousName && !isConfirmedDependency(project, dependency, serviceClass)) {
+                    continue;
+                }
 
-            // 查找在 controller 包下的類
-            PsiClass[] controllerPackageClasses = JavaPsiFacade.getInstance(project).findClasses(
-                    "*.controller.*", GlobalSearchScope.projectScope(project));
+                result.put(dependency.getMethodName(), location.getFullText());
+                found = true;
+            }
+        }
+        return found;
+    }
 
-            for (PsiClass cls : controllerPackageClasses) {
-                if (!result.contains(cls)) {
-                    result.add(cls);
-                }
+    /**
+     * 解析 Controller 方法，確認其確實使用了指定的 Service 類
+     */
+    private static boolean isConfirmedDependency(Project project, ServiceDependency dependency, PsiClass serviceClass) {
+        MsgIdMetrics.count(MsgIdMetrics.Counter.RESOLVES);
+        PsiClass controller = JavaPsiFacade.getInstance(project).findClass(dependency.getControllerClassName(),
+                GlobalSearchScope.projectScope(project));
+        if (controller == null) {
+            return false;
+        }
+        for (PsiMethod method : controller.findMethodsByName(dependency.getMethodName(), false)) {
+            if (dependency.getMethodSignature().equals(ApiMsgIdIndex.getMemberSignature(method))) {
+                return checkMethodUsesService(method, serviceClass);
             }
+        }
+        return false;
+    }
+
+    /**
+     * 查找項目中所有的 Controller 類
+     */
+    static Collection<PsiClass> findAllControllers(Project project) {
+        Collection<PsiClass> result = new ArrayList<>();
 
-            System.out.println("找到 " + result.size() + " 個controller包下的類");
+        MsgIdMetrics.count(MsgIdMetrics.Counter.FALLBACK_SCANS);
+        long start = MsgIdMetrics.start();
+        try {
+            // 標註 @Controller/@RestController（含組合註解）的類；沒有 Spring 依賴時依類名與包名
+            result.addAll(SpringStereotypeRegistry.getInstance(project).getControllers());
+        } catch (ProcessCanceledException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println("查找 Controller 類時出錯: " + e.getMessage());
+            LOG.warn("查找 Controller 類時出錯", e);
+        } finally {
+            MsgIdMetrics.stop(MsgIdMetrics.Phase.FIND_ALL_CONTROLLERS, start);
         }
 
         return result;
@@ -396,28 +464,28 @@ public class ServiceLinkInspection extends AbstractBaseJavaLocalInspectionTool {
     /**
      * 根據名稱查找類
      */
-    private Collection<PsiClass> findClassesByName(Project project, String className) {
+    private static Collection<PsiClass> findClassesByName(Project project, String className) {
         Collection<PsiClass> result = new ArrayList<>();
 
+        MsgIdMetrics.count(MsgIdMetrics.Counter.CLASS_NAME_SEARCHES);
         try {
-            PsiClass[] classes = JavaPsiFacade.getInstance(project).findClasses(
+            PsiClass[] classes = PsiShortNamesCache.getInstance(project).getClassesByName(
                     className, GlobalSearchScope.projectScope(project));
 
             Collections.addAll(result, classes);
 
-            // 如果沒有精確匹配，嘗試模糊匹配
+            // 如果沒有精確匹配，在 Controller 中找類名包含該名稱的類
             if (result.isEmpty()) {
-                PsiClass[] fuzzyClasses = JavaPsiFacade.getInstance(project).findClasses(
-                        "*" + className + "*", GlobalSearchScope.projectScope(project));
-
-                for (PsiClass cls : fuzzyClasses) {
+                for (PsiClass cls : SpringStereotypeRegistry.getInstance(project).getControllers()) {
                     if (cls.getName() != null && cls.getName().contains(className)) {
                         result.add(cls);
                     }
                 }
             }
+        } catch (ProcessCanceledException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println("查找類時出錯: " + e.getMessage());
+            LOG.warn("查找類時出錯", e);
         }
 
         return result;
@@ -426,7 +494,7 @@ public class ServiceLinkInspection extends AbstractBaseJavaLocalInspectionTool {
     /**
      * 檢查方法是否使用了指定的 Service 類
      */
-    private boolean checkMethodUsesService(PsiMethod method, PsiClass serviceClass) {
+    private static boolean checkMethodUsesService(PsiMethod method, PsiClass serviceClass) {
         if (method.getBody() == null)
             return false;
 
@@ -450,6 +518,8 @@ public class ServiceLinkInspection extends AbstractBaseJavaLocalInspectionTool {
                 if (usesService[0])
                     return; // 已經找到引用，不再繼續
 
+                ProgressManager.checkCanceled();
+                MsgIdMetrics.count(MsgIdMetrics.Counter.RESOLVES);
                 PsiElement resolved = expression.resolve();
                 if (resolved instanceof PsiField) {
                     PsiField field = (PsiField) resolved;
@@ -473,30 +543,19 @@ public class ServiceLinkInspection extends AbstractBaseJavaLocalInspectionTool {
     }
 
     /**
-     * 判斷一個類是否是指定接口的實現類
+     * 判斷一個類是否是指定接口的實現類（包含透過父類或子接口的間接實現）
      */
-    private boolean isImplementationOf(PsiClass cls, PsiClass interfaceClass) {
+    private static boolean isImplementationOf(PsiClass cls, PsiClass interfaceClass) {
         if (!interfaceClass.isInterface() || cls.isInterface()) {
             return false;
         }
-
-        for (PsiClassType implementsType : cls.getImplementsListTypes()) {
-            PsiClass implemented = implementsType.resolve();
-            if (implemented != null && (implemented.equals(interfaceClass) ||
-                    isImplementationOf(implemented, interfaceClass))) {
-                return true;
-            }
-        }
-
-        // 檢查父類
-        PsiClass superClass = cls.getSuperClass();
-        return superClass != null && isImplementationOf(superClass, interfaceClass);
+        return InheritorCache.isInheritor(cls, interfaceClass);
     }
 
     /**
      * 快速修復：添加Service的電文代號 Javadoc註解
      */
-    private static class AddServiceApiIdQuickFix implements LocalQuickFix {
+    static class AddServiceApiIdQuickFix implements LocalQuickFix {
         private final Map<String, String> controllerApiIds;
 
         public AddServiceApiIdQuickFix(Map<String, String> controllerApiIds) {
@@ -517,57 +576,27 @@ public class ServiceLinkInspection extends AbstractBaseJavaLocalInspectionTool {
 
         @Override
         public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            long start = MsgIdMetrics.start();
             try {
                 PsiElement element = descriptor.getPsiElement();
                 if (!(element instanceof PsiIdentifier)) {
-                    System.out.println("元素不是PsiIdentifier，無法應用修復");
                     return;
                 }
 
                 PsiClass aClass = (PsiClass) element.getParent();
-                System.out.println("應用修復到類: " + aClass.getName());
-
-                PsiElementFactory factory = JavaPsiFacade.getElementFactory(project);
 
                 // 獲取Controller方法的完整文檔
-                String methodName = controllerApiIds.keySet().iterator().next();
                 String fullApiId = controllerApiIds.values().iterator().next();
-                System.out.println("使用電文代號: " + fullApiId + ", 來自方法: " + methodName);
-
-                // 創建Javadoc註解 - 保留完整的電文代號行，包括描述
-                StringBuilder docText = new StringBuilder("/**\n");
-                docText.append(" * ").append(fullApiId).append("\n");
-                docText.append(" */");
 
-                PsiDocComment docComment = factory.createDocCommentFromText(docText.toString());
-                System.out.println("創建的文檔註解: " + docComment.getText());
-
-                // 如果已有註解則替換，否則新增
-                PsiDocComment existingComment = aClass.getDocComment();
-                if (existingComment != null) {
-                    System.out.println("替換現有註解");
-                    existingComment.replace(docComment);
-                } else {
-                    System.out.println("添加新註解");
-                    aClass.addBefore(docComment, aClass.getModifierList());
-                }
-
-                System.out.println("修復成功應用");
+                // 保留完整的電文代號行，包括描述；如果已有註解則替換，否則新增
+                JavadocBatchRewriter rewriter = new JavadocBatchRewriter(project);
+                rewriter.setApiId(aClass, fullApiId);
+                rewriter.apply();
             } catch (Exception e) {
-                System.out.println("應用修復時出錯: " + e.getMessage());
-                e.printStackTrace();
+                LOG.warn("應用修復時出錯", e);
+            } finally {
+                MsgIdMetrics.stop(MsgIdMetrics.Phase.APPLY_SERVICE_FIX, start);
             }
         }
     }
-
-    /**
-     * 從Javadoc文字中提取電文代號
-     */
-    private String extractApiIdFromDoc(String docText) {
-        Matcher matcher = API_ID_PATTERN.matcher(docText);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        return null;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.cathaybk.codingassistant.inspection;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一次全域檢查或命令列掃描中共用的 Service↔Controller 連結
+ * <p>
+ * 所有 Controller 的 API 方法只在第一次需要退回掃描時收集一次，
+ * 各 Service 類的退回掃描結果也只計算一次（實現類改查接口時直接取用）。
+ * 可由多個線程同時查詢；只在單次執行中使用，不依 PSI 修改失效。
+ */
+public final class ServiceLinkTable {
+
+    private final Project project;
+    private volatile ControllerApis allControllers;
+    private final Map<PsiClass, Map<String, String>> fallbackApiIds = new ConcurrentHashMap<>();
+
+    public ServiceLinkTable(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * 索引找不到時以完整的退回掃描查找 Service 類關聯的 Controller 電文代號
+     */
+    Map<String, String> findFallbackLinkedApiIds(PsiClass aClass) {
+        return ServiceLinkInspection.computeLinkedApiIds(aClass, this::getFallbackApiIds, false);
+    }
+
+    private Map<String, String> getFallbackApiIds(PsiClass aClass) {
+        Map<String, String> cached = fallbackApiIds.get(aClass);
+        if (cached == null) {
+            // 不使用 computeIfAbsent：計算過程中可能查詢其他類，且可能因取消而中斷
+            cached = Collections.unmodifiableMap(ServiceLinkInspection.findFallbackApiIds(aClass,
+                    FallbackBudget.UNLIMITED, this::getAllControllers));
+            fallbackApiIds.putIfAbsent(aClass, cached);
+        }
+        return new HashMap<>(cached);
+    }
+
+    private ControllerApis getAllControllers() {
+        ControllerApis result = allControllers;
+        if (result == null) {
+            synchronized (this) {
+                result = allControllers;
+                if (result == null) {
+                    result = ControllerApis.collect(ServiceLinkInspection.findAllControllers(project));
+                    allControllers = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.cathaybk.codingassistant.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：為 Service 類查找 Controller 電文代號的一個策略（或整體查找）
+ */
+@Name("com.cathaybk.msgid.ApiIdLookup")
+@Label("電文代號查找")
+@Description("ServiceLinkInspection.findControllerApiIds 及其各個查找策略")
+@Category({ "CathayBk", "電文代號" })
+@StackTrace(false)
+public class ApiIdLookupEvent extends Event {
+
+    /**
+     * 整體查找的策略名稱，其餘策略事件發生在它的時間範圍內
+     */
+    public static final String ALL = "findControllerApiIds";
+
+    @Label("策略")
+    String strategy;
+
+    @Label("Service 類")
+    String serviceClass;
+
+    @Label("結果數量")
+    int resultCount;
+
+    public static ApiIdLookupEvent start(String strategy) {
+        ApiIdLookupEvent event = new ApiIdLookupEvent();
+        event.strategy = strategy;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String serviceClass, int resultCount) {
+        end();
+        if (shouldCommit()) {
+            this.serviceClass = serviceClass;
+            this.resultCount = resultCount;
+            commit();
+        }
+    }
+}
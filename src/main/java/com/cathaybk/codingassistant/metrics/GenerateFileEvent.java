@@ -0,0 +1,52 @@
+package com.cathaybk.codingassistant.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：生成 API 結構時建立一個檔案
+ */
+@Name("com.cathaybk.msgid.GenerateFile")
+@Label("生成 API 結構檔案")
+@Description("GenerateApiStructureAction 建立 Service 或 ServiceImpl 檔案")
+@Category({ "CathayBk", "電文代號" })
+@StackTrace(false)
+public class GenerateFileEvent extends Event {
+
+    @Label("種類")
+    String kind;
+
+    @Label("類")
+    String className;
+
+    @Label("來源 Controller")
+    String controllerClass;
+
+    @Label("檔案長度")
+    int textLength;
+
+    @Label("成功")
+    boolean created;
+
+    public static GenerateFileEvent start(String kind, String className) {
+        GenerateFileEvent event = new GenerateFileEvent();
+        event.kind = kind;
+        event.className = className;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String controllerClass, int textLength, boolean created) {
+        end();
+        if (shouldCommit()) {
+            this.controllerClass = controllerClass;
+            this.textLength = textLength;
+            this.created = created;
+            commit();
+        }
+    }
+}
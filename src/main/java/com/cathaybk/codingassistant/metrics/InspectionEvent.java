@@ -0,0 +1,51 @@
+package com.cathaybk.codingassistant.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：檢查器檢查單一元素
+ */
+@Name("com.cathaybk.msgid.Inspection")
+@Label("電文代號檢查")
+@Description("檢查器對單一類或方法的檢查")
+@Category({ "CathayBk", "電文代號" })
+@StackTrace(false)
+public class InspectionEvent extends Event {
+
+    @Label("檢查器")
+    String inspection;
+
+    @Label("類")
+    String className;
+
+    @Label("成員")
+    String memberName;
+
+    @Label("問題數量")
+    int problemCount;
+
+    /**
+     * 建立並開始計時；沒有錄製時 JFR 會讓後續呼叫成為空操作
+     */
+    public static InspectionEvent start(String inspection) {
+        InspectionEvent event = new InspectionEvent();
+        event.inspection = inspection;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String className, String memberName, int problemCount) {
+        end();
+        if (shouldCommit()) {
+            this.className = className;
+            this.memberName = memberName;
+            this.problemCount = problemCount;
+            commit();
+        }
+    }
+}
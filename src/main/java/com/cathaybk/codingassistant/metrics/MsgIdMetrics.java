@@ -0,0 +1,243 @@
+package com.cathaybk.codingassistant.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 檢查器熱點路徑的計時與計數，預設關閉
+ * <p>
+ * 關閉時每個呼叫點只讀取一次 volatile 欄位，不取得時間、不建立物件也不串接字串；
+ * 開啟後以 {@link LongAdder} 累計，多個 daemon 線程同時記錄不會互相競爭。
+ * 可用系統屬性 {@code -Dcathaybk.msgid.metrics=true} 在啟動時開啟。
+ *
+ * <pre>
+ * long start = MsgIdMetrics.start();
+ * try {
+ *     ...
+ * } finally {
+ *     MsgIdMetrics.stop(MsgIdMetrics.Phase.VISIT_CLASS, start);
+ * }
+ * </pre>
+ */
+public final class MsgIdMetrics {
+
+    /**
+     * 計時的階段
+     */
+    public enum Phase {
+        VISIT_CLASS("ServiceLinkInspection.visitClass"),
+        FIND_CONTROLLER_API_IDS("ServiceLinkInspection.findControllerApiIds"),
+        DEPENDENCY_INDEX_LOOKUP("ServiceLinkInspection.collectApiIdsFromDependencyIndex"),
+        FIND_ALL_CONTROLLERS("ServiceLinkInspection.findAllControllers"),
+        APPLY_SERVICE_FIX("AddServiceApiIdQuickFix.applyFix");
+
+        private final String displayName;
+
+        Phase(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @NotNull
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * 計數項目
+     */
+    public enum Counter {
+        CLASSES_VISITED("訪問的類"),
+        SERVICE_CLASSES_CHECKED("檢查的 Service 類"),
+        CACHE_REQUESTS("快取查詢"),
+        CACHE_MISSES("快取未命中"),
+        INDEX_QUERIES("索引查詢"),
+        RESOLVES("引用解析"),
+        CLASS_NAME_SEARCHES("類名搜尋"),
+        FALLBACK_SCANS("退回掃描所有 Controller"),
+        FALLBACK_BUDGET_EXHAUSTED("退回掃描超出上限"),
+        PROBLEMS_REGISTERED("註冊的問題");
+
+        private final String displayName;
+
+        Counter(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @NotNull
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private static volatile boolean enabled = Boolean.getBoolean("cathaybk.msgid.metrics");
+
+    private static final LongAdder[] PHASE_CALLS = newAdders(PHASES.length);
+    private static final LongAdder[] PHASE_NANOS = newAdders(PHASES.length);
+    private static final LongAccumulator[] PHASE_MAX_NANOS = new LongAccumulator[PHASES.length];
+    private static final LongAdder[] COUNTS = newAdders(COUNTERS.length);
+
+    static {
+        for (int i = 0; i < PHASE_MAX_NANOS.length; i++) {
+            PHASE_MAX_NANOS[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    private MsgIdMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * 開始計時
+     *
+     * @return 開始時間；關閉時返回 0，對應的 {@link #stop} 不會記錄
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void stop(@NotNull Phase phase, long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        int index = phase.ordinal();
+        PHASE_CALLS[index].increment();
+        PHASE_NANOS[index].add(elapsed);
+        PHASE_MAX_NANOS[index].accumulate(elapsed);
+    }
+
+    public static void count(@NotNull Counter counter) {
+        if (enabled) {
+            COUNTS[counter.ordinal()].increment();
+        }
+    }
+
+    public static void count(@NotNull Counter counter, long amount) {
+        if (enabled) {
+            COUNTS[counter.ordinal()].add(amount);
+        }
+    }
+
+    public static long getCount(@NotNull Counter counter) {
+        return COUNTS[counter.ordinal()].sum();
+    }
+
+    public static void reset() {
+        for (int i = 0; i < PHASES.length; i++) {
+            PHASE_CALLS[i].reset();
+            PHASE_NANOS[i].reset();
+            PHASE_MAX_NANOS[i].reset();
+        }
+        for (LongAdder count : COUNTS) {
+            count.reset();
+        }
+    }
+
+    /**
+     * 目前累計結果的快照
+     */
+    @NotNull
+    public static Snapshot snapshot() {
+        long[] calls = new long[PHASES.length];
+        long[] nanos = new long[PHASES.length];
+        long[] maxNanos = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            calls[i] = PHASE_CALLS[i].sum();
+            nanos[i] = PHASE_NANOS[i].sum();
+            maxNanos[i] = PHASE_MAX_NANOS[i].get();
+        }
+        long[] counts = new long[COUNTERS.length];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            counts[i] = COUNTS[i].sum();
+        }
+        return new Snapshot(calls, nanos, maxNanos, counts);
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * 不可變的統計快照，可轉為文字報表或 CSV
+     */
+    public static final class Snapshot {
+        private final long[] calls;
+        private final long[] nanos;
+        private final long[] maxNanos;
+        private final long[] counts;
+
+        private Snapshot(long[] calls, long[] nanos, long[] maxNanos, long[] counts) {
+            this.calls = calls;
+            this.nanos = nanos;
+            this.maxNanos = maxNanos;
+            this.counts = counts;
+        }
+
+        public long getCalls(@NotNull Phase phase) {
+            return calls[phase.ordinal()];
+        }
+
+        public long getTotalMillis(@NotNull Phase phase) {
+            return TimeUnit.NANOSECONDS.toMillis(nanos[phase.ordinal()]);
+        }
+
+        public long getMaxMillis(@NotNull Phase phase) {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos[phase.ordinal()]);
+        }
+
+        public long getCount(@NotNull Counter counter) {
+            return counts[counter.ordinal()];
+        }
+
+        /**
+         * 適合直接閱讀的文字報表
+         */
+        @NotNull
+        public String toReport() {
+            StringBuilder report = new StringBuilder("階段                                                   次數    總計(ms)  最長(ms)\n");
+            for (Phase phase : PHASES) {
+                report.append(String.format("%-52s %8d %10d %9d%n", phase.getDisplayName(), getCalls(phase),
+                        getTotalMillis(phase), getMaxMillis(phase)));
+            }
+            report.append('\n');
+            for (Counter counter : COUNTERS) {
+                report.append(String.format("%-20s %10d%n", counter.getDisplayName(), getCount(counter)));
+            }
+            return report.toString();
+        }
+
+        /**
+         * CSV 格式：type,name,calls,totalMillis,maxMillis（計數項目只有 calls 欄）
+         */
+        @NotNull
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder("type,name,calls,totalMillis,maxMillis\n");
+            for (Phase phase : PHASES) {
+                csv.append("phase,").append(phase.name()).append(',').append(getCalls(phase)).append(',')
+                        .append(getTotalMillis(phase)).append(',').append(getMaxMillis(phase)).append('\n');
+            }
+            for (Counter counter : COUNTERS) {
+                csv.append("counter,").append(counter.name()).append(',').append(getCount(counter)).append(",,\n");
+            }
+            return csv.toString();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cathaybk.codingassistant.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：電文代號同步的查找階段或寫入階段
+ */
+@Name("com.cathaybk.msgid.SyncPhase")
+@Label("電文代號同步")
+@Description("SyncApiIdAction 的查找（背景讀取）與寫入（EDT）階段")
+@Category({ "CathayBk", "電文代號" })
+@StackTrace(false)
+public class SyncPhaseEvent extends Event {
+
+    public static final String DISCOVERY = "discovery";
+    public static final String WRITE = "write";
+
+    @Label("階段")
+    String phase;
+
+    @Label("來源")
+    String source;
+
+    @Label("電文代號")
+    String apiId;
+
+    @Label("目標類數量")
+    int targetClassCount;
+
+    @Label("目標方法數量")
+    int targetMethodCount;
+
+    @Label("更新數量")
+    int updatedCount;
+
+    public static SyncPhaseEvent start(String phase, String source) {
+        SyncPhaseEvent event = new SyncPhaseEvent();
+        event.phase = phase;
+        event.source = source;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String apiId, int targetClassCount, int targetMethodCount, int updatedCount) {
+        end();
+        if (shouldCommit()) {
+            this.apiId = apiId;
+            this.targetClassCount = targetClassCount;
+            this.targetMethodCount = targetMethodCount;
+            this.updatedCount = updatedCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.cathaybk.codingassistant.sync;
+
+import com.cathaybk.codingassistant.util.JavadocBatchRewriter;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiDocCommentOwner;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 單次電文代號同步要寫入的目標
+ * <p>
+ * 在背景讀操作中建立，只保存目標的 {@link SmartPsiElementPointer}、顯示名稱與電文代號字串，
+ * 不持有 PSI 樹；查找與寫入之間檔案被修改或重新解析時，指標以文件位移追蹤目標，
+ * 寫入時才取回元素，已刪除的目標直接略過。
+ * <p>
+ * 可一次套用全部，或以檔案為單位分批套用（每批各自一個寫入命令），處理過的目標自清單移除。
+ */
+public final class ApiIdChangeSet {
+
+    private enum Status {
+        ADD(" (新增)"),
+        UPDATE(" (更新)"),
+        UNCHANGED(" (已有相同電文代號)");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Change {
+        // 已有相同電文代號時為 null
+        final SmartPsiElementPointer<PsiDocCommentOwner> target;
+        final String name;
+        final Status status;
+
+        Change(SmartPsiElementPointer<PsiDocCommentOwner> target, String name, Status status) {
+            this.target = target;
+            this.name = name;
+            this.status = status;
+        }
+    }
+
+    private final Project project;
+    private final String apiId;
+    private final List<Change> changes = new ArrayList<>();
+    private int classCount;
+    private int methodCount;
+
+    public ApiIdChangeSet(@NotNull Project project, @NotNull String apiId) {
+        this.project = project;
+        this.apiId = apiId;
+    }
+
+    /**
+     * 加入要寫入電文代號的類或方法（需在讀操作中呼叫）
+     *
+     * @param name          結果訊息中的名稱
+     * @param hasDocComment 目前是否已有 Javadoc，決定顯示為更新或新增
+     */
+    public void add(@NotNull PsiDocCommentOwner target, @NotNull String name, boolean hasDocComment) {
+        changes.add(new Change(SmartPointerManager.createPointer(target), name,
+                hasDocComment ? Status.UPDATE : Status.ADD));
+        countTarget(target);
+    }
+
+    /**
+     * 記錄已有相同電文代號、不需寫入的目標
+     */
+    public void addUnchanged(@NotNull PsiDocCommentOwner target, @NotNull String name) {
+        changes.add(new Change(null, name, Status.UNCHANGED));
+        countTarget(target);
+    }
+
+    private void countTarget(PsiDocCommentOwner target) {
+        if (target instanceof PsiClass) {
+            classCount++;
+        } else {
+            methodCount++;
+        }
+    }
+
+    @NotNull
+    public String getApiId() {
+        return apiId;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * 尚未套用的目標所在的檔案數（需在讀操作中呼叫）
+     */
+    public int getFileCount() {
+        Set<VirtualFile> files = new HashSet<>();
+        for (Change change : changes) {
+            if (change.target != null) {
+                files.add(change.target.getVirtualFile());
+            }
+        }
+        return files.size();
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    /**
+     * 取回所有目標交給批次改寫器並釋放指標（需在寫入命令中呼叫，之後再呼叫 {@link JavadocBatchRewriter#apply()}）
+     *
+     * @param report 每個目標附加一行結果
+     * @return 交給改寫器的目標數
+     */
+    public int applyTo(@NotNull JavadocBatchRewriter rewriter, @NotNull StringBuilder report) {
+        return applyTo(rewriter, report, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 只取回前 {@code maxFiles} 個檔案中的目標交給批次改寫器，其餘留待下一批
+     *
+     * @param report 每個目標附加一行結果
+     * @return 交給改寫器的目標數
+     */
+    public int applyTo(@NotNull JavadocBatchRewriter rewriter, @NotNull StringBuilder report, int maxFiles) {
+        SmartPointerManager pointerManager = SmartPointerManager.getInstance(project);
+        Set<VirtualFile> files = new HashSet<>();
+        List<Change> remaining = new ArrayList<>();
+        int count = 0;
+        for (Change change : changes) {
+            if (change.target == null) {
+                report.append("- ").append(change.name).append(change.status.label).append("\n");
+                continue;
+            }
+
+            VirtualFile file = change.target.getVirtualFile();
+            if (!files.contains(file) && files.size() >= maxFiles) {
+                remaining.add(change);
+                continue;
+            }
+            files.add(file);
+
+            report.append("- ").append(change.name);
+            PsiDocCommentOwner target = change.target.getElement();
+            pointerManager.removePointer(change.target);
+            if (target == null) {
+                report.append(" (已刪除，略過)\n");
+                continue;
+            }
+            rewriter.setApiId(target, apiId);
+            count++;
+            report.append(change.status.label).append("\n");
+        }
+        changes.clear();
+        changes.addAll(remaining);
+        return count;
+    }
+}
@@ -0,0 +1,198 @@
+package com.cathaybk.codingassistant.sync;
+
+import com.cathaybk.codingassistant.index.ApiMsgIdIndex;
+import com.cathaybk.codingassistant.index.ApiMsgIdLocation;
+import com.cathaybk.codingassistant.index.ServiceDependency;
+import com.cathaybk.codingassistant.index.ServiceDependencyIndex;
+import com.cathaybk.codingassistant.util.JavadocBatchRewriter;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 專案範圍的電文代號批次同步
+ * <p>
+ * 只讀取兩個索引一次建立「Service 型別名稱 -> Controller API 電文代號」的關係，
+ * 再逐一比對範圍內 Service/ServiceImpl 類的 Javadoc，不需要對每個類各自做引用搜尋。
+ */
+public class BulkApiIdSyncEngine {
+    private static final Logger LOG = Logger.getInstance(BulkApiIdSyncEngine.class);
+
+    private final Project project;
+
+    public BulkApiIdSyncEngine(@NotNull Project project) {
+        this.project = project;
+    }
+
+    /**
+     * 查找範圍內缺少或過期的 Service 電文代號（需在讀操作中執行）
+     *
+     * @param targetScope 要更新的類所在範圍；關係仍以整個專案建立
+     */
+    @NotNull
+    public BulkSyncPlan plan(@NotNull GlobalSearchScope targetScope, @NotNull ProgressIndicator indicator) {
+        indicator.setText("建立 Controller 與 Service 的電文代號關係...");
+        Map<String, Map<String, String>> apiIdsByService = buildServiceApiIds(indicator);
+
+        indicator.setText("比對 Service 電文代號...");
+        BulkSyncPlan plan = new BulkSyncPlan();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        Collection<VirtualFile> files = FileTypeIndex.getFiles(JavaFileType.INSTANCE, targetScope);
+        int processed = 0;
+        for (VirtualFile file : files) {
+            ProgressManager.checkCanceled();
+            indicator.setFraction(0.5 + 0.5 * processed++ / files.size());
+
+            PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile instanceof PsiJavaFile) {
+                for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+                    planClass(psiClass, file, apiIdsByService, plan);
+                }
+            }
+        }
+
+        LOG.info("批次同步查找完成：檢查 " + plan.getScannedClasses() + " 個 Service 類，" + plan.getEdits().size()
+                + " 個需要更新，" + plan.getAmbiguous().size() + " 個無法自動決定");
+        return plan;
+    }
+
+    /**
+     * 套用一批查找結果並釋放其指標（需在寫入命令中執行）
+     *
+     * @return 實際更新的類數量
+     */
+    public int apply(@NotNull List<BulkSyncPlan.Edit> edits) {
+        SmartPointerManager pointerManager = SmartPointerManager.getInstance(project);
+        JavadocBatchRewriter rewriter = new JavadocBatchRewriter(project);
+        for (BulkSyncPlan.Edit edit : edits) {
+            PsiClass target = edit.getTarget().getElement();
+            pointerManager.removePointer(edit.getTarget());
+            // 查找後類可能已被刪除
+            if (target == null || !target.isValid()) {
+                LOG.debug("批次同步略過已失效的類: " + edit.getFile().getPath());
+                continue;
+            }
+            rewriter.setApiId(target, edit.getNewApiId());
+        }
+        return rewriter.apply();
+    }
+
+    /**
+     * 一次讀取整個專案的索引資料，建立 Service 型別簡單名稱 -> (電文代號 -> 完整電文代號行)
+     */
+    private Map<String, Map<String, String>> buildServiceApiIds(ProgressIndicator indicator) {
+        FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+        Collection<VirtualFile> files = FileTypeIndex.getFiles(JavaFileType.INSTANCE,
+                GlobalSearchScope.projectScope(project));
+
+        // Controller 方法 (類名#方法簽名) -> Javadoc 電文代號
+        Map<String, ApiMsgIdLocation> controllerApiIds = new HashMap<>();
+        // Service 型別簡單名稱 -> 依賴它的 Controller 方法
+        Map<String, List<ServiceDependency>> dependencies = new HashMap<>();
+
+        int processed = 0;
+        for (VirtualFile file : files) {
+            ProgressManager.checkCanceled();
+            indicator.setFraction(0.5 * processed++ / files.size());
+
+            Map<String, List<ServiceDependency>> fileDependencies = fileBasedIndex
+                    .getFileData(ServiceDependencyIndex.NAME, file, project);
+            if (fileDependencies.isEmpty()) {
+                continue;
+            }
+            fileDependencies.forEach((serviceName, list) -> dependencies
+                    .computeIfAbsent(serviceName, k -> new ArrayList<>()).addAll(list));
+
+            for (List<ApiMsgIdLocation> locations : fileBasedIndex.getFileData(ApiMsgIdIndex.NAME, file, project)
+                    .values()) {
+                for (ApiMsgIdLocation location : locations) {
+                    if (location.getSource() == ApiMsgIdLocation.Source.JAVADOC && !location.isClassLevel()) {
+                        controllerApiIds.put(location.getClassName() + "#" + location.getMemberSignature(), location);
+                    }
+                }
+            }
+        }
+
+        Map<String, Map<String, String>> result = new HashMap<>();
+        dependencies.forEach((serviceName, list) -> {
+            for (ServiceDependency dependency : list) {
+                ApiMsgIdLocation location = controllerApiIds
+                        .get(dependency.getControllerClassName() + "#" + dependency.getMethodSignature());
+                if (location != null) {
+                    result.computeIfAbsent(serviceName, k -> new TreeMap<>())
+                            .putIfAbsent(location.getMsgId(), location.getFullText());
+                }
+            }
+        });
+        return result;
+    }
+
+    private void planClass(PsiClass psiClass, VirtualFile file, Map<String, Map<String, String>> apiIdsByService,
+            BulkSyncPlan plan) {
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            planClass(innerClass, file, apiIdsByService, plan);
+        }
+
+        ApiMsgIdLocation.Kind kind = ApiMsgIdIndex.getKind(psiClass);
+        if (kind != ApiMsgIdLocation.Kind.SERVICE && kind != ApiMsgIdLocation.Kind.IMPL) {
+            return;
+        }
+        plan.incrementScanned();
+
+        Map<String, String> candidates = findCandidates(psiClass, apiIdsByService);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        ApiMsgIdLocation current = ApiMsgIdIndex.findLocation(psiClass, ApiMsgIdLocation.Source.JAVADOC);
+        if (current != null && candidates.containsKey(current.getMsgId())) {
+            plan.incrementUpToDate();
+            return;
+        }
+
+        if (candidates.size() > 1) {
+            plan.addAmbiguous(psiClass.getName() + ": " + String.join(", ", candidates.keySet()));
+            return;
+        }
+
+        String newApiId = candidates.values().iterator().next();
+        plan.addEdit(new BulkSyncPlan.Edit(SmartPointerManager.createPointer(psiClass), file,
+                current != null ? current.getFullText() : null, newApiId));
+    }
+
+    /**
+     * 類可能對應的 Controller 電文代號；實現類也使用其接口的關係（Controller 通常注入接口）
+     */
+    private Map<String, String> findCandidates(PsiClass psiClass, Map<String, Map<String, String>> apiIdsByService) {
+        Map<String, String> candidates = new TreeMap<>();
+        addCandidates(psiClass.getName(), apiIdsByService, candidates);
+        if (!psiClass.isInterface()) {
+            for (PsiClassType interfaceType : psiClass.getImplementsListTypes()) {
+                addCandidates(interfaceType.getClassName(), apiIdsByService, candidates);
+            }
+        }
+        return candidates;
+    }
+
+    private static void addCandidates(@Nullable String serviceName, Map<String, Map<String, String>> apiIdsByService,
+            Map<String, String> candidates) {
+        if (serviceName == null) {
+            return;
+        }
+        Map<String, String> apiIds = apiIdsByService.get(serviceName);
+        if (apiIds != null) {
+            apiIds.forEach(candidates::putIfAbsent);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.cathaybk.codingassistant.sync;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.SmartPsiElementPointer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批次同步的查找結果：要寫入的 Javadoc 電文代號與無法自動決定的類
+ */
+public final class BulkSyncPlan {
+
+    /**
+     * 單一類的 Javadoc 修改
+     * <p>
+     * 以 {@link SmartPsiElementPointer} 保存目標：查找與分批寫入之間檔案可能被修改或重新解析，
+     * 寫入時才取回類，已刪除的目標略過。
+     */
+    public static final class Edit {
+        private final SmartPsiElementPointer<PsiClass> target;
+        private final VirtualFile file;
+        private final String currentApiId;
+        private final String newApiId;
+
+        Edit(@NotNull SmartPsiElementPointer<PsiClass> target, @NotNull VirtualFile file, @Nullable String currentApiId,
+                @NotNull String newApiId) {
+            this.target = target;
+            this.file = file;
+            this.currentApiId = currentApiId;
+            this.newApiId = newApiId;
+        }
+
+        @NotNull
+        public SmartPsiElementPointer<PsiClass> getTarget() {
+            return target;
+        }
+
+        /**
+         * 類所在的檔案，分批寫入時以此分組
+         */
+        @NotNull
+        public VirtualFile getFile() {
+            return file;
+        }
+
+        /**
+         * 目前 Javadoc 中的電文代號，缺少時為 null
+         */
+        @Nullable
+        public String getCurrentApiId() {
+            return currentApiId;
+        }
+
+        @NotNull
+        public String getNewApiId() {
+            return newApiId;
+        }
+    }
+
+    private final List<Edit> edits = new ArrayList<>();
+    private final List<String> ambiguous = new ArrayList<>();
+    private int scannedClasses;
+    private int upToDateClasses;
+
+    void addEdit(Edit edit) {
+        edits.add(edit);
+    }
+
+    void addAmbiguous(String description) {
+        ambiguous.add(description);
+    }
+
+    void incrementScanned() {
+        scannedClasses++;
+    }
+
+    void incrementUpToDate() {
+        upToDateClasses++;
+    }
+
+    @NotNull
+    public List<Edit> getEdits() {
+        return Collections.unmodifiableList(edits);
+    }
+
+    /**
+     * 依檔案分批的修改：同一檔案的修改在同一批，每批最多 {@code maxFiles} 個檔案
+     */
+    @NotNull
+    public List<List<Edit>> getEditsInChunks(int maxFiles) {
+        Map<VirtualFile, List<Edit>> editsByFile = new LinkedHashMap<>();
+        for (Edit edit : edits) {
+            editsByFile.computeIfAbsent(edit.getFile(), k -> new ArrayList<>()).add(edit);
+        }
+
+        List<List<Edit>> chunks = new ArrayList<>();
+        List<Edit> chunk = new ArrayList<>();
+        int files = 0;
+        for (List<Edit> fileEdits : editsByFile.values()) {
+            if (files == maxFiles) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                files = 0;
+            }
+            chunk.addAll(fileEdits);
+            files++;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * 關聯到多個不同電文代號、需要人工決定的類
+     */
+    @NotNull
+    public List<String> getAmbiguous() {
+        return Collections.unmodifiableList(ambiguous);
+    }
+
+    public int getScannedClasses() {
+        return scannedClasses;
+    }
+
+    public int getUpToDateClasses() {
+        return upToDateClasses;
+    }
+}
@@ -0,0 +1,392 @@
+package com.cathaybk.codingassistant.sync;
+
+import com.cathaybk.codingassistant.index.ApiMsgIdIndex;
+import com.cathaybk.codingassistant.index.ApiMsgIdLocation;
+import com.cathaybk.codingassistant.index.ServiceDependency;
+import com.cathaybk.codingassistant.index.ServiceDependencyIndex;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 專案層級的 Controller/Service/Impl 關係圖
+ * <p>
+ * 節點為 Controller、Service 與 Impl 類，邊為實現（implements/extends）與呼叫（Controller 方法使用 Service），
+ * 命名規則（XxxController、XxxService、XxxServiceImpl）在查詢時以名稱表直接查出。
+ * 每個檔案貢獻的節點與邊分開保存，PSI 修改時只標記檔案，下次查詢前重建這些檔案的部分。
+ * 查詢只走訪相關的邊，不再需要迭代次數上限。
+ */
+public final class ServiceRelationGraph implements Disposable {
+
+    private enum EdgeType {
+        IMPLEMENTS, CALLS
+    }
+
+    private static final class Node {
+        final String qualifiedName;
+        final String name;
+        final ApiMsgIdLocation.Kind kind;
+
+        Node(String qualifiedName, String name, ApiMsgIdLocation.Kind kind) {
+            this.qualifiedName = qualifiedName;
+            this.name = name;
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * 邊的終點只記錄簡單名稱（不解析引用），查詢時透過名稱表找到節點
+     */
+    private static final class Edge {
+        final String fromClass;
+        final String toName;
+        final EdgeType type;
+
+        Edge(String fromClass, String toName, EdgeType type) {
+            this.fromClass = fromClass;
+            this.toName = toName;
+            this.type = type;
+        }
+    }
+
+    private static final class FileContribution {
+        final List<Node> nodes = new ArrayList<>();
+        final List<Edge> edges = new ArrayList<>();
+    }
+
+    private final Project project;
+
+    // 各檔案貢獻的節點與邊，用於增量移除
+    private final Map<VirtualFile, FileContribution> contributions = new HashMap<>();
+    // 查詢用的彙總表（邊以物件識別存放，移除為 O(1)）
+    private final Map<String, Node> nodesByQualifiedName = new HashMap<>();
+    private final Map<String, Set<Node>> nodesByName = new HashMap<>();
+    private final Map<String, Set<Edge>> edgesFrom = new HashMap<>();
+    private final Map<String, Set<Edge>> edgesTo = new HashMap<>();
+
+    private final Set<VirtualFile> dirtyFiles = ConcurrentHashMap.newKeySet();
+    private volatile boolean initialized;
+
+    public ServiceRelationGraph(@NotNull Project project) {
+        this.project = project;
+        PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+            @Override
+            public void childAdded(@NotNull PsiTreeChangeEvent event) {
+                markDirty(event);
+            }
+
+            @Override
+            public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+                markDirty(event);
+            }
+
+            @Override
+            public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+                markDirty(event);
+            }
+
+            @Override
+            public void childMoved(@NotNull PsiTreeChangeEvent event) {
+                markDirty(event);
+            }
+
+            @Override
+            public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+                markDirty(event);
+            }
+
+            @Override
+            public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+                markDirty(event);
+            }
+        }, this);
+    }
+
+    public static ServiceRelationGraph getInstance(@NotNull Project project) {
+        return project.getService(ServiceRelationGraph.class);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    /**
+     * 查找與類相關的所有類（需在讀操作、非 dumb mode 中執行）
+     * <p>
+     * Service/Impl：同一接口家族（實現關係與命名規則）以及使用它們的 Controller；
+     * Controller：它使用的 Service 家族以及同樣使用這些 Service 的 Controller。結果不包含來源類。
+     */
+    @NotNull
+    public List<PsiClass> findRelatedClasses(@NotNull PsiClass sourceClass) {
+        String qualifiedName = sourceClass.getQualifiedName();
+        if (qualifiedName == null) {
+            return Collections.emptyList();
+        }
+
+        Set<String> relatedNames = findRelatedClassNames(qualifiedName);
+        List<PsiClass> result = new ArrayList<>(relatedNames.size());
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        for (String relatedName : relatedNames) {
+            PsiClass relatedClass = facade.findClass(relatedName, scope);
+            if (relatedClass != null) {
+                result.add(relatedClass);
+            }
+        }
+        return result;
+    }
+
+    private synchronized Set<String> findRelatedClassNames(String qualifiedName) {
+        ensureUpToDate();
+
+        Node start = nodesByQualifiedName.get(qualifiedName);
+        if (start == null) {
+            return Collections.emptySet();
+        }
+
+        // 1. Service 家族的起點
+        Deque<Node> queue = new ArrayDeque<>();
+        if (start.kind == ApiMsgIdLocation.Kind.CONTROLLER) {
+            for (Edge edge : edgesFrom.getOrDefault(start.qualifiedName, Collections.emptySet())) {
+                if (edge.type == EdgeType.CALLS) {
+                    queue.addAll(nodesByName.getOrDefault(edge.toName, Collections.emptySet()));
+                }
+            }
+            for (String name : getNamingNeighbors(start)) {
+                queue.addAll(nodesByName.getOrDefault(name, Collections.emptySet()));
+            }
+        } else {
+            queue.add(start);
+        }
+
+        // 2. 沿實現關係與命名規則展開 Service/Impl 家族
+        Set<Node> family = new LinkedHashSet<>();
+        while (!queue.isEmpty()) {
+            ProgressManager.checkCanceled();
+            Node node = queue.poll();
+            if (node.kind == ApiMsgIdLocation.Kind.CONTROLLER || !family.add(node)) {
+                continue;
+            }
+            for (Edge edge : edgesFrom.getOrDefault(node.qualifiedName, Collections.emptySet())) {
+                if (edge.type == EdgeType.IMPLEMENTS) {
+                    queue.addAll(nodesByName.getOrDefault(edge.toName, Collections.emptySet()));
+                }
+            }
+            for (Edge edge : edgesTo.getOrDefault(node.name, Collections.emptySet())) {
+                if (edge.type == EdgeType.IMPLEMENTS) {
+                    Node implementor = nodesByQualifiedName.get(edge.fromClass);
+                    if (implementor != null) {
+                        queue.add(implementor);
+                    }
+                }
+            }
+            for (String name : getNamingNeighbors(node)) {
+                queue.addAll(nodesByName.getOrDefault(name, Collections.emptySet()));
+            }
+        }
+
+        // 3. 使用此家族的 Controller（呼叫關係與命名規則）
+        Set<String> result = new LinkedHashSet<>();
+        for (Node node : family) {
+            result.add(node.qualifiedName);
+            for (Edge edge : edgesTo.getOrDefault(node.name, Collections.emptySet())) {
+                if (edge.type == EdgeType.CALLS && nodesByQualifiedName.containsKey(edge.fromClass)) {
+                    result.add(edge.fromClass);
+                }
+            }
+            String controllerName = getBaseName(node.name) + "Controller";
+            for (Node controller : nodesByName.getOrDefault(controllerName, Collections.emptySet())) {
+                result.add(controller.qualifiedName);
+            }
+        }
+        result.remove(start.qualifiedName);
+        return result;
+    }
+
+    /**
+     * 依命名規則相鄰的類名：XxxService、XxxServiceImpl（Controller 則為其 Service 與 Impl）
+     */
+    private static List<String> getNamingNeighbors(Node node) {
+        String baseName = getBaseName(node.name);
+        switch (node.kind) {
+            case CONTROLLER:
+                return Arrays.asList(baseName + "Service", baseName + "ServiceImpl");
+            case SERVICE:
+                return Collections.singletonList(node.name + "Impl");
+            case IMPL:
+                return node.name.endsWith("Impl")
+                        ? Collections.singletonList(node.name.substring(0, node.name.length() - "Impl".length()))
+                        : Collections.emptyList();
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    private static String getBaseName(String name) {
+        for (String suffix : new String[] { "ServiceImpl", "Service", "Controller" }) {
+            if (name.endsWith(suffix)) {
+                return name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return name;
+    }
+
+    // ===== 增量更新 =====
+
+    private void markDirty(PsiTreeChangeEvent event) {
+        PsiFile file = event.getFile();
+        if (file == null && event.getChild() instanceof PsiFile) {
+            file = (PsiFile) event.getChild();
+        }
+
+        if (file == null) {
+            // 目錄層級的變更（移動、重新命名等），下次查詢時全部重建
+            if (event.getParent() instanceof PsiDirectory || event.getChild() instanceof PsiDirectory) {
+                initialized = false;
+            }
+            return;
+        }
+
+        if (file instanceof PsiJavaFile) {
+            VirtualFile virtualFile = file.getVirtualFile();
+            if (virtualFile != null) {
+                dirtyFiles.add(virtualFile);
+            }
+        }
+    }
+
+    private void ensureUpToDate() {
+        if (!initialized) {
+            rebuildAll();
+            return;
+        }
+
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        for (Iterator<VirtualFile> iterator = dirtyFiles.iterator(); iterator.hasNext();) {
+            ProgressManager.checkCanceled();
+            VirtualFile file = iterator.next();
+            FileContribution contribution = file.isValid() && scope.contains(file) ? computeContribution(file) : null;
+            removeContribution(file);
+            if (contribution != null) {
+                addContribution(file, contribution);
+            }
+            iterator.remove();
+        }
+    }
+
+    private void rebuildAll() {
+        dirtyFiles.clear();
+
+        // 先完整計算再替換，建立過程中被取消時保留舊的狀態
+        Map<VirtualFile, FileContribution> rebuilt = new HashMap<>();
+        for (VirtualFile file : FileTypeIndex.getFiles(JavaFileType.INSTANCE, GlobalSearchScope.projectScope(project))) {
+            ProgressManager.checkCanceled();
+            FileContribution contribution = computeContribution(file);
+            if (contribution != null) {
+                rebuilt.put(file, contribution);
+            }
+        }
+
+        contributions.clear();
+        nodesByQualifiedName.clear();
+        nodesByName.clear();
+        edgesFrom.clear();
+        edgesTo.clear();
+        rebuilt.forEach(this::addContribution);
+        initialized = true;
+    }
+
+    private FileContribution computeContribution(VirtualFile file) {
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return null;
+        }
+
+        FileContribution contribution = new FileContribution();
+        for (PsiClass psiClass : ((PsiJavaFile) psiFile).getClasses()) {
+            collectClass(psiClass, contribution);
+        }
+
+        // 呼叫關係直接取自依賴索引，不需要載入方法體
+        Map<String, List<ServiceDependency>> dependencies = FileBasedIndex.getInstance()
+                .getFileData(ServiceDependencyIndex.NAME, file, project);
+        dependencies.forEach((serviceName, list) -> {
+            Set<String> controllers = new HashSet<>();
+            for (ServiceDependency dependency : list) {
+                if (controllers.add(dependency.getControllerClassName())) {
+                    contribution.edges.add(new Edge(dependency.getControllerClassName(), serviceName, EdgeType.CALLS));
+                }
+            }
+        });
+
+        return contribution.nodes.isEmpty() && contribution.edges.isEmpty() ? null : contribution;
+    }
+
+    private void collectClass(PsiClass psiClass, FileContribution contribution) {
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            collectClass(innerClass, contribution);
+        }
+
+        String qualifiedName = psiClass.getQualifiedName();
+        String name = psiClass.getName();
+        ApiMsgIdLocation.Kind kind = ApiMsgIdIndex.getKind(psiClass);
+        if (qualifiedName == null || name == null || kind == ApiMsgIdLocation.Kind.OTHER) {
+            return;
+        }
+        contribution.nodes.add(new Node(qualifiedName, name, kind));
+
+        // 接口以 extends 繼承其他接口，類以 implements 實現接口
+        PsiClassType[] superTypes = psiClass.isInterface() ? psiClass.getExtendsListTypes()
+                : psiClass.getImplementsListTypes();
+        for (PsiClassType superType : superTypes) {
+            contribution.edges.add(new Edge(qualifiedName, superType.getClassName(), EdgeType.IMPLEMENTS));
+        }
+    }
+
+    private void addContribution(VirtualFile file, FileContribution contribution) {
+        contributions.put(file, contribution);
+        for (Node node : contribution.nodes) {
+            nodesByQualifiedName.put(node.qualifiedName, node);
+            nodesByName.computeIfAbsent(node.name, k -> new LinkedHashSet<>()).add(node);
+        }
+        for (Edge edge : contribution.edges) {
+            edgesFrom.computeIfAbsent(edge.fromClass, k -> new LinkedHashSet<>()).add(edge);
+            edgesTo.computeIfAbsent(edge.toName, k -> new LinkedHashSet<>()).add(edge);
+        }
+    }
+
+    private void removeContribution(VirtualFile file) {
+        FileContribution contribution = contributions.remove(file);
+        if (contribution == null) {
+            return;
+        }
+        for (Node node : contribution.nodes) {
+            nodesByQualifiedName.remove(node.qualifiedName, node);
+            removeFromSet(nodesByName, node.name, node);
+        }
+        for (Edge edge : contribution.edges) {
+            removeFromSet(edgesFrom, edge.fromClass, edge);
+            removeFromSet(edgesTo, edge.toName, edge);
+        }
+    }
+
+    private static <T> void removeFromSet(Map<String, Set<T>> map, String key, T value) {
+        Set<T> values = map.get(key);
+        if (values != null) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
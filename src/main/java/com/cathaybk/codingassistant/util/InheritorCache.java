@@ -0,0 +1,52 @@
+package com.cathaybk.codingassistant.util;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.ClassInheritorsSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 接口實現類（繼承者）查詢的快取
+ * <p>
+ * 使用 {@link ClassInheritorsSearch}，透過 stub 索引中的父類名稱找出繼承者，
+ * 不需要掃描接口的所有引用。結果依 {@link JavaStructureModificationTracker} 失效，
+ * 方法體內不涉及匿名類或局部類的修改不影響快取；專案依賴改變時也會失效。
+ */
+public final class InheritorCache {
+
+    private static final Key<CachedValue<Set<PsiClass>>> INHERITORS_KEY = Key.create("cathaybk.inheritors");
+
+    private InheritorCache() {
+    }
+
+    /**
+     * 專案範圍內的所有繼承者（包含間接繼承）
+     */
+    @NotNull
+    public static Set<PsiClass> getInheritors(@NotNull PsiClass baseClass) {
+        return CachedValuesManager.getCachedValue(baseClass, INHERITORS_KEY, () -> {
+            Project project = baseClass.getProject();
+            Set<PsiClass> inheritors = new LinkedHashSet<>(ClassInheritorsSearch
+                    .search(baseClass, GlobalSearchScope.projectScope(project), true).findAll());
+            return CachedValueProvider.Result.create(Collections.unmodifiableSet(inheritors),
+                    JavaStructureModificationTracker.getInstance(project), ProjectRootManager.getInstance(project));
+        });
+    }
+
+    /**
+     * 判斷類是否直接或間接繼承（實現）指定的類或接口
+     */
+    public static boolean isInheritor(@NotNull PsiClass psiClass, @NotNull PsiClass baseClass) {
+        return getInheritors(baseClass).contains(psiClass);
+    }
+}
@@ -0,0 +1,114 @@
+package com.cathaybk.codingassistant.util;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiCodeBlock;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 只在 Java 類結構改變時遞增的修改計數
+ * <p>
+ * {@code PsiModificationTracker.forLanguage(JavaLanguage.INSTANCE)} 在任何 Java 檔案的任何 PSI 修改都會遞增，
+ * 包含方法體內的輸入。此計數忽略發生在 {@link PsiCodeBlock} 內、且不涉及類（匿名類或局部類）的修改，
+ * 類宣告、繼承關係、註解、字段與方法簽名的修改，以及檔案與目錄的新增、刪除、移動仍會遞增。
+ * <p>
+ * 適合只依賴類結構的快取（繼承者、stereotype 註解）；依賴方法體內引用的結果不可使用。
+ */
+public final class JavaStructureModificationTracker implements ModificationTracker, Disposable {
+
+    private final SimpleModificationTracker tracker = new SimpleModificationTracker();
+
+    public JavaStructureModificationTracker(@NotNull Project project) {
+        PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+            @Override
+            public void childAdded(@NotNull PsiTreeChangeEvent event) {
+                onChange(event);
+            }
+
+            @Override
+            public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+                onChange(event);
+            }
+
+            @Override
+            public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+                onChange(event);
+            }
+
+            @Override
+            public void childMoved(@NotNull PsiTreeChangeEvent event) {
+                onChange(event);
+            }
+
+            @Override
+            public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+                onChange(event);
+            }
+
+            @Override
+            public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+                onChange(event);
+            }
+        }, this);
+    }
+
+    public static JavaStructureModificationTracker getInstance(@NotNull Project project) {
+        return project.getService(JavaStructureModificationTracker.class);
+    }
+
+    @Override
+    public long getModificationCount() {
+        return tracker.getModificationCount();
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    private void onChange(PsiTreeChangeEvent event) {
+        PsiFile file = event.getFile();
+        if (file == null) {
+            // 檔案本身或目錄層級的變更（新增、刪除、移動、重新命名）
+            if (event.getParent() instanceof PsiDirectory || event.getChild() instanceof PsiDirectory
+                    || event.getChild() instanceof PsiJavaFile || event.getOldChild() instanceof PsiJavaFile
+                    || event.getNewChild() instanceof PsiJavaFile) {
+                tracker.incModificationCount();
+            }
+            return;
+        }
+        if (file instanceof PsiJavaFile && !isInsideCodeBlock(event)) {
+            tracker.incModificationCount();
+        }
+    }
+
+    /**
+     * 修改是否完全發生在方法體（或初始化區塊、lambda 區塊）內且不涉及類
+     */
+    private static boolean isInsideCodeBlock(PsiTreeChangeEvent event) {
+        PsiElement parent = event.getParent();
+        if (PsiTreeUtil.getParentOfType(parent, PsiCodeBlock.class, false) == null) {
+            // 整個方法體被重新解析時，被替換的是方法體本身
+            PsiElement replaced = event.getOldChild() != null ? event.getOldChild() : event.getChild();
+            if (!(replaced instanceof PsiCodeBlock) || !(event.getNewChild() instanceof PsiCodeBlock)) {
+                return false;
+            }
+        }
+        return !containsClass(event.getChild()) && !containsClass(event.getOldChild())
+                && !containsClass(event.getNewChild());
+    }
+
+    private static boolean containsClass(PsiElement element) {
+        return element != null && PsiTreeUtil.findChildOfType(element, PsiClass.class, false) != null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.cathaybk.codingassistant.util;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocCommentOwner;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiModifierList;
+import com.intellij.psi.javadoc.PsiDocComment;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批次改寫 Javadoc 電文代號
+ * <p>
+ * 先收集所有要修改的類與方法，套用時每個檔案只計算一次文字修改、由後往前直接改寫 {@link Document}，
+ * 最後每個檔案只提交一次。不像 {@code PsiElement.replace} 每個元素都觸發一次重新解析與 PSI 事件，
+ * 成本只與修改的檔案數量有關。
+ */
+public class JavadocBatchRewriter {
+
+    private final Project project;
+    // 檔案 -> (類或方法 -> 新的電文代號行)
+    private final Map<PsiFile, Map<PsiDocCommentOwner, String>> pending = new LinkedHashMap<>();
+
+    public JavadocBatchRewriter(@NotNull Project project) {
+        this.project = project;
+    }
+
+    /**
+     * 將類或方法的 Javadoc 設為只包含一行電文代號（已有 Javadoc 時整段替換）
+     *
+     * @param apiIdLine 電文代號行，例如 {@code RET-B-TAKINGFILE 取件檔案查詢}
+     */
+    public void setApiId(@NotNull PsiDocCommentOwner owner, @NotNull String apiIdLine) {
+        PsiFile file = owner.getContainingFile();
+        if (file != null) {
+            pending.computeIfAbsent(file, k -> new LinkedHashMap<>()).put(owner, apiIdLine);
+        }
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * 套用所有修改（需在寫入命令中執行）
+     *
+     * @return 實際改寫的 Javadoc 數量
+     */
+    public int apply() {
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        int count = 0;
+
+        for (Map.Entry<PsiFile, Map<PsiDocCommentOwner, String>> entry : pending.entrySet()) {
+            PsiFile file = entry.getKey();
+            Document document = file.isValid() ? documentManager.getDocument(file) : null;
+            if (document == null) {
+                continue;
+            }
+
+            // 位移必須以最新的 PSI 計算
+            documentManager.doPostponedOperationsAndUnblockDocument(document);
+            documentManager.commitDocument(document);
+
+            List<TextEdit> edits = new ArrayList<>();
+            for (Map.Entry<PsiDocCommentOwner, String> ownerEntry : entry.getValue().entrySet()) {
+                PsiDocCommentOwner owner = ownerEntry.getKey();
+                if (owner.isValid()) {
+                    edits.add(createEdit(document, owner, ownerEntry.getValue()));
+                }
+            }
+
+            // 由後往前改寫，前面的位移不受影響
+            edits.sort(Comparator.comparingInt((TextEdit edit) -> edit.startOffset).reversed());
+            for (TextEdit edit : edits) {
+                document.replaceString(edit.startOffset, edit.endOffset, edit.text);
+            }
+            documentManager.commitDocument(document);
+            count += edits.size();
+        }
+
+        pending.clear();
+        return count;
+    }
+
+    private static TextEdit createEdit(Document document, PsiDocCommentOwner owner, String apiIdLine) {
+        PsiDocComment existingComment = owner.getDocComment();
+        if (existingComment != null) {
+            TextRange range = existingComment.getTextRange();
+            String indent = getIndent(document, range.getStartOffset());
+            return new TextEdit(range.getStartOffset(), range.getEndOffset(), buildComment(apiIdLine, indent));
+        }
+
+        // 沒有 Javadoc 時插入在修飾詞（含註解）之前，與原本 addBefore(modifierList) 的位置相同
+        PsiModifierList modifierList = owner.getModifierList();
+        int offset = modifierList != null ? modifierList.getTextRange().getStartOffset()
+                : owner.getTextRange().getStartOffset();
+        String indent = getIndent(document, offset);
+        return new TextEdit(offset, offset, buildComment(apiIdLine, indent) + "\n" + indent);
+    }
+
+    private static String buildComment(String apiIdLine, String indent) {
+        return "/**\n" + indent + " * " + apiIdLine + "\n" + indent + " */";
+    }
+
+    /**
+     * 取得位移所在行的縮排；位移前還有其他文字時不縮排
+     */
+    private static String getIndent(Document document, int offset) {
+        int lineStart = document.getLineStartOffset(document.getLineNumber(offset));
+        CharSequence prefix = document.getCharsSequence().subSequence(lineStart, offset);
+        for (int i = 0; i < prefix.length(); i++) {
+            if (!Character.isWhitespace(prefix.charAt(i))) {
+                return "";
+            }
+        }
+        return prefix.toString();
+    }
+
+    private static class TextEdit {
+        final int startOffset;
+        final int endOffset;
+        final String text;
+
+        TextEdit(int startOffset, int endOffset, String text) {
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.cathaybk.codingassistant.util;
+
+import com.intellij.psi.JavaDocTokenType;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.javadoc.PsiDocToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 從 Javadoc 中提取電文代號，所有檢查器與動作共用
+ * <p>
+ * 只掃描 Javadoc 的文字資料 token（不含 {@code /**}、行首星號與標籤名稱），
+ * 直接讀取 token 的 {@link CharSequence}，不呼叫 {@code getText()} 複製整段註解。
+ */
+public final class JavadocMsgIdExtractor {
+
+    private JavadocMsgIdExtractor() {
+    }
+
+    /**
+     * 尋找 Javadoc 中第一個電文代號
+     *
+     * @param match 找到時填入來源 token 的文字與位移
+     * @return 是否找到
+     */
+    public static boolean find(@Nullable PsiDocComment docComment, @NotNull MsgIdMatch match) {
+        return docComment != null && scan(docComment, match);
+    }
+
+    /**
+     * 取得 Javadoc 中包含說明的完整電文代號行
+     *
+     * @return 沒有電文代號時返回 null
+     */
+    @Nullable
+    public static String findFullText(@Nullable PsiDocComment docComment) {
+        MsgIdMatch match = new MsgIdMatch();
+        return find(docComment, match) ? match.fullText() : null;
+    }
+
+    private static boolean scan(PsiElement element, MsgIdMatch match) {
+        for (PsiElement child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof PsiDocToken) {
+                if (((PsiDocToken) child).getTokenType() == JavaDocTokenType.DOC_COMMENT_DATA) {
+                    CharSequence chars = child.getNode().getChars();
+                    if (MsgIdLexer.find(chars, 0, chars.length(), match)) {
+                        return true;
+                    }
+                }
+            } else if (scan(child, match)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,207 @@
+package com.cathaybk.codingassistant.util;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiShortNamesCache;
+import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiUtilCore;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 專案中 Spring stereotype（{@code @Controller}、{@code @RestController}、{@code @Service}）標註的類
+ * <p>
+ * 以 {@link AnnotatedElementsSearch} 透過 stub 索引找出標註的類，包含以這些註解組成的自訂註解
+ * （例如標有 {@code @RestController} 的 {@code @ApiController}）；Service 另外包含 {@code @Service}
+ * 實現類所實現的專案內接口。結果依 {@link JavaStructureModificationTracker} 與專案依賴快取，
+ * 方法體內的輸入不會重新搜尋，查詢為常數時間。
+ * <p>
+ * 專案的 classpath 找不到 Spring 註解時（例如只有原始碼、尚未匯入依賴）改用類名與包名判斷，
+ * 與原本的規則相同。需在讀操作中呼叫。
+ */
+public final class SpringStereotypeRegistry {
+
+    private static final List<String> CONTROLLER_ANNOTATIONS = List.of(
+            "org.springframework.stereotype.Controller",
+            "org.springframework.web.bind.annotation.RestController");
+    private static final List<String> SERVICE_ANNOTATIONS = List.of(
+            "org.springframework.stereotype.Service");
+
+    private static final Key<CachedValue<Stereotypes>> STEREOTYPES_KEY = Key.create("cathaybk.springStereotypes");
+
+    private final Project project;
+
+    public SpringStereotypeRegistry(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static SpringStereotypeRegistry getInstance(@NotNull Project project) {
+        return project.getService(SpringStereotypeRegistry.class);
+    }
+
+    public boolean isController(@NotNull PsiClass psiClass) {
+        Stereotypes stereotypes = getStereotypes();
+        return stereotypes.annotationsResolved ? stereotypes.controllers.contains(psiClass)
+                : isControllerByName(psiClass);
+    }
+
+    public boolean isService(@NotNull PsiClass psiClass) {
+        Stereotypes stereotypes = getStereotypes();
+        return stereotypes.annotationsResolved ? stereotypes.services.contains(psiClass)
+                : isServiceByName(psiClass);
+    }
+
+    /**
+     * 專案範圍內所有的 Controller 類
+     */
+    @NotNull
+    public Collection<PsiClass> getControllers() {
+        return getStereotypes().controllers;
+    }
+
+    private Stereotypes getStereotypes() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, STEREOTYPES_KEY,
+                () -> CachedValueProvider.Result.create(computeStereotypes(),
+                        JavaStructureModificationTracker.getInstance(project), ProjectRootManager.getInstance(project)),
+                false);
+    }
+
+    private Stereotypes computeStereotypes() {
+        GlobalSearchScope projectScope = GlobalSearchScope.projectScope(project);
+        GlobalSearchScope allScope = GlobalSearchScope.allScope(project);
+
+        Set<PsiClass> controllerAnnotations = resolveAnnotations(CONTROLLER_ANNOTATIONS, allScope);
+        Set<PsiClass> serviceAnnotations = resolveAnnotations(SERVICE_ANNOTATIONS, allScope);
+        if (controllerAnnotations.isEmpty() && serviceAnnotations.isEmpty()) {
+            return new Stereotypes(false, findControllersByName(projectScope), Collections.emptySet());
+        }
+
+        Set<PsiClass> controllers = findAnnotatedClasses(controllerAnnotations, projectScope);
+        Set<PsiClass> services = findAnnotatedClasses(serviceAnnotations, projectScope);
+
+        // Service 接口本身不標註 @Service，由實現類反推
+        Set<PsiClass> serviceInterfaces = new LinkedHashSet<>();
+        for (PsiClass service : services) {
+            for (PsiClass superClass : service.getSupers()) {
+                VirtualFile file = PsiUtilCore.getVirtualFile(superClass);
+                if (superClass.isInterface() && file != null && projectScope.contains(file)) {
+                    serviceInterfaces.add(superClass);
+                }
+            }
+        }
+        services.addAll(serviceInterfaces);
+        return new Stereotypes(true, controllers, services);
+    }
+
+    private Set<PsiClass> resolveAnnotations(List<String> qualifiedNames, GlobalSearchScope scope) {
+        Set<PsiClass> annotations = new LinkedHashSet<>();
+        for (String qualifiedName : qualifiedNames) {
+            PsiClass annotation = JavaPsiFacade.getInstance(project).findClass(qualifiedName, scope);
+            if (annotation != null) {
+                annotations.add(annotation);
+            }
+        }
+        return annotations;
+    }
+
+    /**
+     * 找出標註了指定註解（或以其組成的專案內註解）的非註解類
+     */
+    private static Set<PsiClass> findAnnotatedClasses(Set<PsiClass> annotations, GlobalSearchScope scope) {
+        Set<PsiClass> result = new LinkedHashSet<>();
+        Set<PsiClass> visitedAnnotations = new HashSet<>(annotations);
+        Deque<PsiClass> pending = new ArrayDeque<>(annotations);
+        while (!pending.isEmpty()) {
+            ProgressManager.checkCanceled();
+            PsiClass annotation = pending.poll();
+            for (PsiClass annotated : AnnotatedElementsSearch.searchPsiClasses(annotation, scope).findAll()) {
+                if (annotated.isAnnotationType()) {
+                    if (visitedAnnotations.add(annotated)) {
+                        pending.add(annotated);
+                    }
+                } else {
+                    result.add(annotated);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 沒有 Spring 註解時以名稱找出 Controller：類名含 Controller 或位於 controller 包下
+     */
+    private Set<PsiClass> findControllersByName(GlobalSearchScope scope) {
+        Set<PsiClass> result = new LinkedHashSet<>();
+        PsiShortNamesCache cache = PsiShortNamesCache.getInstance(project);
+        for (String name : cache.getAllClassNames()) {
+            ProgressManager.checkCanceled();
+            for (PsiClass psiClass : cache.getClassesByName(name, scope)) {
+                if (isControllerByName(psiClass)) {
+                    result.add(psiClass);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isControllerByName(PsiClass psiClass) {
+        String className = psiClass.getName();
+        if (className == null) {
+            return false;
+        }
+        if (className.contains("Controller") || hasAnnotationEndingWith(psiClass, "Controller")) {
+            return true;
+        }
+        String qualifiedName = psiClass.getQualifiedName();
+        return qualifiedName != null && qualifiedName.contains(".controller.");
+    }
+
+    private static boolean isServiceByName(PsiClass psiClass) {
+        String className = psiClass.getName();
+        return className != null && (className.contains("Service") || hasAnnotationEndingWith(psiClass, "Service"));
+    }
+
+    /**
+     * 註解無法解析時限定名稱即為原始碼中的文字，只能比對結尾
+     */
+    private static boolean hasAnnotationEndingWith(PsiClass psiClass, String suffix) {
+        for (PsiAnnotation annotation : psiClass.getAnnotations()) {
+            String qualifiedName = annotation.getQualifiedName();
+            if (qualifiedName != null && qualifiedName.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Stereotypes {
+        // 是否找得到 Spring 註解；找不到時改用名稱判斷
+        final boolean annotationsResolved;
+        final Set<PsiClass> controllers;
+        final Set<PsiClass> services;
+
+        Stereotypes(boolean annotationsResolved, Set<PsiClass> controllers, Set<PsiClass> services) {
+            this.annotationsResolved = annotationsResolved;
+            this.controllers = Collections.unmodifiableSet(controllers);
+            this.services = Collections.unmodifiableSet(services);
+        }
+    }
+}
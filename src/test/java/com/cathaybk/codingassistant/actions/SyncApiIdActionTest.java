@@ -0,0 +1,85 @@
+package com.cathaybk.codingassistant.actions;
+
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.TestDialog;
+import com.intellij.openapi.ui.TestDialogManager;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class SyncApiIdActionTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private TestDialog previousDialog;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.addClass("package org.springframework.stereotype; public @interface Service {}");
+        myFixture.addClass("package org.springframework.stereotype; public @interface Controller {}");
+        myFixture.addClass("package org.springframework.web.bind.annotation; "
+                + "@org.springframework.stereotype.Controller public @interface RestController {}");
+        myFixture.addClass("package org.springframework.web.bind.annotation; public @interface PostMapping {"
+                + " String[] value() default {}; }");
+        previousDialog = TestDialogManager.setTestDialog(message -> {
+            messages.add(message);
+            return Messages.OK;
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            TestDialogManager.setTestDialog(previousDialog);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testMethodWithoutMsgIdShowsMessage() {
+        myFixture.configureByText("TellerService.java", "package demo;\n"
+                + "public interface TellerService {\n"
+                + "    /**\n     * 查詢\n     */\n"
+                + "    String que<caret>ry(String request);\n"
+                + "}\n");
+
+        String message = invokeAndWaitForMessage();
+        assertTrue(message, message.contains("沒有電文代號"));
+    }
+
+    public void testInterfaceMethodSyncsControllerCallingThroughImpl() {
+        myFixture.addClass("package demo; @org.springframework.stereotype.Service "
+                + "public class TellerServiceImpl implements TellerService {"
+                + " @Override public String query(String request) { return request; } }");
+        PsiClass controller = myFixture.addClass("package demo;\n"
+                + "@org.springframework.web.bind.annotation.RestController\n"
+                + "public class TellerController {\n"
+                + "    private TellerServiceImpl tellerService;\n"
+                + "    /**\n     * 查詢\n     */\n"
+                + "    @org.springframework.web.bind.annotation.PostMapping(\"/query\")\n"
+                + "    public String query(String request) { return tellerService.query(request); }\n"
+                + "}");
+        myFixture.configureByText("TellerService.java", "package demo;\n"
+                + "public interface TellerService {\n"
+                + "    /**\n     * RET-B-QUERY 查詢\n     */\n"
+                + "    String que<caret>ry(String request);\n"
+                + "}\n");
+
+        String message = invokeAndWaitForMessage();
+        assertTrue(message, message.startsWith("已成功將電文代號 '"));
+        PsiDocComment docComment = controller.findMethodsByName("query", false)[0].getDocComment();
+        assertNotNull(docComment);
+        assertTrue(docComment.getText(), docComment.getText().contains("RET-B-QUERY"));
+    }
+
+    private String invokeAndWaitForMessage() {
+        new SyncApiIdAction().invoke(getProject(), myFixture.getEditor(), myFixture.getFile());
+        // 查找在背景任務中執行，以訊息判斷結束
+        PlatformTestUtil.waitWithEventsDispatching("同步沒有在時限內完成", () -> !messages.isEmpty(), 30);
+        return messages.get(0);
+    }
+}
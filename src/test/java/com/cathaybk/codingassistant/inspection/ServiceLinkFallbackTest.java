@@ -0,0 +1,47 @@
+package com.cathaybk.codingassistant.inspection;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.List;
+import java.util.Map;
+
+public class ServiceLinkFallbackTest extends LightJavaCodeInsightFixtureTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.addClass("package org.springframework.web.bind.annotation; public @interface PostMapping {"
+                + " String[] value() default {}; }");
+        myFixture.addClass("package demo; public class TellerService { public String handle(String r) { return r; } }");
+        // 不使用 TellerService 的 Controller，類級別有電文代號
+        myFixture.addClass("package demo;\n"
+                + "/**\n * RET-C-UNRELATED 無關的 Controller\n */\n"
+                + "public class UnrelatedController {\n"
+                + "    /**\n     * RET-C-QUERY 查詢\n     */\n"
+                + "    @org.springframework.web.bind.annotation.PostMapping(\"/query\")\n"
+                + "    public String query(String r) { return r; }\n"
+                + "}");
+    }
+
+    public void testExhaustedBudgetDoesNotUseClassLevelApiId() {
+        Map<String, String> result = ServiceLinkInspection.findFallbackApiIds(service(),
+                FallbackBudget.limited(0, 1_000), this::controllers);
+        assertTrue(result.toString(), result.isEmpty());
+    }
+
+    public void testCompleteScanFallsBackToClassLevelApiId() {
+        Map<String, String> result = ServiceLinkInspection.findFallbackApiIds(service(),
+                FallbackBudget.UNLIMITED, this::controllers);
+        assertEquals(1, result.size());
+        assertTrue(result.toString(), result.values().iterator().next().startsWith("RET-C-UNRELATED"));
+    }
+
+    private PsiClass service() {
+        return myFixture.findClass("demo.TellerService");
+    }
+
+    private ControllerApis controllers() {
+        return ControllerApis.collect(List.of(myFixture.findClass("demo.UnrelatedController")));
+    }
+}
@@ -0,0 +1,16 @@
+package com.cathaybk.codingassistant.perf;
+
+import com.intellij.testFramework.fixtures.JavaCodeInsightFixtureTestCase;
+
+/**
+ * 以 heavy fixture（磁碟上的模組與檔案）量測 10k 個類的檢查器高亮與電文代號同步耗時
+ */
+public class InspectionLatencyHeavyTest extends JavaCodeInsightFixtureTestCase {
+
+    public void test10000Classes() throws Exception {
+        SyntheticProjectLatency latency = SyntheticProjectLatency.create(myFixture, 10_000);
+        latency.assertControllerHighlighting(1_000);
+        latency.assertServiceHighlighting(1_000);
+        latency.assertSync(15_000);
+    }
+}
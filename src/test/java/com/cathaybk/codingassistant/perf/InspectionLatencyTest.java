@@ -0,0 +1,23 @@
+package com.cathaybk.codingassistant.perf;
+
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+/**
+ * 以 light fixture 量測 100 與 1k 個類的檢查器高亮與電文代號同步耗時
+ */
+public class InspectionLatencyTest extends LightJavaCodeInsightFixtureTestCase {
+
+    public void test100Classes() throws Exception {
+        SyntheticProjectLatency latency = SyntheticProjectLatency.create(myFixture, 100);
+        latency.assertControllerHighlighting(300);
+        latency.assertServiceHighlighting(300);
+        latency.assertSync(3_000);
+    }
+
+    public void test1000Classes() throws Exception {
+        SyntheticProjectLatency latency = SyntheticProjectLatency.create(myFixture, 1_000);
+        latency.assertControllerHighlighting(500);
+        latency.assertServiceHighlighting(500);
+        latency.assertSync(5_000);
+    }
+}
@@ -0,0 +1,247 @@
+package com.cathaybk.codingassistant.perf;
+
+import com.cathaybk.codingassistant.actions.SyncApiIdAction;
+import com.cathaybk.codingassistant.inspection.ApiMsgIdInspection;
+import com.cathaybk.codingassistant.inspection.ServiceLinkInspection;
+import com.cathaybk.codingassistant.lint.SyntheticProjectGenerator;
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.TestDialog;
+import com.intellij.openapi.ui.TestDialogManager;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.JavaCodeInsightTestFixture;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * 在 fixture 中建立 {@link SyntheticProjectGenerator} 產生的專案，量測外掛檢查器與同步的耗時
+ * <p>
+ * 高亮只量測抽樣的檔案：單一檔案的延遲不應隨專案規模成長，退回掃描所有 Controller 之類的退化會直接反映在平均值上。
+ * 預算可用 {@code -Dcathaybk.perf.budgetScale=2} 整體放寬。
+ */
+final class SyntheticProjectLatency {
+
+    private static final double BUDGET_SCALE = Double.parseDouble(System.getProperty("cathaybk.perf.budgetScale", "1"));
+    // 每種類抽樣高亮的檔案數
+    private static final int SAMPLE_FILES = 10;
+    private static final int SYNC_TIMEOUT_SECONDS = 120;
+    private static final String BASE_PACKAGE = "com.cathaybk.synthetic";
+    private static final Pattern SERVICE_CALL = Pattern.compile("return (\\w+)\\.handle");
+
+    private final JavaCodeInsightTestFixture fixture;
+    private final SyntheticProjectGenerator.Summary summary;
+
+    private SyntheticProjectLatency(JavaCodeInsightTestFixture fixture, SyntheticProjectGenerator.Summary summary) {
+        this.fixture = fixture;
+        this.summary = summary;
+    }
+
+    /**
+     * 產生專案並複製到 fixture，啟用兩個檢查器；ServiceLinkInspection 開啟有上限的退回掃描
+     */
+    static SyntheticProjectLatency create(JavaCodeInsightTestFixture fixture, int classCount) throws IOException {
+        Path root = Files.createTempDirectory("msgid-synthetic");
+        try {
+            SyntheticProjectGenerator.Summary summary = new SyntheticProjectGenerator(classCount, 0.8, 0.5, 3, 0.1, 42)
+                    .generate(root);
+            addSpringStubs(fixture);
+            fixture.setTestDataPath(root.toString());
+            fixture.copyDirectoryToProject("", "");
+
+            ServiceLinkInspection serviceLink = new ServiceLinkInspection();
+            serviceLink.fallbackMethodBudget = 1_000;
+            fixture.enableInspections(new ApiMsgIdInspection(), serviceLink);
+            return new SyntheticProjectLatency(fixture, summary);
+        } finally {
+            FileUtil.delete(root.toFile());
+        }
+    }
+
+    /**
+     * 產生的原始碼只用到這幾個 Spring 註解，以空的註解類代替依賴
+     */
+    private static void addSpringStubs(JavaCodeInsightTestFixture fixture) {
+        fixture.addClass("package org.springframework.stereotype; public @interface Service {}");
+        fixture.addClass("package org.springframework.stereotype; public @interface Controller {}");
+        fixture.addClass("package org.springframework.web.bind.annotation; "
+                + "@org.springframework.stereotype.Controller public @interface RestController {}");
+        fixture.addClass("package org.springframework.web.bind.annotation; public @interface PostMapping {"
+                + " String[] value() default {}; }");
+    }
+
+    /**
+     * 高亮抽樣的 Controller，確認缺少電文代號的 API 方法都被標示，並檢查平均耗時
+     */
+    void assertControllerHighlighting(long budgetMillis) {
+        // 暖機：第一次查詢索引時會建立整個專案的索引
+        fixture.configureFromTempProjectFile(summary.getControllerPath(0));
+        fixture.doHighlighting();
+
+        long totalNanos = 0;
+        int[] samples = sampleIndices();
+        for (int index : samples) {
+            PsiFile file = fixture.configureFromTempProjectFile(summary.getControllerPath(index));
+            long start = System.nanoTime();
+            List<HighlightInfo> infos = fixture.doHighlighting();
+            totalNanos += System.nanoTime() - start;
+
+            assertEquals(file.getName(), countOccurrences(file.getText(), "尚未申請電文代號"),
+                    countWarnings(infos, "ApiMsgIdInspection"));
+        }
+        assertWithinBudget("ApiMsgIdInspection 平均每個 Controller 的高亮", totalNanos / samples.length, budgetMillis);
+    }
+
+    /**
+     * 高亮抽樣的 ServiceImpl（包含沒有 Controller 使用、會退回掃描所有 Controller 的類），
+     * 確認問題與產生器預期相同，並檢查平均耗時
+     */
+    void assertServiceHighlighting(long budgetMillis) {
+        fixture.configureFromTempProjectFile(summary.getServiceImplPath(0));
+        fixture.doHighlighting();
+
+        long totalNanos = 0;
+        int[] samples = sampleIndices();
+        for (int index : samples) {
+            PsiFile file = fixture.configureFromTempProjectFile(summary.getServiceImplPath(index));
+            long start = System.nanoTime();
+            List<HighlightInfo> infos = fixture.doHighlighting();
+            totalNanos += System.nanoTime() - start;
+
+            String className = FileUtil.getNameWithoutExtension(file.getName());
+            assertEquals(file.getName(), summary.getServiceLinkClasses().contains(className) ? 1 : 0,
+                    countWarnings(infos, "ServiceLinkInspection"));
+        }
+        assertWithinBudget("ServiceLinkInspection 平均每個 ServiceImpl 的高亮", totalNanos / samples.length,
+                budgetMillis);
+    }
+
+    /**
+     * 從 Controller API 方法同步電文代號到其使用的 Service，量測到顯示結果為止的耗時
+     */
+    void assertSync(long budgetMillis) {
+        JavaPsiFacade facade = JavaPsiFacade.getInstance(fixture.getProject());
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(fixture.getProject());
+        for (int index = 0; index < summary.getGroupCount(); index++) {
+            PsiClass controller = facade.findClass(BASE_PACKAGE + ".controller.Synthetic" + index + "Controller", scope);
+            assertNotNull(controller);
+            for (PsiMethod method : controller.getMethods()) {
+                String msgId = findMsgId(method);
+                PsiClass service = msgId != null ? findCalledService(controller, method) : null;
+                if (service != null) {
+                    syncAndCheck(method, service, msgId, budgetMillis);
+                    return;
+                }
+            }
+        }
+        fail("模擬專案中沒有帶電文代號的 API 方法");
+    }
+
+    private void syncAndCheck(PsiMethod method, PsiClass service, String msgId, long budgetMillis) {
+        String serviceName = service.getQualifiedName();
+        fixture.configureFromExistingVirtualFile(method.getContainingFile().getVirtualFile());
+        fixture.getEditor().getCaretModel().moveToOffset(method.getNameIdentifier().getTextOffset());
+
+        List<String> messages = new CopyOnWriteArrayList<>();
+        TestDialog previous = TestDialogManager.setTestDialog(message -> {
+            messages.add(message);
+            return Messages.OK;
+        });
+        try {
+            long start = System.nanoTime();
+            new SyncApiIdAction().invoke(fixture.getProject(), fixture.getEditor(), fixture.getFile());
+            // 查找在背景任務中執行，以結果訊息判斷同步結束
+            PlatformTestUtil.waitWithEventsDispatching("同步沒有在時限內完成", () -> !messages.isEmpty(),
+                    SYNC_TIMEOUT_SECONDS);
+            long elapsedNanos = System.nanoTime() - start;
+
+            assertTrue(messages.get(0), messages.get(0).startsWith("已成功將電文代號 '" + msgId));
+            // 寫入後重新解析，重新查找 Service 類
+            PsiClass updated = JavaPsiFacade.getInstance(fixture.getProject()).findClass(serviceName,
+                    GlobalSearchScope.projectScope(fixture.getProject()));
+            assertNotNull(serviceName, updated);
+            PsiDocComment docComment = updated.getDocComment();
+            assertNotNull(serviceName, docComment);
+            assertTrue(docComment.getText(), docComment.getText().contains(msgId));
+            assertWithinBudget("SyncApiIdAction 同步 " + method.getName(), elapsedNanos, budgetMillis);
+        } finally {
+            TestDialogManager.setTestDialog(previous);
+        }
+    }
+
+    private static String findMsgId(PsiMethod method) {
+        PsiDocComment docComment = method.getDocComment();
+        if (docComment == null) {
+            return null;
+        }
+        Matcher matcher = Pattern.compile("SYN-C\\d+-M\\d+").matcher(docComment.getText());
+        return matcher.find() ? matcher.group() : null;
+    }
+
+    private static PsiClass findCalledService(PsiClass controller, PsiMethod method) {
+        Matcher matcher = SERVICE_CALL.matcher(method.getText());
+        if (!matcher.find()) {
+            return null;
+        }
+        PsiField field = controller.findFieldByName(matcher.group(1), false);
+        return field != null ? JavaPsiFacade.getInstance(controller.getProject())
+                .findClass(field.getType().getCanonicalText(), GlobalSearchScope.projectScope(controller.getProject()))
+                : null;
+    }
+
+    /**
+     * 平均分布在整個專案的抽樣，最後一個是編號最大的類（未被使用的 Service）
+     */
+    private int[] sampleIndices() {
+        int groupCount = summary.getGroupCount();
+        int count = Math.min(SAMPLE_FILES, groupCount);
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = count == 1 ? 0 : (int) ((long) i * (groupCount - 1) / (count - 1));
+        }
+        return indices;
+    }
+
+    private static int countWarnings(List<HighlightInfo> infos, String inspectionId) {
+        int count = 0;
+        for (HighlightInfo info : infos) {
+            if (info.getSeverity() == HighlightSeverity.WARNING && inspectionId.equals(info.getInspectionToolId())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countOccurrences(String text, String part) {
+        int count = 0;
+        for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + part.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private void assertWithinBudget(String name, long elapsedNanos, long budgetMillis) {
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        long scaledBudget = (long) (budgetMillis * BUDGET_SCALE);
+        System.out.println(String.format("%6d 個類: %s %d ms（預算 %d ms）", summary.getClassCount(), name,
+                elapsedMillis, scaledBudget));
+        assertTrue(name + " 耗時 " + elapsedMillis + " ms，超出 " + summary.getClassCount() + " 個類的預算 "
+                + scaledBudget + " ms", elapsedMillis <= scaledBudget);
+    }
+}
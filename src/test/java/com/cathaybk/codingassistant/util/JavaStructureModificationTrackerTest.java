@@ -0,0 +1,73 @@
+package com.cathaybk.codingassistant.util;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+public class JavaStructureModificationTrackerTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private static final String SOURCE = "package demo;\n"
+            + "public class Teller implements Runnable {\n"
+            + "    public void run() {\n"
+            + "        int count = 1;<caret>\n"
+            + "    }\n"
+            + "}\n";
+
+    public void testTypingInMethodBodyDoesNotIncrement() {
+        myFixture.configureByText("Teller.java", SOURCE);
+        long before = tracker().getModificationCount();
+
+        myFixture.type("\n        count++;");
+        commit();
+
+        assertEquals(before, tracker().getModificationCount());
+    }
+
+    public void testAnonymousClassInMethodBodyIncrements() {
+        myFixture.configureByText("Teller.java", SOURCE);
+        long before = tracker().getModificationCount();
+
+        myFixture.type("\n        Runnable task = new Runnable() { public void run() {} };");
+        commit();
+
+        assertTrue(tracker().getModificationCount() > before);
+    }
+
+    public void testMemberChangeIncrements() {
+        myFixture.configureByText("Teller.java", SOURCE);
+        long before = tracker().getModificationCount();
+
+        PsiClass teller = myFixture.findClass("demo.Teller");
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> teller.add(
+                JavaPsiFacade.getElementFactory(getProject()).createMethodFromText("public void stop() {}", teller)));
+
+        assertTrue(tracker().getModificationCount() > before);
+    }
+
+    public void testInheritorCacheSurvivesMethodBodyEdit() {
+        myFixture.addClass("package demo; public interface TellerService {}");
+        myFixture.configureByText("TellerServiceImpl.java", "package demo;\n"
+                + "public class TellerServiceImpl implements TellerService {\n"
+                + "    public void run() {<caret>}\n"
+                + "}\n");
+        PsiClass service = myFixture.findClass("demo.TellerService");
+        assertEquals(1, InheritorCache.getInheritors(service).size());
+        long before = tracker().getModificationCount();
+
+        myFixture.type("int count = 1;");
+        commit();
+
+        assertEquals(before, tracker().getModificationCount());
+        assertTrue(InheritorCache.isInheritor(myFixture.findClass("demo.TellerServiceImpl"), service));
+    }
+
+    private JavaStructureModificationTracker tracker() {
+        return JavaStructureModificationTracker.getInstance(getProject());
+    }
+
+    private void commit() {
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    }
+}